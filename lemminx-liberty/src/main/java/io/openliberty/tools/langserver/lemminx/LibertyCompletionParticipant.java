@@ -14,18 +14,28 @@ package io.openliberty.tools.langserver.lemminx;
 
 import java.io.IOException;
 import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
 import java.util.List;
-import java.util.stream.Collectors;
+import java.util.Map;
+import java.util.Set;
+import java.util.WeakHashMap;
+
+import com.google.gson.JsonObject;
 
 import org.eclipse.lemminx.commons.BadLocationException;
 import org.eclipse.lemminx.dom.DOMDocument;
 import org.eclipse.lemminx.dom.DOMElement;
 import org.eclipse.lemminx.dom.DOMNode;
+import org.eclipse.lemminx.services.data.DataEntryField;
 import org.eclipse.lemminx.services.extensions.completion.CompletionParticipantAdapter;
+import org.eclipse.lemminx.services.extensions.completion.ICompletionItemResolveParticipant;
+import org.eclipse.lemminx.services.extensions.completion.ICompletionItemResolverRequest;
 import org.eclipse.lemminx.services.extensions.completion.ICompletionRequest;
 import org.eclipse.lemminx.services.extensions.completion.ICompletionResponse;
 import org.eclipse.lemminx.utils.XMLPositionUtility;
 import org.eclipse.lsp4j.CompletionItem;
+import org.eclipse.lsp4j.CompletionList;
 import org.eclipse.lsp4j.InsertReplaceEdit;
 import org.eclipse.lsp4j.Range;
 import org.eclipse.lsp4j.TextEdit;
@@ -33,12 +43,22 @@ import org.eclipse.lsp4j.jsonrpc.CancelChecker;
 import org.eclipse.lsp4j.jsonrpc.messages.Either;
 
 import io.openliberty.tools.langserver.lemminx.models.feature.Feature;
+import io.openliberty.tools.langserver.lemminx.services.FeatureCatalog;
+import io.openliberty.tools.langserver.lemminx.services.FeatureFamilyIndex;
+import io.openliberty.tools.langserver.lemminx.services.FeatureNameIndex;
 import io.openliberty.tools.langserver.lemminx.services.FeatureService;
 import io.openliberty.tools.langserver.lemminx.services.SettingsService;
 import io.openliberty.tools.langserver.lemminx.util.LibertyConstants;
 import io.openliberty.tools.langserver.lemminx.util.LibertyUtils;
 
-public class LibertyCompletionParticipant extends CompletionParticipantAdapter {
+public class LibertyCompletionParticipant extends CompletionParticipantAdapter implements ICompletionItemResolveParticipant {
+
+    // data of the feature completion items, used to look up their documentation on completionItem/resolve,
+    // lemminx finds the document and the participant of an item with the DataEntryField fields
+    private static final String PARTICIPANT_ID = LibertyCompletionParticipant.class.getName();
+    private static final String FEATURE_DATA_FIELD = "feature";
+    private static final String RUNTIME_DATA_FIELD = "libertyRuntime";
+    private static final String VERSION_DATA_FIELD = "libertyVersion";
 
     @Override
     public void onXMLContent(ICompletionRequest request, ICompletionResponse response, CancelChecker cancelChecker)
@@ -55,56 +75,180 @@ public class LibertyCompletionParticipant extends CompletionParticipantAdapter {
         // if the parent element of cursor is a <feature>
         // provide the liberty features as completion options
         if (parentElement.getTagName().equals(LibertyConstants.FEATURE_ELEMENT)) {
-            List<String> existingFeatures = new ArrayList<>();
+            Set<String> existingFeatures = new HashSet<>();
             // collect existing features
             if (parentElement.getParentNode() != null
                     && parentElement.getParentNode().getNodeName().equals(LibertyConstants.FEATURE_MANAGER_ELEMENT)) {
                 existingFeatures = collectExistingFeatures(parentElement.getParentNode());
             }
+            String query = getFeatureQuery(parentElement, request);
             List<CompletionItem> featureCompletionItems = buildCompletionItems(parentElement, request.getXMLDocument(),
-                    existingFeatures);
+                    existingFeatures, query);
             featureCompletionItems.stream().forEach(item -> response.addCompletionItem(item));
+            // the items are filtered by what was typed, ask the client for new items when it changes
+            if (!query.isEmpty() && response instanceof CompletionList) {
+                ((CompletionList) response).setIsIncomplete(true);
+            }
         }
     }
 
-    private CompletionItem buildFeatureCompletionItem(Feature feature, DOMElement featureElement,
-            DOMDocument document) {
-        String featureName = feature.getWlpInformation().getShortName();
+    /**
+     * Adds the documentation of a feature completion item, the items are sent
+     * without it so that the client only receives the documentation it shows.
+     * The feature is looked up in the catalog that is already loaded for the
+     * Liberty version of the item, resolving an item never loads a catalog.
+     */
+    @Override
+    public CompletionItem resolveCompletionItem(ICompletionItemResolverRequest request, CancelChecker cancelChecker) {
+        CompletionItem item = request.getUnresolved();
+        if (!PARTICIPANT_ID.equals(request.getParticipantId())) {
+            return item;
+        }
+        String documentURI = request.getDataProperty(DataEntryField.URI);
+        String featureName = request.getDataProperty(FEATURE_DATA_FIELD);
+        if (documentURI == null || featureName == null) {
+            return item;
+        }
 
+        String libertyVersion = request.getDataProperty(VERSION_DATA_FIELD);
+        String libertyRuntime = request.getDataProperty(RUNTIME_DATA_FIELD);
+        FeatureCatalog featureCatalog = FeatureService.getInstance().getCachedFeatureCatalog(libertyVersion, libertyRuntime, documentURI);
+        Feature feature = featureCatalog.getFeature(featureName);
+        if (feature != null && feature.getShortDescription() != null) {
+            item.setDocumentation(Either.forLeft(feature.getShortDescription()));
+        }
+        return item;
+    }
+
+    /**
+     * The parts of a feature completion item that do not depend on the document
+     */
+    private static final class FeatureCompletion {
+        private final String featureName;
+        // newest version of the same feature, or null if this is the newest
+        private final String newerVersion;
+
+        private FeatureCompletion(Feature feature, FeatureFamilyIndex familyIndex) {
+            this.featureName = feature.getWlpInformation().getShortName();
+            Feature newerFeature = familyIndex.getNewerVersion(featureName);
+            this.newerVersion = newerFeature != null ? newerFeature.getWlpInformation().getShortName() : null;
+        }
+    }
+
+    // Feature catalog -> completion parts of its features, built once per catalog
+    private final Map<FeatureCatalog, List<FeatureCompletion>> featureCompletions = Collections.synchronizedMap(new WeakHashMap<>());
+
+    private List<FeatureCompletion> getFeatureCompletions(FeatureCatalog featureCatalog) {
+        return featureCompletions.computeIfAbsent(featureCatalog, catalog -> {
+            List<FeatureCompletion> completions = new ArrayList<>(catalog.size());
+            FeatureFamilyIndex familyIndex = catalog.getFamilyIndex();
+            for (Feature feature : catalog.getFeatures()) {
+                completions.add(new FeatureCompletion(feature, familyIndex));
+            }
+            return Collections.unmodifiableList(completions);
+        });
+    }
+
+    /**
+     * Returns the text typed between the start of the feature element and the cursor
+     */
+    private String getFeatureQuery(DOMElement featureElement, ICompletionRequest request) {
+        int start = featureElement.getStartTagCloseOffset() + 1;
+        int offset = request.getOffset();
+        String text = request.getXMLDocument().getText();
+        if (text == null || start <= 0 || offset <= start || offset > text.length()) {
+            return "";
+        }
+        String query = text.substring(start, offset).trim();
+        // not a feature name, ie. the cursor is after a line break
+        if (query.chars().anyMatch(Character::isWhitespace)) {
+            return "";
+        }
+        return query;
+    }
+
+    private CompletionItem buildFeatureCompletionItem(FeatureCompletion featureCompletion, Range range, String documentURI,
+            FeatureCatalog featureCatalog) {
         // Build a text edit to replace whatever is inside <feature></feature>
         // with the completion result
-        Range range = XMLPositionUtility.createRange(featureElement.getStartTagCloseOffset() + 1,
-                featureElement.getEndTagOpenOffset(), document);
-        Either<TextEdit, InsertReplaceEdit> edit = Either.forLeft(new TextEdit(range, featureName));
+        Either<TextEdit, InsertReplaceEdit> edit = Either.forLeft(new TextEdit(range, featureCompletion.featureName));
 
-        // Build the completion item to return to the client
+        // Build the completion item to return to the client,
+        // the documentation is added when the client resolves the item
         CompletionItem item = new CompletionItem();
         item.setTextEdit(edit);
-        item.setLabel(featureName);
-        item.setDocumentation(Either.forLeft(feature.getShortDescription()));
+        item.setLabel(featureCompletion.featureName);
+        if (featureCompletion.newerVersion != null) {
+            item.setDetail("Newer version available: " + featureCompletion.newerVersion);
+        }
+        JsonObject data = new JsonObject();
+        data.addProperty(DataEntryField.PARTICIPANT_ID, PARTICIPANT_ID);
+        data.addProperty(DataEntryField.URI, documentURI);
+        data.addProperty(FEATURE_DATA_FIELD, featureCompletion.featureName);
+        // the catalog the item was built from, absent for the default catalog
+        if (featureCatalog.getLibertyRuntime() != null && featureCatalog.getLibertyVersion() != null) {
+            data.addProperty(RUNTIME_DATA_FIELD, featureCatalog.getLibertyRuntime());
+            data.addProperty(VERSION_DATA_FIELD, featureCatalog.getLibertyVersion());
+        }
+        item.setData(data);
         return item;
     }
 
     private List<CompletionItem> buildCompletionItems(DOMElement featureElement, DOMDocument domDocument,
-            List<String> existingFeatures) {
+            Set<String> existingFeatures, String query) {
 
         String libertyRuntimeVersionInfo = LibertyUtils.getRuntimeAndVersionInfo(domDocument);
         String libertyVersion =  LibertyUtils.getVersionFromInfo(libertyRuntimeVersionInfo);
         String libertyRuntime =  LibertyUtils.getRuntimeFromInfo(libertyRuntimeVersionInfo);
 
         final int requestDelay = SettingsService.getInstance().getRequestDelay();
-        List<Feature> features = FeatureService.getInstance().getFeatures(libertyVersion, libertyRuntime, requestDelay, domDocument.getDocumentURI());
+        FeatureCatalog featureCatalog = FeatureService.getInstance().getFeatureCatalog(libertyVersion, libertyRuntime, requestDelay, domDocument.getDocumentURI());
 
-        // filter out features that are already specified in the featureManager block
-        List<CompletionItem> uniqueFeatureCompletionItems = features.stream()
-                .filter(feature -> !existingFeatures.contains(feature.getWlpInformation().getShortName()))
-                .map(feat -> buildFeatureCompletionItem(feat, featureElement, domDocument)).collect(Collectors.toList());
+        // every item replaces whatever is inside <feature></feature>
+        Range range = XMLPositionUtility.createRange(featureElement.getStartTagCloseOffset() + 1,
+                featureElement.getEndTagOpenOffset(), domDocument);
+
+        List<FeatureCompletion> featureCompletions = getFeatureCompletions(featureCatalog);
+        List<CompletionItem> uniqueFeatureCompletionItems = new ArrayList<>();
+        if (query.isEmpty()) {
+            // filter out features that are already specified in the featureManager block
+            for (FeatureCompletion featureCompletion : featureCompletions) {
+                if (!existingFeatures.contains(featureCompletion.featureName)) {
+                    uniqueFeatureCompletionItems.add(buildFeatureCompletionItem(featureCompletion, range, domDocument.getDocumentURI(), featureCatalog));
+                }
+            }
+            return uniqueFeatureCompletionItems;
+        }
 
+        // when the query names a feature, ie. mpHealth or mpHealth-2.0, its newest version comes first
+        Feature latestFeature = featureCatalog.getFamilyIndex().getLatest(query);
+        String latestFeatureName = latestFeature != null ? latestFeature.getWlpInformation().getShortName() : null;
+        if (latestFeatureName != null && !existingFeatures.contains(latestFeatureName)) {
+            CompletionItem item = buildFeatureCompletionItem(new FeatureCompletion(latestFeature, featureCatalog.getFamilyIndex()),
+                    range, domDocument.getDocumentURI(), featureCatalog);
+            item.setSortText(String.format("%04d", uniqueFeatureCompletionItems.size()));
+            // the newest version may not contain the query, ie. mpHealth-4.0 for mpHealth-2.0
+            item.setFilterText(query);
+            uniqueFeatureCompletionItems.add(item);
+        }
+
+        // only return the features that match the query, best matches first
+        for (FeatureNameIndex.Match match : featureCatalog.getNameIndex().search(query)) {
+            FeatureCompletion featureCompletion = featureCompletions.get(match.getId());
+            if (existingFeatures.contains(featureCompletion.featureName) || featureCompletion.featureName.equals(latestFeatureName)) {
+                continue;
+            }
+            CompletionItem item = buildFeatureCompletionItem(featureCompletion, range, domDocument.getDocumentURI(), featureCatalog);
+            item.setSortText(String.format("%04d", uniqueFeatureCompletionItems.size()));
+            // clients filter and highlight the items with the filter text, keep the approximate matches
+            item.setFilterText(match.isFuzzyMatch() ? query : featureCompletion.featureName);
+            uniqueFeatureCompletionItems.add(item);
+        }
         return uniqueFeatureCompletionItems;
     }
 
-    private List<String> collectExistingFeatures(DOMNode featureManager) {
-        List<String> includedFeatures = new ArrayList<>();
+    private Set<String> collectExistingFeatures(DOMNode featureManager) {
+        Set<String> includedFeatures = new HashSet<>();
         List<DOMNode> features = featureManager.getChildren();
         for (DOMNode featureNode : features) {
             DOMNode featureTextNode = (DOMNode) featureNode.getChildNodes().item(0);
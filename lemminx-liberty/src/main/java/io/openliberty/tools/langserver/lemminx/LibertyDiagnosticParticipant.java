@@ -20,8 +20,13 @@ import org.eclipse.lemminx.services.extensions.diagnostics.IDiagnosticsParticipa
 import org.eclipse.lemminx.utils.XMLPositionUtility;
 import org.eclipse.lsp4j.Diagnostic;
 import org.eclipse.lsp4j.DiagnosticSeverity;
+import org.eclipse.lsp4j.DiagnosticTag;
 import org.eclipse.lsp4j.Range;
 import org.eclipse.lsp4j.jsonrpc.CancelChecker;
+import io.openliberty.tools.langserver.lemminx.services.FeatureCatalog;
+import io.openliberty.tools.langserver.lemminx.services.FeatureDelta;
+import io.openliberty.tools.langserver.lemminx.services.FeatureDeltaService;
+import io.openliberty.tools.langserver.lemminx.services.FeatureDependencyGraph;
 import io.openliberty.tools.langserver.lemminx.services.FeatureService;
 import io.openliberty.tools.langserver.lemminx.services.LibertyProjectsManager;
 import io.openliberty.tools.langserver.lemminx.services.SettingsService;
@@ -29,6 +34,8 @@ import io.openliberty.tools.langserver.lemminx.util.*;
 
 import java.io.File;
 import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collections;
 import java.util.HashSet;
 import java.util.List;
 import java.util.Set;
@@ -41,6 +48,10 @@ public class LibertyDiagnosticParticipant implements IDiagnosticsParticipant {
     public static final String NOT_OPTIONAL_CODE = "not_optional";
     public static final String IMPLICIT_NOT_OPTIONAL_MESSAGE = "The specified resource cannot be skipped. Check location value or add optional attribute.";
     public static final String IMPLICIT_NOT_OPTIONAL_CODE = "implicit_not_optional";
+
+    public static final String REDUNDANT_FEATURE_CODE = "redundant_feature";
+    public static final String CONFLICTING_FEATURE_CODE = "conflicting_feature";
+    public static final String UPGRADE_REMOVED_FEATURE_CODE = "upgrade_removed_feature";
     
     @Override
     public void doDiagnostics(DOMDocument domDocument, List<Diagnostic> diagnostics,
@@ -74,10 +85,13 @@ public class LibertyDiagnosticParticipant implements IDiagnosticsParticipant {
         String libertyRuntime =  LibertyUtils.getRuntimeFromInfo(libertyRuntimeVersionInfo);
 
         final int requestDelay = SettingsService.getInstance().getRequestDelay();
+        FeatureCatalog featureCatalog = FeatureService.getInstance().getFeatureCatalog(libertyVersion, libertyRuntime, requestDelay, domDocument.getDocumentURI());
 
         // Search for duplicate features
         // or features that do not exist
         Set<String> includedFeatures = new HashSet<>();
+        // existing features, for the checks that use the dependencies between features
+        List<DOMNode> featureTextNodes = new ArrayList<>();
         List<DOMNode> features = featureManager.getChildren();
         for (DOMNode featureNode : features) {
             DOMNode featureTextNode = (DOMNode) featureNode.getChildNodes().item(0);
@@ -86,7 +100,7 @@ public class LibertyDiagnosticParticipant implements IDiagnosticsParticipant {
                 String featureName = featureTextNode.getTextContent().trim();
                 // if the feature is not a user defined feature and the feature does not exist in the list of
                 // supported features show a "Feature does not exist" diagnostic
-                if (!featureName.startsWith("usr:") && !FeatureService.getInstance().featureExists(featureName, libertyVersion, libertyRuntime, requestDelay, domDocument.getDocumentURI())) {
+                if (!featureName.startsWith("usr:") && !featureCatalog.hasFeature(featureName)) {
                     Range range = XMLPositionUtility.createRange(featureTextNode.getStart(), featureTextNode.getEnd(),
                             domDocument);
                     String message = "ERROR: The feature \"" + featureName + "\" does not exist.";
@@ -99,10 +113,85 @@ public class LibertyDiagnosticParticipant implements IDiagnosticsParticipant {
                         list.add(new Diagnostic(range, message, DiagnosticSeverity.Error, "liberty-lemminx"));
                     } else {
                         includedFeatures.add(featureName);
+                        if (!featureName.startsWith("usr:")) {
+                            featureTextNodes.add(featureTextNode);
+                        }
                     }
                 }
             }
         }
+        validateFeatureDependencies(domDocument, list, featureCatalog, featureTextNodes);
+        validateFeatureUpgrade(domDocument, list, libertyRuntime, libertyVersion, featureTextNodes);
+    }
+
+    /**
+     * Reports the features that are not available in the Liberty version of the
+     * upgradeVersion setting
+     */
+    private void validateFeatureUpgrade(DOMDocument domDocument, List<Diagnostic> list, String libertyRuntime, String libertyVersion, List<DOMNode> featureTextNodes) {
+        String upgradeVersion = SettingsService.getInstance().getUpgradeVersion();
+        if (featureTextNodes.isEmpty() || upgradeVersion == null || upgradeVersion.trim().isEmpty() || upgradeVersion.trim().equals(libertyVersion)) {
+            return;
+        }
+        final int requestDelay = SettingsService.getInstance().getRequestDelay();
+        FeatureDelta delta = FeatureDeltaService.getInstance().getFeatureDelta(libertyRuntime, libertyVersion, upgradeVersion.trim(), requestDelay, domDocument.getDocumentURI());
+        if (delta == null) {
+            // the document is validated again once the features of both versions are loaded
+            return;
+        }
+        for (DOMNode featureTextNode : featureTextNodes) {
+            String featureName = featureTextNode.getTextContent().trim();
+            if (delta.isRemoved(featureName)) {
+                Range range = XMLPositionUtility.createRange(featureTextNode.getStart(), featureTextNode.getEnd(), domDocument);
+                String message = "WARNING: " + featureName + " is not available in Liberty " + delta.getToVersion() + ".";
+                String supersedingFeature = delta.getSupersedingFeature(featureName);
+                if (supersedingFeature != null) {
+                    message += " Use " + supersedingFeature + " instead.";
+                }
+                list.add(new Diagnostic(range, message, DiagnosticSeverity.Warning, "liberty-lemminx", UPGRADE_REMOVED_FEATURE_CODE));
+            }
+        }
+    }
+
+    /**
+     * Reports features that are already enabled by a convenience feature of the
+     * featureManager, and features that enable a different version of a singleton
+     * feature enabled by an earlier feature
+     */
+    private void validateFeatureDependencies(DOMDocument domDocument, List<Diagnostic> list, FeatureCatalog featureCatalog, List<DOMNode> featureTextNodes) {
+        if (featureTextNodes.size() < 2) {
+            return;
+        }
+        FeatureDependencyGraph graph = featureCatalog.getDependencyGraph();
+        int[] featureIds = new int[featureTextNodes.size()];
+        for (int i = 0; i < featureIds.length; i++) {
+            featureIds[i] = graph.getId(featureTextNodes.get(i).getTextContent().trim());
+        }
+
+        int[] includingFeatures = graph.findIncludingFeatures(featureIds);
+        int[] conflictingFeatures = new int[featureIds.length];
+        int[] enablingFeatures = graph.findConflictingFeatures(featureIds, conflictingFeatures);
+        for (int i = 0; i < featureIds.length; i++) {
+            DOMNode featureTextNode = featureTextNodes.get(i);
+            String featureName = featureTextNode.getTextContent().trim();
+            if (includingFeatures[i] >= 0) {
+                Range range = XMLPositionUtility.createRange(featureTextNode.getStart(), featureTextNode.getEnd(), domDocument);
+                String message = "WARNING: " + featureName + " is already included by " + graph.getShortName(includingFeatures[i]) + ".";
+                Diagnostic diagnostic = new Diagnostic(range, message, DiagnosticSeverity.Warning, "liberty-lemminx", REDUNDANT_FEATURE_CODE);
+                diagnostic.setTags(Collections.singletonList(DiagnosticTag.Unnecessary));
+                list.add(diagnostic);
+            }
+            if (enablingFeatures[i] >= 0) {
+                Range range = XMLPositionUtility.createRange(featureTextNode.getStart(), featureTextNode.getEnd(), domDocument);
+                String conflictingFeature = graph.getShortName(conflictingFeatures[i]);
+                String message = "ERROR: " + featureName + " conflicts with " + conflictingFeature;
+                if (enablingFeatures[i] != conflictingFeatures[i]) {
+                    message += " included by " + graph.getShortName(enablingFeatures[i]);
+                }
+                message += ". Only one version of " + FeatureDependencyGraph.getFamily(conflictingFeature) + " can be enabled.";
+                list.add(new Diagnostic(range, message, DiagnosticSeverity.Error, "liberty-lemminx", CONFLICTING_FEATURE_CODE));
+            }
+        }
     }
 
     /**
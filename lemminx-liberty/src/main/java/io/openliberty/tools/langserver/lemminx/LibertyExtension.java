@@ -12,9 +12,10 @@
 *******************************************************************************/
 package io.openliberty.tools.langserver.lemminx;
 
+import org.eclipse.lemminx.dom.DOMDocument;
 import org.eclipse.lemminx.services.extensions.IDocumentLinkParticipant;
 import org.eclipse.lemminx.services.extensions.codeaction.ICodeActionParticipant;
-import org.eclipse.lemminx.services.extensions.completion.ICompletionParticipant;
+import org.eclipse.lemminx.services.extensions.commands.IXMLCommandService;
 import org.eclipse.lemminx.services.extensions.IHoverParticipant;
 import org.eclipse.lemminx.services.extensions.IXMLExtension;
 import org.eclipse.lemminx.services.extensions.XMLExtensionsRegistry;
@@ -25,9 +26,12 @@ import org.eclipse.lemminx.uriresolver.URIResolverExtension;
 import org.eclipse.lsp4j.InitializeParams;
 import org.eclipse.lsp4j.WorkspaceFolder;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.logging.Logger;
 
+import io.openliberty.tools.langserver.lemminx.commands.FeatureDeltaCommand;
+import io.openliberty.tools.langserver.lemminx.services.FeatureService;
 import io.openliberty.tools.langserver.lemminx.services.LibertyProjectsManager;
 import io.openliberty.tools.langserver.lemminx.services.SettingsService;
 
@@ -36,7 +40,7 @@ public class LibertyExtension implements IXMLExtension {
     private static final Logger LOGGER = Logger.getLogger(LibertyExtension.class.getName());
 
     private URIResolverExtension xsdResolver;
-    private ICompletionParticipant completionParticipant;
+    private LibertyCompletionParticipant completionParticipant;
     private IHoverParticipant hoverParticipant;
     private IDiagnosticsParticipant diagnosticsParticipant;
     private ICodeActionParticipant codeActionsParticipant;
@@ -52,11 +56,16 @@ public class LibertyExtension implements IXMLExtension {
         } catch (NullPointerException e) {
             LOGGER.warning("Could not get workspace folders: " + e.toString());
         }
+        // revalidate documents that were validated against a fallback feature list
+        // once the features for their Liberty version have been loaded
+        FeatureService.getInstance().setRevalidationHandler(documentURIs -> revalidateDocuments(xmlExtensionsRegistry, documentURIs));
+
         xsdResolver = new LibertyXSDURIResolver();
         xmlExtensionsRegistry.getResolverExtensionManager().registerResolver(xsdResolver);
 
         completionParticipant = new LibertyCompletionParticipant();
         xmlExtensionsRegistry.registerCompletionParticipant(completionParticipant);
+        xmlExtensionsRegistry.registerCompletionItemResolveParticipant(completionParticipant);
 
         hoverParticipant = new LibertyHoverParticipant();
         xmlExtensionsRegistry.registerHoverParticipant(hoverParticipant);
@@ -69,6 +78,11 @@ public class LibertyExtension implements IXMLExtension {
 
         documentLinkParticipant = new LibertyDocumentLinkParticipant();
         xmlExtensionsRegistry.registerDocumentLinkParticipant(documentLinkParticipant);
+
+        IXMLCommandService commandService = xmlExtensionsRegistry.getCommandService();
+        if (commandService != null) {
+            commandService.registerCommand(FeatureDeltaCommand.COMMAND_ID, new FeatureDeltaCommand());
+        }
     }
 
     @Override
@@ -76,12 +90,27 @@ public class LibertyExtension implements IXMLExtension {
         // clean up .libertyls folders
         LibertyProjectsManager.getInstance().cleanUpTempDirs();
         LibertyProjectsManager.getInstance().cleanInstance();
+        FeatureService.getInstance().setRevalidationHandler(null);
 
         xmlExtensionsRegistry.getResolverExtensionManager().unregisterResolver(xsdResolver);
         xmlExtensionsRegistry.unregisterCompletionParticipant(completionParticipant);
+        xmlExtensionsRegistry.unregisterCompletionItemResolveParticipant(completionParticipant);
         xmlExtensionsRegistry.unregisterHoverParticipant(hoverParticipant);
         xmlExtensionsRegistry.unregisterDiagnosticsParticipant(diagnosticsParticipant);
         xmlExtensionsRegistry.unregisterCodeActionParticipant(codeActionsParticipant);
+        IXMLCommandService commandService = xmlExtensionsRegistry.getCommandService();
+        if (commandService != null) {
+            commandService.unregisterCommand(FeatureDeltaCommand.COMMAND_ID);
+        }
+    }
+
+    private void revalidateDocuments(XMLExtensionsRegistry xmlExtensionsRegistry, Collection<String> documentURIs) {
+        for (String documentURI : documentURIs) {
+            DOMDocument document = xmlExtensionsRegistry.getDocumentProvider().getDocument(documentURI);
+            if (document != null) {
+                xmlExtensionsRegistry.getValidationService().validate(document);
+            }
+        }
     }
 
     // Do save is called on startup with a Settings update
@@ -93,6 +122,7 @@ public class LibertyExtension implements IXMLExtension {
         if (saveContext.getType() == SaveContextType.SETTINGS) {
             Object xmlSettings = saveContext.getSettings();
             SettingsService.getInstance().updateLibertySettings(xmlSettings);
+            FeatureService.getInstance().setFeatureCacheSize(SettingsService.getInstance().getFeatureCacheSize());
             LOGGER.fine("Liberty XML settings updated");
         }
     }
@@ -19,12 +19,11 @@ import org.eclipse.lemminx.services.extensions.IHoverRequest;
 import org.eclipse.lsp4j.Hover;
 import org.eclipse.lsp4j.MarkupContent;
 import io.openliberty.tools.langserver.lemminx.models.feature.*;
+import io.openliberty.tools.langserver.lemminx.services.FeatureCatalog;
 import io.openliberty.tools.langserver.lemminx.services.FeatureService;
 import io.openliberty.tools.langserver.lemminx.services.SettingsService;
 import io.openliberty.tools.langserver.lemminx.util.*;
 
-import java.util.Optional;
-
 public class LibertyHoverParticipant implements IHoverParticipant {
 
 	@Override
@@ -67,9 +66,16 @@ public class LibertyHoverParticipant implements IHoverParticipant {
 
 
             final int requestDelay = SettingsService.getInstance().getRequestDelay();
-            Optional<Feature> feature = FeatureService.getInstance().getFeature(featureName, libertyVersion, libertyRuntime, requestDelay, domDocument.getDocumentURI());
-            if (feature.isPresent()) {
-                return new Hover(new MarkupContent("plaintext", feature.get().getShortDescription()));
+            FeatureCatalog featureCatalog = FeatureService.getInstance().getFeatureCatalog(libertyVersion, libertyRuntime, requestDelay, domDocument.getDocumentURI());
+            Feature feature = featureCatalog.getFeature(featureName);
+            if (feature != null) {
+                String description = feature.getShortDescription();
+                Feature newerFeature = featureCatalog.getFamilyIndex().getNewerVersion(featureName);
+                if (newerFeature != null && description != null) {
+                    description += System.lineSeparator() + System.lineSeparator()
+                            + "A newer version of this feature is available: " + newerFeature.getWlpInformation().getShortName();
+                }
+                return new Hover(new MarkupContent("plaintext", description));
             }
 
             return null;
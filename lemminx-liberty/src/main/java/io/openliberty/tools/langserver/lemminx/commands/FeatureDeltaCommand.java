@@ -0,0 +1,77 @@
+/*******************************************************************************
+* Copyright (c) 2022 IBM Corporation and others.
+*
+* This program and the accompanying materials are made available under the
+* terms of the Eclipse Public License v. 2.0 which is available at
+* http://www.eclipse.org/legal/epl-2.0.
+*
+* SPDX-License-Identifier: EPL-2.0
+*
+* Contributors:
+*     IBM Corporation - initial API and implementation
+*******************************************************************************/
+
+package io.openliberty.tools.langserver.lemminx.commands;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import com.google.gson.JsonElement;
+
+import org.eclipse.lemminx.services.extensions.commands.IXMLCommandService.IDelegateCommandHandler;
+import org.eclipse.lemminx.settings.SharedSettings;
+import org.eclipse.lsp4j.ExecuteCommandParams;
+import org.eclipse.lsp4j.jsonrpc.CancelChecker;
+
+import io.openliberty.tools.langserver.lemminx.services.FeatureDelta;
+import io.openliberty.tools.langserver.lemminx.services.FeatureDeltaService;
+import io.openliberty.tools.langserver.lemminx.services.SettingsService;
+
+/**
+ * Returns the features added, removed, superseded and changed between two
+ * Liberty versions, so that a client can check every server.xml of a workspace
+ * against an upgrade with a single request.
+ *
+ * Arguments: fromVersion, toVersion and optionally the runtime ('ol' or 'wlp'),
+ * which defaults to the runtime setting and then to 'ol'.
+ */
+public class FeatureDeltaCommand implements IDelegateCommandHandler {
+
+    public static final String COMMAND_ID = "liberty.featureDelta";
+
+    // the feature lists may have to be downloaded
+    private static final long TIMEOUT = TimeUnit.MINUTES.toMillis(2);
+
+    @Override
+    public Object executeCommand(ExecuteCommandParams params, SharedSettings sharedSettings, CancelChecker cancelChecker) throws Exception {
+        List<Object> arguments = params.getArguments();
+        if (arguments == null || arguments.size() < 2) {
+            throw new IllegalArgumentException(COMMAND_ID + " expects the Liberty versions to compare");
+        }
+        String fromVersion = getString(arguments.get(0));
+        String toVersion = getString(arguments.get(1));
+        String libertyRuntime = arguments.size() > 2 ? getString(arguments.get(2)) : SettingsService.getInstance().getLibertyRuntime();
+        if (libertyRuntime == null) {
+            libertyRuntime = "ol";
+        }
+        if (fromVersion == null || toVersion == null) {
+            throw new IllegalArgumentException(COMMAND_ID + " expects the Liberty versions to compare");
+        }
+
+        final int requestDelay = SettingsService.getInstance().getRequestDelay();
+        FeatureDelta delta = FeatureDeltaService.getInstance().getFeatureDeltaAsync(libertyRuntime, fromVersion, toVersion, requestDelay)
+                .get(TIMEOUT, TimeUnit.MILLISECONDS);
+        if (delta == null) {
+            throw new IllegalStateException("Unable to load the features of " + libertyRuntime + "-" + fromVersion + " and " + libertyRuntime + "-" + toVersion);
+        }
+        return delta;
+    }
+
+    private static String getString(Object argument) {
+        if (argument instanceof JsonElement) {
+            JsonElement element = (JsonElement) argument;
+            return element.isJsonPrimitive() ? element.getAsString().trim() : null;
+        }
+        return argument != null ? argument.toString().trim() : null;
+    }
+}
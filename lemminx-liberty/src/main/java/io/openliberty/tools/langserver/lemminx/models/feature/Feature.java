@@ -12,20 +12,12 @@
 *******************************************************************************/
 package io.openliberty.tools.langserver.lemminx.models.feature;
 
-import javax.xml.bind.annotation.XmlAccessorType;
-import javax.xml.bind.annotation.XmlAttribute;
-import javax.xml.bind.annotation.XmlAccessType;
-import javax.xml.bind.annotation.XmlRootElement;
-
-@XmlRootElement(name = "feature")
-@XmlAccessorType(XmlAccessType.FIELD)
 public class Feature {
 
   private String description;
   private String licenseId;
   private String licenseType;
 
-  @XmlAttribute
   private String name;
   private String shortDescription;
 
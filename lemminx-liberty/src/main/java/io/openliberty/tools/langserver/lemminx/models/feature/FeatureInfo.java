@@ -14,16 +14,8 @@ package io.openliberty.tools.langserver.lemminx.models.feature;
 
 import java.util.List;
 
-import javax.xml.bind.annotation.XmlAccessType;
-import javax.xml.bind.annotation.XmlAccessorType;
-import javax.xml.bind.annotation.XmlElement;
-import javax.xml.bind.annotation.XmlRootElement;
-
-@XmlRootElement(name = "featureInfo")
-@XmlAccessorType(XmlAccessType.FIELD)
 public class FeatureInfo {
 
-    @XmlElement(name = "feature")
     private List<Feature> features = null;
 
     public List<Feature> getFeatures() {
@@ -13,12 +13,6 @@
 
 package io.openliberty.tools.langserver.lemminx.models.settings;
 
-import javax.xml.bind.annotation.XmlAccessType;
-import javax.xml.bind.annotation.XmlAccessorType;
-import javax.xml.bind.annotation.XmlRootElement;
-
-@XmlRootElement(name = "devcModeMetaData")
-@XmlAccessorType(XmlAccessType.FIELD)
 public class DevcMetadata {
 
     private String containerName;
@@ -21,6 +21,11 @@ public class LibertySettings {
   private String version;
   private String runtime;
   private int requestDelay; // in seconds
+  private int featureCacheSize; // in megabytes
+  private String featureMirrorDir; // Maven repository layout
+  private boolean offline;
+  private String featureRepositoryUrl; // Maven repository to download feature lists from
+  private String upgradeVersion; // Liberty version to check the features against
 
   public String getVersion() {
     return version;
@@ -46,4 +51,44 @@ public class LibertySettings {
     this.requestDelay = requestDelay;
   }
 
+  public int getFeatureCacheSize() {
+    return featureCacheSize;
+  }
+
+  public void setFeatureCacheSize(int featureCacheSize) {
+    this.featureCacheSize = featureCacheSize;
+  }
+
+  public String getFeatureMirrorDir() {
+    return featureMirrorDir;
+  }
+
+  public void setFeatureMirrorDir(String featureMirrorDir) {
+    this.featureMirrorDir = featureMirrorDir;
+  }
+
+  public String getFeatureRepositoryUrl() {
+    return featureRepositoryUrl;
+  }
+
+  public void setFeatureRepositoryUrl(String featureRepositoryUrl) {
+    this.featureRepositoryUrl = featureRepositoryUrl;
+  }
+
+  public String getUpgradeVersion() {
+    return upgradeVersion;
+  }
+
+  public void setUpgradeVersion(String upgradeVersion) {
+    this.upgradeVersion = upgradeVersion;
+  }
+
+  public boolean isOffline() {
+    return offline;
+  }
+
+  public void setOffline(boolean offline) {
+    this.offline = offline;
+  }
+
 }
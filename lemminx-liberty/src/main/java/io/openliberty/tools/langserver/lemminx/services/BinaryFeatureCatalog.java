@@ -0,0 +1,228 @@
+/*******************************************************************************
+* Copyright (c) 2022 IBM Corporation and others.
+*
+* This program and the accompanying materials are made available under the
+* terms of the Eclipse Public License v. 2.0 which is available at
+* http://www.eclipse.org/legal/epl-2.0.
+*
+* SPDX-License-Identifier: EPL-2.0
+*
+* Contributors:
+*     IBM Corporation - initial API and implementation
+*******************************************************************************/
+package io.openliberty.tools.langserver.lemminx.services;
+
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.Reader;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.logging.Logger;
+
+import io.openliberty.tools.langserver.lemminx.models.feature.Feature;
+import io.openliberty.tools.langserver.lemminx.models.feature.WlpInformation;
+
+/**
+ * Compact binary form of a feature catalog, generated at build time from the
+ * bundled features.json so that the default catalog can be loaded without parsing
+ * JSON or rebuilding the name index.
+ *
+ * Layout, all integers are big endian:
+ * <pre>
+ * magic "LFC1", format version
+ * string table: count, then (UTF-8 length, UTF-8 bytes) for each string
+ * features: count, then for each feature the string indexes of name,
+ *   shortDescription, shortName, visibility and singleton, followed by the
+ *   provideFeature and requireFeature lists as (count, string indexes)
+ * name index: capacity, then the feature position of each slot
+ * </pre>
+ * A string index or list count of -1 stands for null, an index slot of -1 for an
+ * empty slot.
+ */
+public final class BinaryFeatureCatalog {
+
+    private static final Logger LOGGER = Logger.getLogger(BinaryFeatureCatalog.class.getName());
+
+    private static final int MAGIC = 0x4C464331; // LFC1
+    private static final int FORMAT_VERSION = 1;
+
+    private BinaryFeatureCatalog() {
+    }
+
+    /**
+     * Writes the catalog in the binary format
+     */
+    public static void write(FeatureCatalog catalog, OutputStream os) throws IOException {
+        DataOutputStream out = new DataOutputStream(new BufferedOutputStream(os));
+        List<String> strings = new ArrayList<>();
+        Map<String, Integer> stringIndexes = new HashMap<>();
+        for (Feature feature : catalog.getFeatures()) {
+            addString(feature.getName(), strings, stringIndexes);
+            addString(feature.getShortDescription(), strings, stringIndexes);
+            WlpInformation wlpInformation = feature.getWlpInformation();
+            addString(wlpInformation.getShortName(), strings, stringIndexes);
+            addString(wlpInformation.getVisibility(), strings, stringIndexes);
+            addString(wlpInformation.getSingleton(), strings, stringIndexes);
+            addStrings(wlpInformation.getProvideFeature(), strings, stringIndexes);
+            addStrings(wlpInformation.getRequireFeature(), strings, stringIndexes);
+        }
+
+        out.writeInt(MAGIC);
+        out.writeInt(FORMAT_VERSION);
+        out.writeInt(strings.size());
+        for (String string : strings) {
+            byte[] bytes = string.getBytes(StandardCharsets.UTF_8);
+            out.writeInt(bytes.length);
+            out.write(bytes);
+        }
+
+        out.writeInt(catalog.size());
+        for (Feature feature : catalog.getFeatures()) {
+            WlpInformation wlpInformation = feature.getWlpInformation();
+            out.writeInt(indexOf(feature.getName(), stringIndexes));
+            out.writeInt(indexOf(feature.getShortDescription(), stringIndexes));
+            out.writeInt(indexOf(wlpInformation.getShortName(), stringIndexes));
+            out.writeInt(indexOf(wlpInformation.getVisibility(), stringIndexes));
+            out.writeInt(indexOf(wlpInformation.getSingleton(), stringIndexes));
+            writeStrings(out, wlpInformation.getProvideFeature(), stringIndexes);
+            writeStrings(out, wlpInformation.getRequireFeature(), stringIndexes);
+        }
+
+        int[] slots = catalog.getSlots();
+        out.writeInt(slots.length);
+        for (int slot : slots) {
+            out.writeInt(slot);
+        }
+        out.flush();
+    }
+
+    /**
+     * Reads a catalog written by {@link #write(FeatureCatalog, OutputStream)}
+     *
+     * @param libertyRuntime Liberty runtime of the catalog, or null for the default catalog
+     * @param libertyVersion Liberty version of the catalog, or null for the default catalog
+     * @throws IOException if the content is not a valid binary catalog
+     */
+    public static FeatureCatalog read(InputStream is, String libertyRuntime, String libertyVersion) throws IOException {
+        return read(ByteBuffer.wrap(is.readAllBytes()), libertyRuntime, libertyVersion);
+    }
+
+    public static FeatureCatalog read(ByteBuffer buffer, String libertyRuntime, String libertyVersion) throws IOException {
+        try {
+            if (buffer.getInt() != MAGIC || buffer.getInt() != FORMAT_VERSION) {
+                throw new IOException("Unsupported binary feature catalog");
+            }
+            String[] strings = new String[buffer.getInt()];
+            for (int i = 0; i < strings.length; i++) {
+                // relative reads, so that direct and mapped buffers are supported
+                byte[] bytes = new byte[buffer.getInt()];
+                buffer.get(bytes);
+                strings[i] = new String(bytes, StandardCharsets.UTF_8);
+            }
+
+            int featureCount = buffer.getInt();
+            List<Feature> features = new ArrayList<>(featureCount);
+            for (int i = 0; i < featureCount; i++) {
+                Feature feature = new Feature();
+                feature.setName(stringAt(strings, buffer.getInt()));
+                feature.setShortDescription(stringAt(strings, buffer.getInt()));
+                WlpInformation wlpInformation = new WlpInformation(stringAt(strings, buffer.getInt()));
+                wlpInformation.setVisibility(stringAt(strings, buffer.getInt()));
+                wlpInformation.setSingleton(stringAt(strings, buffer.getInt()));
+                wlpInformation.setProvideFeature(readStrings(buffer, strings));
+                wlpInformation.setRequireFeature(readStrings(buffer, strings));
+                feature.setWlpInformation(wlpInformation);
+                features.add(feature);
+            }
+
+            int[] slots = new int[buffer.getInt()];
+            for (int i = 0; i < slots.length; i++) {
+                slots[i] = buffer.getInt();
+            }
+            return new FeatureCatalog(libertyRuntime, libertyVersion, features, slots);
+        } catch (BufferUnderflowException | IndexOutOfBoundsException | IllegalArgumentException | NegativeArraySizeException e) {
+            throw new IOException("Invalid binary feature catalog", e);
+        }
+    }
+
+    /**
+     * Converts features.json feature lists into binary catalogs, used by the build
+     *
+     * @param args pairs of input features.json and output binary catalog paths
+     */
+    public static void main(String[] args) throws IOException {
+        for (int i = 0; i + 1 < args.length; i += 2) {
+            Path input = Paths.get(args[i]);
+            Path output = Paths.get(args[i + 1]);
+            if (!Files.isRegularFile(input)) {
+                LOGGER.info("Skipping binary feature catalog, " + input + " does not exist");
+                continue;
+            }
+            FeatureCatalog catalog;
+            try (Reader reader = Files.newBufferedReader(input, StandardCharsets.UTF_8)) {
+                catalog = new FeatureCatalog(null, null, FeatureListReader.readPublicFeatures(reader));
+            }
+            try (OutputStream os = Files.newOutputStream(output)) {
+                write(catalog, os);
+            }
+            LOGGER.info("Wrote binary feature catalog with " + catalog.size() + " features to " + output);
+        }
+    }
+
+    private static void addString(String string, List<String> strings, Map<String, Integer> stringIndexes) {
+        if (string != null && !stringIndexes.containsKey(string)) {
+            stringIndexes.put(string, strings.size());
+            strings.add(string);
+        }
+    }
+
+    private static void addStrings(List<String> values, List<String> strings, Map<String, Integer> stringIndexes) {
+        if (values != null) {
+            for (String value : values) {
+                addString(value, strings, stringIndexes);
+            }
+        }
+    }
+
+    private static int indexOf(String string, Map<String, Integer> stringIndexes) {
+        return string == null ? -1 : stringIndexes.get(string);
+    }
+
+    private static void writeStrings(DataOutputStream out, List<String> values, Map<String, Integer> stringIndexes) throws IOException {
+        if (values == null) {
+            out.writeInt(-1);
+            return;
+        }
+        out.writeInt(values.size());
+        for (String value : values) {
+            out.writeInt(indexOf(value, stringIndexes));
+        }
+    }
+
+    private static String stringAt(String[] strings, int index) {
+        return index < 0 ? null : strings[index];
+    }
+
+    private static ArrayList<String> readStrings(ByteBuffer buffer, String[] strings) {
+        int count = buffer.getInt();
+        if (count < 0) {
+            return null;
+        }
+        ArrayList<String> values = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            values.add(stringAt(strings, buffer.getInt()));
+        }
+        return values;
+    }
+}
@@ -0,0 +1,82 @@
+/*******************************************************************************
+* Copyright (c) 2022 IBM Corporation and others.
+*
+* This program and the accompanying materials are made available under the
+* terms of the Eclipse Public License v. 2.0 which is available at
+* http://www.eclipse.org/legal/epl-2.0.
+*
+* SPDX-License-Identifier: EPL-2.0
+*
+* Contributors:
+*     IBM Corporation - initial API and implementation
+*******************************************************************************/
+package io.openliberty.tools.langserver.lemminx.services;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import javax.xml.stream.XMLStreamConstants;
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamReader;
+
+import io.openliberty.tools.langserver.lemminx.models.settings.DevcMetadata;
+import io.openliberty.tools.langserver.lemminx.util.StaxUtils;
+
+/**
+ * Reads the (name)-liberty-devc-metadata.xml files written by the Liberty dev
+ * mode in a container, with a streaming StAX parser:
+ *
+ * <devcModeMetaData>
+ *   <containerName>...</containerName>
+ *   <containerAlive>true</containerAlive>
+ * </devcModeMetaData>
+ */
+public class DevcMetadataReader {
+
+    private static final String DEVC_MODE_METADATA = "devcModeMetaData";
+
+    private DevcMetadataReader() {
+    }
+
+    public static DevcMetadata readDevcMetadata(Path devcMetadataFile) throws IOException {
+        try (InputStream is = Files.newInputStream(devcMetadataFile)) {
+            return readDevcMetadata(is);
+        }
+    }
+
+    /**
+     * @throws IOException if the content is not devc metadata
+     */
+    public static DevcMetadata readDevcMetadata(InputStream is) throws IOException {
+        XMLStreamReader reader = null;
+        try {
+            reader = StaxUtils.createReader(is);
+            reader.nextTag();
+            if (!DEVC_MODE_METADATA.equals(reader.getLocalName())) {
+                throw new IOException("Unexpected root element " + reader.getLocalName() + ", expected " + DEVC_MODE_METADATA);
+            }
+            DevcMetadata devcMetadata = new DevcMetadata();
+            while (reader.nextTag() == XMLStreamConstants.START_ELEMENT) {
+                switch (reader.getLocalName()) {
+                    case "containerName":
+                        devcMetadata.setContainerName(reader.getElementText());
+                        break;
+                    case "containerAlive":
+                        // xsd:boolean
+                        String containerAlive = reader.getElementText().trim();
+                        devcMetadata.setContainerAlive("true".equals(containerAlive) || "1".equals(containerAlive));
+                        break;
+                    default:
+                        StaxUtils.skipElement(reader);
+                }
+            }
+            return devcMetadata;
+        } catch (XMLStreamException e) {
+            throw new IOException("Unable to read devc metadata: " + e.getMessage(), e);
+        } finally {
+            StaxUtils.closeReader(reader);
+        }
+    }
+}
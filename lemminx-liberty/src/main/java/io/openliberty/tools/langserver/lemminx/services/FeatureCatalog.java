@@ -0,0 +1,304 @@
+/*******************************************************************************
+* Copyright (c) 2022 IBM Corporation and others.
+*
+* This program and the accompanying materials are made available under the
+* terms of the Eclipse Public License v. 2.0 which is available at
+* http://www.eclipse.org/legal/epl-2.0.
+*
+* SPDX-License-Identifier: EPL-2.0
+*
+* Contributors:
+*     IBM Corporation - initial API and implementation
+*******************************************************************************/
+package io.openliberty.tools.langserver.lemminx.services;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+
+import io.openliberty.tools.langserver.lemminx.models.feature.Feature;
+import io.openliberty.tools.langserver.lemminx.models.feature.WlpInformation;
+
+/**
+ * Immutable list of the features available for one Liberty runtime and version,
+ * indexed by short name. Catalogs are built once by the FeatureService and shared
+ * between the completion, hover and diagnostic participants.
+ *
+ * Lookups are case insensitive (the same semantics as String.equalsIgnoreCase)
+ * and use an open addressing hash table so that they run in constant time without
+ * allocating a folded copy of the requested name.
+ */
+public final class FeatureCatalog {
+
+    // rough object sizes for a 64-bit JVM with compressed references
+    private static final int OBJECT_SIZE = 16;
+    private static final int REFERENCE_SIZE = 4;
+    private static final int STRING_SIZE = 40;
+
+    private final String libertyRuntime;
+    private final String libertyVersion;
+    private final List<Feature> features;
+
+    // open addressing table, the length is always a power of two
+    private final String[] names;
+    private final Feature[] values;
+    private final int mask;
+    private final long estimatedSize;
+    // built on first use
+    private volatile FeatureDependencyGraph dependencyGraph;
+    private volatile FeatureNameIndex nameIndex;
+    private volatile FeatureFamilyIndex familyIndex;
+
+    /**
+     * @param libertyRuntime Liberty runtime ('ol' or 'wlp'), or null for the default catalog
+     * @param libertyVersion Liberty version, or null for the default catalog
+     * @param features features of the catalog, the first feature wins for duplicate short names
+     */
+    public FeatureCatalog(String libertyRuntime, String libertyVersion, List<Feature> features) {
+        this.libertyRuntime = libertyRuntime;
+        this.libertyVersion = libertyVersion;
+        this.features = Collections.unmodifiableList(new ArrayList<Feature>(features));
+
+        int capacity = capacityFor(this.features.size());
+        this.names = new String[capacity];
+        this.values = new Feature[capacity];
+        this.mask = capacity - 1;
+        for (Feature feature : this.features) {
+            if (feature.getWlpInformation() != null && feature.getWlpInformation().getShortName() != null) {
+                put(feature.getWlpInformation().getShortName(), feature);
+            }
+        }
+        this.estimatedSize = estimateSize(this.features, capacity);
+    }
+
+    /**
+     * Creates a catalog from a name index that was built ahead of time, ie. by
+     * the BinaryFeatureCatalog
+     *
+     * @param slots for each slot of the hash table, the position of its feature in
+     *              the features list, or -1 for an empty slot
+     */
+    FeatureCatalog(String libertyRuntime, String libertyVersion, List<Feature> features, int[] slots) {
+        this.libertyRuntime = libertyRuntime;
+        this.libertyVersion = libertyVersion;
+        this.features = Collections.unmodifiableList(new ArrayList<Feature>(features));
+
+        int capacity = slots.length;
+        if (capacity != capacityFor(this.features.size())) {
+            throw new IllegalArgumentException("Invalid name index capacity: " + capacity);
+        }
+        this.names = new String[capacity];
+        this.values = new Feature[capacity];
+        this.mask = capacity - 1;
+        for (int i = 0; i < capacity; i++) {
+            if (slots[i] >= 0) {
+                Feature feature = this.features.get(slots[i]);
+                names[i] = feature.getWlpInformation().getShortName();
+                values[i] = feature;
+            }
+        }
+        this.estimatedSize = estimateSize(this.features, capacity);
+    }
+
+    public String getLibertyRuntime() {
+        return libertyRuntime;
+    }
+
+    public String getLibertyVersion() {
+        return libertyVersion;
+    }
+
+    /**
+     * Returns the features of this catalog as an unmodifiable list
+     */
+    public List<Feature> getFeatures() {
+        return features;
+    }
+
+    public int size() {
+        return features.size();
+    }
+
+    public boolean isEmpty() {
+        return features.isEmpty();
+    }
+
+    /**
+     * Returns the approximate number of bytes retained by this catalog, used to
+     * bound the size of the feature cache
+     */
+    public long getEstimatedSize() {
+        return estimatedSize;
+    }
+
+    /**
+     * Returns the feature with the given short name, ignoring case
+     *
+     * @param featureName feature short name, ie. jaxrs-2.1
+     * @return matching feature or null
+     */
+    public Feature getFeature(String featureName) {
+        if (featureName == null) {
+            return null;
+        }
+        int i = hash(featureName) & mask;
+        String name;
+        while ((name = names[i]) != null) {
+            if (name.equalsIgnoreCase(featureName)) {
+                return values[i];
+            }
+            i = (i + 1) & mask;
+        }
+        return null;
+    }
+
+    public boolean hasFeature(String featureName) {
+        return getFeature(featureName) != null;
+    }
+
+    /**
+     * Returns the dependency graph of the features of this catalog
+     */
+    public FeatureDependencyGraph getDependencyGraph() {
+        FeatureDependencyGraph graph = dependencyGraph;
+        if (graph == null) {
+            // concurrent callers may build it twice, but the graphs are equivalent
+            graph = new FeatureDependencyGraph(this);
+            dependencyGraph = graph;
+        }
+        return graph;
+    }
+
+    /**
+     * Returns the index used to search the features of this catalog by name
+     */
+    public FeatureNameIndex getNameIndex() {
+        FeatureNameIndex index = nameIndex;
+        if (index == null) {
+            index = new FeatureNameIndex(this);
+            nameIndex = index;
+        }
+        return index;
+    }
+
+    /**
+     * Returns the index of the versions of each feature family of this catalog
+     */
+    public FeatureFamilyIndex getFamilyIndex() {
+        FeatureFamilyIndex index = familyIndex;
+        if (index == null) {
+            index = new FeatureFamilyIndex(this);
+            familyIndex = index;
+        }
+        return index;
+    }
+
+    /**
+     * Returns the name index in the form accepted by the prebuilt index constructor
+     */
+    int[] getSlots() {
+        Map<Feature, Integer> positions = new IdentityHashMap<>();
+        for (int i = 0; i < features.size(); i++) {
+            positions.putIfAbsent(features.get(i), i);
+        }
+        int[] slots = new int[values.length];
+        for (int i = 0; i < values.length; i++) {
+            slots[i] = values[i] == null ? -1 : positions.get(values[i]);
+        }
+        return slots;
+    }
+
+    private void put(String featureName, Feature feature) {
+        int i = hash(featureName) & mask;
+        String name;
+        while ((name = names[i]) != null) {
+            if (name.equalsIgnoreCase(featureName)) {
+                return;
+            }
+            i = (i + 1) & mask;
+        }
+        names[i] = featureName;
+        values[i] = feature;
+    }
+
+    // keeps the load factor of the name index under one half
+    private static int capacityFor(int size) {
+        return Integer.highestOneBit(Math.max(size, 1) * 2 + 1) << 1;
+    }
+
+    /**
+     * Case insensitive hash that is consistent with String.equalsIgnoreCase
+     */
+    private static int hash(String name) {
+        int h = 0;
+        for (int i = 0; i < name.length(); i++) {
+            h = 31 * h + Character.toLowerCase(Character.toUpperCase(name.charAt(i)));
+        }
+        return h ^ (h >>> 16);
+    }
+
+    private static long estimateSize(List<Feature> features, int capacity) {
+        long size = indexSize(features.size(), capacity);
+        for (Feature feature : features) {
+            size += estimateSize(feature);
+        }
+        return size;
+    }
+
+    private static long indexSize(int featureCount, int capacity) {
+        return OBJECT_SIZE * 4 + (long) capacity * REFERENCE_SIZE * 2 + (long) featureCount * REFERENCE_SIZE;
+    }
+
+    /**
+     * Returns the approximate number of bytes retained by this catalog, excluding
+     * its features, which may be shared with other catalogs
+     */
+    long getIndexSize() {
+        return indexSize(features.size(), names.length);
+    }
+
+    /**
+     * Returns the approximate number of bytes retained by a feature
+     */
+    static long estimateSize(Feature feature) {
+        long size = OBJECT_SIZE + 8 * REFERENCE_SIZE;
+        size += sizeOf(feature.getDescription()) + sizeOf(feature.getLicenseId()) + sizeOf(feature.getLicenseType())
+                + sizeOf(feature.getName()) + sizeOf(feature.getShortDescription()) + sizeOf(feature.getType())
+                + sizeOf(feature.getVersion());
+        WlpInformation wlpInformation = feature.getWlpInformation();
+        if (wlpInformation != null) {
+            size += OBJECT_SIZE + 14 * REFERENCE_SIZE;
+            size += sizeOf(wlpInformation.getAppliesTo()) + sizeOf(wlpInformation.getDisplayPolicy())
+                    + sizeOf(wlpInformation.getDownloadPolicy()) + sizeOf(wlpInformation.getIbmInstallTo())
+                    + sizeOf(wlpInformation.getInstallPolicy()) + sizeOf(wlpInformation.getSingleton())
+                    + sizeOf(wlpInformation.getTypeLabel()) + sizeOf(wlpInformation.getVisibility())
+                    + sizeOf(wlpInformation.getWebDisplayPolicy()) + sizeOf(wlpInformation.getMavenCoordinates())
+                    + sizeOf(wlpInformation.getShortName()) + sizeOf(wlpInformation.getProvideFeature())
+                    + sizeOf(wlpInformation.getRequireFeature());
+        }
+        return size;
+    }
+
+    private static long sizeOf(List<String> values) {
+        if (values == null) {
+            return 0;
+        }
+        long size = OBJECT_SIZE * 2 + (long) values.size() * REFERENCE_SIZE;
+        for (String value : values) {
+            size += sizeOf(value);
+        }
+        return size;
+    }
+
+    // assumes one byte per character, the common case for compact strings
+    private static long sizeOf(String value) {
+        return value == null ? 0 : STRING_SIZE + value.length();
+    }
+
+    @Override
+    public String toString() {
+        return (libertyRuntime == null ? "default" : libertyRuntime + "-" + libertyVersion) + " (" + features.size() + " features)";
+    }
+}
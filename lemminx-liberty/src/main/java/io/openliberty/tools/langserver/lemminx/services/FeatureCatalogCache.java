@@ -0,0 +1,222 @@
+/*******************************************************************************
+* Copyright (c) 2022 IBM Corporation and others.
+*
+* This program and the accompanying materials are made available under the
+* terms of the Eclipse Public License v. 2.0 which is available at
+* http://www.eclipse.org/legal/epl-2.0.
+*
+* SPDX-License-Identifier: EPL-2.0
+*
+* Contributors:
+*     IBM Corporation - initial API and implementation
+*******************************************************************************/
+package io.openliberty.tools.langserver.lemminx.services;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.logging.Logger;
+
+import io.openliberty.tools.langserver.lemminx.models.feature.Feature;
+
+/**
+ * Size bounded cache of the feature catalogs loaded by the FeatureService, keyed
+ * by runtime-version. The size of the cache is the estimated size of its catalogs,
+ * counting the features they share only once, and the least recently used
+ * catalogs are evicted when it goes over the maximum size. A catalog that is
+ * being added is always kept, even if it is larger than the maximum size on its
+ * own.
+ *
+ * The entries are published as immutable maps, so lookups never lock. A lookup
+ * only records the time of the access on the entry it returns. Changes are made
+ * one at a time, and only walk the features of the catalogs they add or evict.
+ */
+public class FeatureCatalogCache {
+
+    private static final Logger LOGGER = Logger.getLogger(FeatureCatalogCache.class.getName());
+
+    private final AtomicReference<Map<String, CacheEntry>> entries;
+    private final AtomicLong accessClock;
+    private final LongAdder hitCount;
+    private final LongAdder missCount;
+    private final LongAdder evictionCount;
+    private volatile long maxSize;
+    // estimated size of the cached catalogs and number of cached catalogs of each
+    // feature, updated as the catalogs are added and evicted, guarded by this
+    private volatile long size;
+    private final Map<Feature, Integer> featureReferences = new IdentityHashMap<>();
+
+    private static class CacheEntry {
+        private final FeatureCatalog catalog;
+        private volatile long lastAccess;
+
+        CacheEntry(FeatureCatalog catalog, long lastAccess) {
+            this.catalog = catalog;
+            this.lastAccess = lastAccess;
+        }
+    }
+
+    /**
+     * @param maxSize maximum estimated size of the cached catalogs, in bytes
+     */
+    public FeatureCatalogCache(long maxSize) {
+        this.entries = new AtomicReference<>(Collections.emptyMap());
+        this.accessClock = new AtomicLong();
+        this.hitCount = new LongAdder();
+        this.missCount = new LongAdder();
+        this.evictionCount = new LongAdder();
+        this.maxSize = maxSize;
+    }
+
+    /**
+     * Returns the cached catalog for the given key and marks it as recently used
+     *
+     * @return cached catalog or null
+     */
+    public FeatureCatalog get(String key) {
+        CacheEntry entry = entries.get().get(key);
+        if (entry == null) {
+            missCount.increment();
+            return null;
+        }
+        hitCount.increment();
+        entry.lastAccess = accessClock.incrementAndGet();
+        return entry.catalog;
+    }
+
+    /**
+     * Adds or replaces the catalog for the given key, then evicts the least recently
+     * used catalogs until the cache fits in its maximum size
+     */
+    public void put(String key, FeatureCatalog catalog) {
+        CacheEntry newEntry = new CacheEntry(catalog, accessClock.incrementAndGet());
+        update(key, newEntry);
+    }
+
+    /**
+     * Returns the cached catalogs, without marking them as used
+     */
+    public Collection<FeatureCatalog> values() {
+        List<FeatureCatalog> catalogs = new ArrayList<>();
+        for (CacheEntry entry : entries.get().values()) {
+            catalogs.add(entry.catalog);
+        }
+        return catalogs;
+    }
+
+    /**
+     * Changes the maximum size of the cache, evicting catalogs if needed
+     *
+     * @param maxSize maximum estimated size of the cached catalogs, in bytes
+     */
+    public void setMaxSize(long maxSize) {
+        this.maxSize = maxSize;
+        update(null, null);
+    }
+
+    public long getMaxSize() {
+        return maxSize;
+    }
+
+    /**
+     * Returns the estimated size of the cached catalogs, in bytes
+     */
+    public long getSize() {
+        return size;
+    }
+
+    public int getCatalogCount() {
+        return entries.get().size();
+    }
+
+    public long getHitCount() {
+        return hitCount.sum();
+    }
+
+    public long getMissCount() {
+        return missCount.sum();
+    }
+
+    public long getEvictionCount() {
+        return evictionCount.sum();
+    }
+
+    private synchronized void update(String key, CacheEntry newEntry) {
+        Map<String, CacheEntry> updated = new HashMap<>(entries.get());
+        if (key != null) {
+            CacheEntry replaced = updated.put(key, newEntry);
+            if (replaced != null) {
+                release(replaced.catalog);
+            }
+            retain(newEntry.catalog);
+        }
+        List<String> evicted = evict(updated, key);
+        if (evicted.isEmpty() && key == null) {
+            return;
+        }
+        entries.set(Collections.unmodifiableMap(updated));
+        if (!evicted.isEmpty()) {
+            evictionCount.add(evicted.size());
+            LOGGER.fine("Evicted features for " + evicted + " from the feature cache");
+        }
+    }
+
+    /**
+     * Removes the least recently used entries other than the given key until the
+     * estimated size is at most the maximum size
+     *
+     * @return keys of the removed entries
+     */
+    private List<String> evict(Map<String, CacheEntry> updated, String keep) {
+        List<String> evicted = new ArrayList<>();
+        while (size > maxSize) {
+            String lruKey = null;
+            CacheEntry lruEntry = null;
+            for (Map.Entry<String, CacheEntry> entry : updated.entrySet()) {
+                if (entry.getKey().equals(keep)) {
+                    continue;
+                }
+                if (lruEntry == null || entry.getValue().lastAccess < lruEntry.lastAccess) {
+                    lruKey = entry.getKey();
+                    lruEntry = entry.getValue();
+                }
+            }
+            if (lruKey == null) {
+                break;
+            }
+            updated.remove(lruKey);
+            release(lruEntry.catalog);
+            evicted.add(lruKey);
+        }
+        return evicted;
+    }
+
+    // features shared between catalogs by the FeatureInterner are only counted by their first catalog
+    private void retain(FeatureCatalog catalog) {
+        long added = catalog.getIndexSize();
+        for (Feature feature : catalog.getFeatures()) {
+            if (featureReferences.merge(feature, 1, Integer::sum) == 1) {
+                added += FeatureCatalog.estimateSize(feature);
+            }
+        }
+        size += added;
+    }
+
+    private void release(FeatureCatalog catalog) {
+        long removed = catalog.getIndexSize();
+        for (Feature feature : catalog.getFeatures()) {
+            if (featureReferences.merge(feature, -1, Integer::sum) == 0) {
+                featureReferences.remove(feature);
+                removed += FeatureCatalog.estimateSize(feature);
+            }
+        }
+        size -= removed;
+    }
+}
@@ -0,0 +1,73 @@
+/*******************************************************************************
+* Copyright (c) 2022 IBM Corporation and others.
+*
+* This program and the accompanying materials are made available under the
+* terms of the Eclipse Public License v. 2.0 which is available at
+* http://www.eclipse.org/legal/epl-2.0.
+*
+* SPDX-License-Identifier: EPL-2.0
+*
+* Contributors:
+*     IBM Corporation - initial API and implementation
+*******************************************************************************/
+package io.openliberty.tools.langserver.lemminx.services;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import io.openliberty.tools.langserver.lemminx.models.feature.Feature;
+
+/**
+ * A source of the exact feature list of a Liberty version, ie. a Maven repository.
+ *
+ * The FeatureService asks its sources in priority order, lowest value first:
+ * - local sources are asked synchronously, when a catalog is not cached
+ * - the other sources are asked in the background. Sources with the same
+ *   priority are asked at the same time and the first feature list wins. The
+ *   thread of a source that loses, or that does not answer before its timeout,
+ *   is interrupted.
+ *
+ * Additional sources are discovered with the ServiceLoader, from
+ * META-INF/services/io.openliberty.tools.langserver.lemminx.services.FeatureCatalogSource
+ */
+public interface FeatureCatalogSource {
+
+    int LOCAL_REPOSITORY_PRIORITY = 100;
+    int MAVEN_CENTRAL_PRIORITY = 200;
+
+    long DEFAULT_TIMEOUT = TimeUnit.SECONDS.toMillis(30);
+
+    /**
+     * @return name of the source, for logging
+     */
+    String getName();
+
+    /**
+     * @return priority of the source, sources with a lower value are asked first
+     */
+    int getPriority();
+
+    /**
+     * @return true if the source does not use the network and answers quickly
+     */
+    default boolean isLocal() {
+        return false;
+    }
+
+    /**
+     * @return time in milliseconds after which a source that is not local is skipped
+     */
+    default long getTimeout() {
+        return DEFAULT_TIMEOUT;
+    }
+
+    /**
+     * Returns the public features of a Liberty version. A source that is not local
+     * should stop when its thread is interrupted, ie. by throwing an InterruptedIOException.
+     *
+     * @param libertyRuntime ol or wlp
+     * @return features, or null if the source does not have the feature list of the version
+     */
+    List<Feature> loadFeatures(String libertyRuntime, String libertyVersion) throws IOException;
+}
@@ -0,0 +1,205 @@
+/*******************************************************************************
+* Copyright (c) 2022 IBM Corporation and others.
+*
+* This program and the accompanying materials are made available under the
+* terms of the Eclipse Public License v. 2.0 which is available at
+* http://www.eclipse.org/legal/epl-2.0.
+*
+* SPDX-License-Identifier: EPL-2.0
+*
+* Contributors:
+*     IBM Corporation - initial API and implementation
+*******************************************************************************/
+package io.openliberty.tools.langserver.lemminx.services;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.util.Properties;
+import java.util.concurrent.TimeUnit;
+import java.util.logging.Logger;
+
+import org.eclipse.lemminx.utils.FilesUtils;
+
+/**
+ * Persists the feature lists downloaded from Maven so that they survive language
+ * server restarts. Each catalog is stored as the original features-(version).json
+ * next to a properties file that records the ETag and Last-Modified headers of the
+ * download and when the file was last validated against the remote repository.
+ *
+ * The store lives in the lemminx cache, under a directory that is versioned so
+ * that the layout can change without reading files written by older releases:
+ * ~/.lemminx/cache/liberty/features/v1/(runtime)/features-(version).json
+ */
+public class FeatureCatalogStore {
+
+    private static final Logger LOGGER = Logger.getLogger(FeatureCatalogStore.class.getName());
+
+    private static final Path STORE_PATH = Paths.get("cache", "liberty", "features", "v1");
+
+    // released feature lists do not change, so only revalidate them once a day
+    public static final long REVALIDATE_AFTER = TimeUnit.DAYS.toMillis(1);
+
+    private static final String ETAG = "etag";
+    private static final String LAST_MODIFIED = "lastModified";
+    private static final String VALIDATED = "validated";
+
+    private final Path storeDir;
+
+    public FeatureCatalogStore() {
+        this(null);
+    }
+
+    /**
+     * @param storeDir directory of the store, or null to use the lemminx cache
+     */
+    public FeatureCatalogStore(Path storeDir) {
+        this.storeDir = storeDir;
+    }
+
+    /**
+     * A feature list that is available in the store
+     */
+    public static class Entry {
+        private final Path file;
+        private final String etag;
+        private final String lastModified;
+        private final long validated;
+
+        Entry(Path file, String etag, String lastModified, long validated) {
+            this.file = file;
+            this.etag = etag;
+            this.lastModified = lastModified;
+            this.validated = validated;
+        }
+
+        public Path getFile() {
+            return file;
+        }
+
+        public String getEtag() {
+            return etag;
+        }
+
+        public String getLastModified() {
+            return lastModified;
+        }
+
+        /**
+         * @return true if the entry was validated against the remote repository recently
+         */
+        public boolean isFresh() {
+            return System.currentTimeMillis() - validated < REVALIDATE_AFTER;
+        }
+    }
+
+    /**
+     * Returns the stored feature list for the given runtime and version
+     *
+     * @return stored entry, or null if the feature list has not been stored
+     */
+    public Entry read(String libertyRuntime, String libertyVersion) {
+        try {
+            Path file = getFeatureListFile(libertyRuntime, libertyVersion);
+            if (!Files.isRegularFile(file)) {
+                return null;
+            }
+            Properties metadata = new Properties();
+            Path metadataFile = getMetadataFile(file);
+            if (Files.isRegularFile(metadataFile)) {
+                try (InputStream is = Files.newInputStream(metadataFile)) {
+                    metadata.load(is);
+                }
+            }
+            long validated = 0;
+            try {
+                validated = Long.parseLong(metadata.getProperty(VALIDATED, "0"));
+            } catch (NumberFormatException e) {
+                // treat as never validated
+            }
+            return new Entry(file, metadata.getProperty(ETAG), metadata.getProperty(LAST_MODIFIED), validated);
+        } catch (IOException e) {
+            LOGGER.warning("Unable to read stored feature list for " + libertyRuntime + "-" + libertyVersion + ": " + e.getMessage());
+            return null;
+        }
+    }
+
+    /**
+     * Stores a downloaded feature list. The content is written to a temporary file
+     * first and then moved in place so that readers never see a partial file.
+     *
+     * @return stored entry, or null if the feature list could not be written
+     */
+    public Entry write(String libertyRuntime, String libertyVersion, byte[] content, String etag, String lastModified) {
+        try {
+            Path file = getFeatureListFile(libertyRuntime, libertyVersion);
+            Files.createDirectories(file.getParent());
+            Path tempFile = Files.createTempFile(file.getParent(), file.getFileName().toString(), ".tmp");
+            Files.write(tempFile, content);
+            Files.move(tempFile, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            long validated = System.currentTimeMillis();
+            writeMetadata(file, etag, lastModified, validated);
+            LOGGER.fine("Stored feature list at: " + file);
+            return new Entry(file, etag, lastModified, validated);
+        } catch (IOException e) {
+            LOGGER.warning("Unable to store feature list for " + libertyRuntime + "-" + libertyVersion + ": " + e.getMessage());
+            return null;
+        }
+    }
+
+    /**
+     * Records that the stored feature list is still current, ie. the remote
+     * repository answered a conditional request with 304 Not Modified
+     */
+    public Entry markValidated(Entry entry) {
+        long validated = System.currentTimeMillis();
+        try {
+            writeMetadata(entry.getFile(), entry.getEtag(), entry.getLastModified(), validated);
+        } catch (IOException e) {
+            LOGGER.warning("Unable to update stored feature list metadata for " + entry.getFile() + ": " + e.getMessage());
+        }
+        return new Entry(entry.getFile(), entry.getEtag(), entry.getLastModified(), validated);
+    }
+
+    private void writeMetadata(Path file, String etag, String lastModified, long validated) throws IOException {
+        Properties metadata = new Properties();
+        if (etag != null) {
+            metadata.setProperty(ETAG, etag);
+        }
+        if (lastModified != null) {
+            metadata.setProperty(LAST_MODIFIED, lastModified);
+        }
+        metadata.setProperty(VALIDATED, Long.toString(validated));
+        Path metadataFile = getMetadataFile(file);
+        Path tempFile = Files.createTempFile(file.getParent(), metadataFile.getFileName().toString(), ".tmp");
+        try (OutputStream os = Files.newOutputStream(tempFile)) {
+            metadata.store(os, null);
+        }
+        Files.move(tempFile, metadataFile, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    private Path getFeatureListFile(String libertyRuntime, String libertyVersion) throws IOException {
+        if (!isValidName(libertyRuntime) || !isValidName(libertyVersion)) {
+            throw new IOException("Invalid Liberty runtime or version: " + libertyRuntime + "-" + libertyVersion);
+        }
+        return getStoreDir().resolve(libertyRuntime).resolve("features-" + libertyVersion + ".json");
+    }
+
+    private Path getMetadataFile(Path featureListFile) {
+        String fileName = featureListFile.getFileName().toString();
+        return featureListFile.resolveSibling(fileName.substring(0, fileName.length() - ".json".length()) + ".properties");
+    }
+
+    // runtime and version may come from the settings, do not let them escape the store
+    private static boolean isValidName(String name) {
+        return name != null && !name.isEmpty() && name.matches("[A-Za-z0-9._-]+") && !name.contains("..");
+    }
+
+    private Path getStoreDir() throws IOException {
+        return storeDir != null ? storeDir : FilesUtils.getDeployedPath(STORE_PATH);
+    }
+}
@@ -0,0 +1,193 @@
+/*******************************************************************************
+* Copyright (c) 2022 IBM Corporation and others.
+*
+* This program and the accompanying materials are made available under the
+* terms of the Eclipse Public License v. 2.0 which is available at
+* http://www.eclipse.org/legal/epl-2.0.
+*
+* SPDX-License-Identifier: EPL-2.0
+*
+* Contributors:
+*     IBM Corporation - initial API and implementation
+*******************************************************************************/
+package io.openliberty.tools.langserver.lemminx.services;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+
+import io.openliberty.tools.langserver.lemminx.models.feature.Feature;
+import io.openliberty.tools.langserver.lemminx.models.feature.WlpInformation;
+
+/**
+ * Differences between the features of two Liberty versions of the same runtime:
+ * - added: features that only the newer version has
+ * - removed: features that only the older version has
+ * - superseded: removed features that the newer version has another version of,
+ *   mapped to the newest one, ie. mpMetrics-1.0 -> mpMetrics-4.0
+ * - changed: features of both versions whose dependencies or singleton flag differ
+ *
+ * Feature names are short names sorted alphabetically, lookups ignore case.
+ * Deltas are immutable and serialized as is in the response of the
+ * liberty.featureDelta command.
+ */
+public final class FeatureDelta {
+
+    private final String libertyRuntime;
+    private final String fromVersion;
+    private final String toVersion;
+    private final List<String> added;
+    private final List<String> removed;
+    private final List<String> changed;
+    private final Map<String, String> superseded;
+
+    // lower case short names, not serialized
+    private final transient Set<String> removedIndex;
+    private final transient Map<String, String> supersededIndex;
+
+    private FeatureDelta(String libertyRuntime, String fromVersion, String toVersion, List<String> added,
+            List<String> removed, List<String> changed, Map<String, String> superseded) {
+        this.libertyRuntime = libertyRuntime;
+        this.fromVersion = fromVersion;
+        this.toVersion = toVersion;
+        this.added = Collections.unmodifiableList(added);
+        this.removed = Collections.unmodifiableList(removed);
+        this.changed = Collections.unmodifiableList(changed);
+        this.superseded = Collections.unmodifiableMap(superseded);
+        this.removedIndex = new HashSet<>();
+        for (String featureName : removed) {
+            removedIndex.add(featureName.toLowerCase(Locale.ROOT));
+        }
+        this.supersededIndex = new HashMap<>();
+        for (Map.Entry<String, String> entry : superseded.entrySet()) {
+            supersededIndex.put(entry.getKey().toLowerCase(Locale.ROOT), entry.getValue());
+        }
+    }
+
+    /**
+     * Computes the differences between two catalogs with one pass over each
+     *
+     * @param from catalog of the current version
+     * @param to catalog of the version to upgrade to
+     */
+    public static FeatureDelta compute(FeatureCatalog from, FeatureCatalog to) {
+        List<String> added = new ArrayList<>();
+        List<String> removed = new ArrayList<>();
+        List<String> changed = new ArrayList<>();
+        Map<String, String> superseded = new LinkedHashMap<>();
+
+        for (Feature feature : from.getFeatures()) {
+            String featureName = getShortName(feature);
+            if (featureName == null) {
+                continue;
+            }
+            Feature newFeature = to.getFeature(featureName);
+            if (newFeature == null) {
+                removed.add(featureName);
+            } else if (isChanged(feature, newFeature)) {
+                changed.add(featureName);
+            }
+        }
+        for (Feature feature : to.getFeatures()) {
+            String featureName = getShortName(feature);
+            if (featureName != null && !from.hasFeature(featureName)) {
+                added.add(featureName);
+            }
+        }
+
+        Collections.sort(added, String.CASE_INSENSITIVE_ORDER);
+        Collections.sort(removed, String.CASE_INSENSITIVE_ORDER);
+        Collections.sort(changed, String.CASE_INSENSITIVE_ORDER);
+        FeatureFamilyIndex familyIndex = to.getFamilyIndex();
+        for (String featureName : removed) {
+            Feature latest = FeatureDependencyGraph.getFamily(featureName) != null ? familyIndex.getLatest(featureName) : null;
+            if (latest != null) {
+                superseded.put(featureName, getShortName(latest));
+            }
+        }
+        return new FeatureDelta(to.getLibertyRuntime(), from.getLibertyVersion(), to.getLibertyVersion(), added, removed, changed, superseded);
+    }
+
+    public String getLibertyRuntime() {
+        return libertyRuntime;
+    }
+
+    public String getFromVersion() {
+        return fromVersion;
+    }
+
+    public String getToVersion() {
+        return toVersion;
+    }
+
+    public List<String> getAdded() {
+        return added;
+    }
+
+    public List<String> getRemoved() {
+        return removed;
+    }
+
+    public List<String> getChanged() {
+        return changed;
+    }
+
+    public Map<String, String> getSuperseded() {
+        return superseded;
+    }
+
+    /**
+     * @return true if the newer version does not have the feature, ignoring case
+     */
+    public boolean isRemoved(String featureName) {
+        return featureName != null && removedIndex.contains(featureName.toLowerCase(Locale.ROOT));
+    }
+
+    /**
+     * @return newest version of a removed feature in the newer version, or null
+     */
+    public String getSupersedingFeature(String featureName) {
+        return featureName != null ? supersededIndex.get(featureName.toLowerCase(Locale.ROOT)) : null;
+    }
+
+    private static boolean isChanged(Feature feature, Feature newFeature) {
+        if (feature == newFeature) {
+            // shared by the interner, equal in both versions
+            return false;
+        }
+        WlpInformation wlpInformation = feature.getWlpInformation();
+        WlpInformation newWlpInformation = newFeature.getWlpInformation();
+        return !Objects.equals(wlpInformation.getSingleton(), newWlpInformation.getSingleton())
+                || !getRequiredFeatures(wlpInformation).equals(getRequiredFeatures(newWlpInformation));
+    }
+
+    // symbolic names of the required features, without their attributes
+    private static Set<String> getRequiredFeatures(WlpInformation wlpInformation) {
+        if (wlpInformation.getRequireFeature() == null) {
+            return Collections.emptySet();
+        }
+        Set<String> requiredFeatures = new HashSet<>();
+        for (String requireFeature : wlpInformation.getRequireFeature()) {
+            int separator = requireFeature.indexOf(';');
+            requiredFeatures.add((separator < 0 ? requireFeature : requireFeature.substring(0, separator)).trim());
+        }
+        return requiredFeatures;
+    }
+
+    private static String getShortName(Feature feature) {
+        return feature.getWlpInformation() != null ? feature.getWlpInformation().getShortName() : null;
+    }
+
+    @Override
+    public String toString() {
+        return libertyRuntime + " " + fromVersion + " -> " + toVersion + " (" + added.size() + " added, " + removed.size()
+                + " removed, " + changed.size() + " changed)";
+    }
+}
@@ -0,0 +1,126 @@
+/*******************************************************************************
+* Copyright (c) 2022 IBM Corporation and others.
+*
+* This program and the accompanying materials are made available under the
+* terms of the Eclipse Public License v. 2.0 which is available at
+* http://www.eclipse.org/legal/epl-2.0.
+*
+* SPDX-License-Identifier: EPL-2.0
+*
+* Contributors:
+*     IBM Corporation - initial API and implementation
+*******************************************************************************/
+package io.openliberty.tools.langserver.lemminx.services;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.logging.Logger;
+
+/**
+ * Computes the feature deltas between Liberty versions from the catalogs of the
+ * FeatureService. A delta is computed once per runtime and pair of versions and
+ * then shared, so checking every server.xml of a workspace against an upgrade is
+ * a lookup per feature.
+ *
+ * Only deltas between the exact catalogs of both versions are cached, a delta
+ * computed while a fallback catalog is in use would be wrong once the exact
+ * catalog is loaded.
+ */
+public class FeatureDeltaService {
+
+    private static final Logger LOGGER = Logger.getLogger(FeatureDeltaService.class.getName());
+
+    // deltas are small, but a workspace only upgrades between a few versions
+    static final int MAX_DELTAS = 32;
+
+    private static final FeatureDeltaService INSTANCE = new FeatureDeltaService();
+
+    public static FeatureDeltaService getInstance() {
+        return INSTANCE;
+    }
+
+    // runtime-fromVersion->toVersion -> delta, least recently used first
+    private final Map<String, FeatureDelta> deltas = new LinkedHashMap<String, FeatureDelta>(16, 0.75f, true) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<String, FeatureDelta> eldest) {
+            return size() > MAX_DELTAS;
+        }
+    };
+
+    private FeatureDeltaService() {
+    }
+
+    /**
+     * Returns the delta between two versions if the catalogs of both versions are
+     * loaded, without waiting for the network. Missing catalogs are loaded in the
+     * background.
+     *
+     * @param documentURI Liberty XML document, to revalidate once the catalogs are loaded
+     * @return delta between the versions, or null if a catalog is not loaded yet
+     */
+    public FeatureDelta getFeatureDelta(String libertyRuntime, String fromVersion, String toVersion, int requestDelay, String documentURI) {
+        if (libertyRuntime == null || fromVersion == null || toVersion == null) {
+            return null;
+        }
+        FeatureDelta delta = getCachedDelta(libertyRuntime, fromVersion, toVersion);
+        if (delta != null) {
+            return delta;
+        }
+        FeatureService featureService = FeatureService.getInstance();
+        FeatureCatalog from = featureService.getFeatureCatalog(fromVersion, libertyRuntime, requestDelay, documentURI);
+        FeatureCatalog to = featureService.getFeatureCatalog(toVersion, libertyRuntime, requestDelay, documentURI);
+        return computeDelta(libertyRuntime, fromVersion, toVersion, from, to);
+    }
+
+    /**
+     * Returns the delta between two versions once the catalogs of both versions are
+     * loaded
+     *
+     * @return future delta between the versions, completed with null if a catalog cannot be loaded
+     */
+    public CompletableFuture<FeatureDelta> getFeatureDeltaAsync(String libertyRuntime, String fromVersion, String toVersion, int requestDelay) {
+        if (libertyRuntime == null || fromVersion == null || toVersion == null) {
+            return CompletableFuture.completedFuture(null);
+        }
+        FeatureDelta delta = getCachedDelta(libertyRuntime, fromVersion, toVersion);
+        if (delta != null) {
+            return CompletableFuture.completedFuture(delta);
+        }
+        FeatureService featureService = FeatureService.getInstance();
+        return featureService.getFeatureCatalogAsync(fromVersion, libertyRuntime, requestDelay, null)
+                .thenCombine(featureService.getFeatureCatalogAsync(toVersion, libertyRuntime, requestDelay, null),
+                        (from, to) -> computeDelta(libertyRuntime, fromVersion, toVersion, from, to));
+    }
+
+    private FeatureDelta computeDelta(String libertyRuntime, String fromVersion, String toVersion, FeatureCatalog from, FeatureCatalog to) {
+        if (!isExact(from, libertyRuntime, fromVersion) || !isExact(to, libertyRuntime, toVersion)) {
+            LOGGER.fine("Features of " + libertyRuntime + "-" + fromVersion + " or " + libertyRuntime + "-" + toVersion + " are not loaded yet");
+            return null;
+        }
+        FeatureDelta delta = FeatureDelta.compute(from, to);
+        synchronized (deltas) {
+            // another thread may have computed it at the same time, keep the first one
+            FeatureDelta cached = deltas.putIfAbsent(getKey(libertyRuntime, fromVersion, toVersion), delta);
+            if (cached != null) {
+                return cached;
+            }
+        }
+        LOGGER.fine("Computed feature delta " + delta);
+        return delta;
+    }
+
+    private FeatureDelta getCachedDelta(String libertyRuntime, String fromVersion, String toVersion) {
+        synchronized (deltas) {
+            return deltas.get(getKey(libertyRuntime, fromVersion, toVersion));
+        }
+    }
+
+    private static boolean isExact(FeatureCatalog catalog, String libertyRuntime, String libertyVersion) {
+        return catalog != null && libertyRuntime.equals(catalog.getLibertyRuntime()) && libertyVersion.equals(catalog.getLibertyVersion());
+    }
+
+    private static String getKey(String libertyRuntime, String fromVersion, String toVersion) {
+        return libertyRuntime + "-" + fromVersion + "->" + toVersion;
+    }
+}
@@ -0,0 +1,287 @@
+/*******************************************************************************
+* Copyright (c) 2022 IBM Corporation and others.
+*
+* This program and the accompanying materials are made available under the
+* terms of the Eclipse Public License v. 2.0 which is available at
+* http://www.eclipse.org/legal/epl-2.0.
+*
+* SPDX-License-Identifier: EPL-2.0
+*
+* Contributors:
+*     IBM Corporation - initial API and implementation
+*******************************************************************************/
+package io.openliberty.tools.langserver.lemminx.services;
+
+import java.util.ArrayDeque;
+import java.util.BitSet;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+
+import io.openliberty.tools.langserver.lemminx.models.feature.Feature;
+import io.openliberty.tools.langserver.lemminx.models.feature.WlpInformation;
+import io.openliberty.tools.langserver.lemminx.util.LibertyConstants;
+
+/**
+ * Dependency graph of the features of a catalog, built from the provideFeature
+ * and requireFeature of their wlpInformation. Features are identified by their
+ * position in the catalog, and the transitive closure of the required features of
+ * every feature is computed once, as a bitset.
+ *
+ * Only the public features are part of a catalog, so dependencies that go
+ * through private features are not followed.
+ */
+public final class FeatureDependencyGraph {
+
+    private final List<Feature> features;
+    private final FeatureCatalog catalog;
+    private final Map<Feature, Integer> ids;
+    // direct and transitive required features of each feature
+    private final BitSet[] requiredFeatures;
+    private final BitSet[] closures;
+    private final BitSet singletons;
+    private final BitSet convenienceFeatures;
+    // features with the same family id are versions of the same feature
+    private final int[] families;
+
+    FeatureDependencyGraph(FeatureCatalog catalog) {
+        this.catalog = catalog;
+        this.features = catalog.getFeatures();
+        int size = features.size();
+        this.ids = new IdentityHashMap<>(size);
+        this.requiredFeatures = new BitSet[size];
+        this.closures = new BitSet[size];
+        this.singletons = new BitSet(size);
+        this.convenienceFeatures = new BitSet(size);
+        this.families = new int[size];
+
+        // symbolic name -> feature id
+        Map<String, Integer> symbolicNames = new HashMap<>();
+        Map<String, Integer> familyIds = new HashMap<>();
+        for (int id = 0; id < size; id++) {
+            Feature feature = features.get(id);
+            ids.putIfAbsent(feature, id);
+            if (feature.getName() != null) {
+                symbolicNames.putIfAbsent(feature.getName(), id);
+            }
+            WlpInformation wlpInformation = feature.getWlpInformation();
+            if (wlpInformation == null) {
+                families[id] = -1;
+                continue;
+            }
+            if (wlpInformation.getProvideFeature() != null) {
+                for (String symbolicName : wlpInformation.getProvideFeature()) {
+                    symbolicNames.putIfAbsent(symbolicName, id);
+                }
+            }
+            if ("true".equalsIgnoreCase(wlpInformation.getSingleton())) {
+                singletons.set(id);
+            }
+            String family = getFamily(wlpInformation.getShortName());
+            if (family == null) {
+                families[id] = -1;
+            } else {
+                Integer familyId = familyIds.get(family);
+                if (familyId == null) {
+                    familyId = familyIds.size();
+                    familyIds.put(family, familyId);
+                }
+                families[id] = familyId;
+                if (LibertyConstants.CONVENIENCE_FEATURE_FAMILIES.contains(family)) {
+                    convenienceFeatures.set(id);
+                }
+            }
+        }
+
+        for (int id = 0; id < size; id++) {
+            BitSet required = new BitSet(size);
+            WlpInformation wlpInformation = features.get(id).getWlpInformation();
+            if (wlpInformation != null && wlpInformation.getRequireFeature() != null) {
+                for (String requireFeature : wlpInformation.getRequireFeature()) {
+                    // drop attributes, ie. ibm.tolerates
+                    int separator = requireFeature.indexOf(';');
+                    String symbolicName = (separator < 0 ? requireFeature : requireFeature.substring(0, separator)).trim();
+                    Integer requiredId = symbolicNames.get(symbolicName);
+                    if (requiredId != null && requiredId != id) {
+                        required.set(requiredId);
+                    }
+                }
+            }
+            requiredFeatures[id] = required;
+        }
+
+        // breadth first search from every feature, the graph may have cycles
+        Deque<Integer> queue = new ArrayDeque<>();
+        for (int id = 0; id < size; id++) {
+            BitSet closure = (BitSet) requiredFeatures[id].clone();
+            for (int next = closure.nextSetBit(0); next >= 0; next = closure.nextSetBit(next + 1)) {
+                queue.add(next);
+            }
+            while (!queue.isEmpty()) {
+                BitSet required = requiredFeatures[queue.poll()];
+                for (int next = required.nextSetBit(0); next >= 0; next = required.nextSetBit(next + 1)) {
+                    if (next != id && !closure.get(next)) {
+                        closure.set(next);
+                        queue.add(next);
+                    }
+                }
+            }
+            closures[id] = closure;
+        }
+    }
+
+    /**
+     * Returns the id of the feature with the given short name, ignoring case
+     *
+     * @return feature id, or -1 if the catalog does not have the feature
+     */
+    public int getId(String featureName) {
+        Feature feature = catalog.getFeature(featureName);
+        if (feature == null) {
+            return -1;
+        }
+        Integer id = ids.get(feature);
+        return id != null ? id : -1;
+    }
+
+    public Feature getFeature(int id) {
+        return features.get(id);
+    }
+
+    public String getShortName(int id) {
+        return features.get(id).getWlpInformation().getShortName();
+    }
+
+    /**
+     * @return true if the feature with the id enables the other feature, directly or transitively
+     */
+    public boolean includes(int id, int otherId) {
+        return closures[id].get(otherId);
+    }
+
+    /**
+     * Returns the features that the feature requires directly, the returned set must not be modified
+     */
+    public BitSet getRequiredFeatures(int id) {
+        return requiredFeatures[id];
+    }
+
+    /**
+     * Returns the features that the feature enables transitively, the returned set must not be modified
+     */
+    public BitSet getIncludedFeatures(int id) {
+        return closures[id];
+    }
+
+    public boolean isSingleton(int id) {
+        return singletons.get(id);
+    }
+
+    /**
+     * @return true for the features that only group other features, ie. jakartaee-9.1
+     */
+    public boolean isConvenienceFeature(int id) {
+        return convenienceFeatures.get(id);
+    }
+
+    /**
+     * @return true if both features are different versions of the same feature
+     */
+    public boolean isOtherVersion(int id, int otherId) {
+        return id != otherId && families[id] >= 0 && families[id] == families[otherId];
+    }
+
+    /**
+     * For each feature of the list, returns the id of a convenience feature of the
+     * list that already enables it, or -1
+     *
+     * @param featureIds ids of the features of a featureManager, -1 for unknown features
+     */
+    public int[] findIncludingFeatures(int[] featureIds) {
+        int[] includingFeatures = new int[featureIds.length];
+        for (int i = 0; i < featureIds.length; i++) {
+            includingFeatures[i] = -1;
+            if (featureIds[i] < 0) {
+                continue;
+            }
+            for (int j = 0; j < featureIds.length; j++) {
+                int other = featureIds[j];
+                if (i != j && other >= 0 && isConvenienceFeature(other) && includes(other, featureIds[i])) {
+                    includingFeatures[i] = other;
+                    break;
+                }
+            }
+        }
+        return includingFeatures;
+    }
+
+    /**
+     * For each feature of the list, returns a singleton feature that is a different
+     * version of a singleton feature enabled by that feature, and that is enabled by
+     * a feature earlier in the list, or -1. A feature of the list enables itself and,
+     * for a convenience feature, the features it requires directly. Dependencies of
+     * other features are not considered because they may tolerate other versions.
+     *
+     * @param featureIds ids of the features of a featureManager, -1 for unknown features
+     * @param conflictingFeatures filled with the id of the enabled feature that conflicts
+     */
+    public int[] findConflictingFeatures(int[] featureIds, int[] conflictingFeatures) {
+        int[] enablingFeatures = new int[featureIds.length];
+        BitSet[] enabled = new BitSet[featureIds.length];
+        for (int i = 0; i < featureIds.length; i++) {
+            enablingFeatures[i] = -1;
+            conflictingFeatures[i] = -1;
+            int id = featureIds[i];
+            if (id < 0) {
+                continue;
+            }
+            BitSet enabledSingletons = new BitSet();
+            enabledSingletons.set(id);
+            if (isConvenienceFeature(id)) {
+                enabledSingletons.or(requiredFeatures[id]);
+            }
+            enabledSingletons.and(singletons);
+            enabled[i] = enabledSingletons;
+
+            for (int j = 0; j < i && enablingFeatures[i] < 0; j++) {
+                if (enabled[j] == null) {
+                    continue;
+                }
+                for (int x = enabledSingletons.nextSetBit(0); x >= 0 && enablingFeatures[i] < 0; x = enabledSingletons.nextSetBit(x + 1)) {
+                    for (int y = enabled[j].nextSetBit(0); y >= 0; y = enabled[j].nextSetBit(y + 1)) {
+                        if (isOtherVersion(x, y)) {
+                            enablingFeatures[i] = featureIds[j];
+                            conflictingFeatures[i] = y;
+                            break;
+                        }
+                    }
+                }
+            }
+        }
+        return enablingFeatures;
+    }
+
+    /**
+     * Returns the name of a feature without its version, ie. jaxrs for jaxrs-2.1
+     *
+     * @return feature family, or null if the name does not end with a version
+     */
+    public static String getFamily(String featureName) {
+        if (featureName == null) {
+            return null;
+        }
+        int separator = featureName.lastIndexOf('-');
+        if (separator <= 0 || separator == featureName.length() - 1) {
+            return null;
+        }
+        for (int i = separator + 1; i < featureName.length(); i++) {
+            char c = featureName.charAt(i);
+            if (c != '.' && (c < '0' || c > '9')) {
+                return null;
+            }
+        }
+        return featureName.substring(0, separator);
+    }
+}
@@ -0,0 +1,149 @@
+/*******************************************************************************
+* Copyright (c) 2022 IBM Corporation and others.
+*
+* This program and the accompanying materials are made available under the
+* terms of the Eclipse Public License v. 2.0 which is available at
+* http://www.eclipse.org/legal/epl-2.0.
+*
+* SPDX-License-Identifier: EPL-2.0
+*
+* Contributors:
+*     IBM Corporation - initial API and implementation
+*******************************************************************************/
+package io.openliberty.tools.langserver.lemminx.services;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+
+import io.openliberty.tools.langserver.lemminx.models.feature.Feature;
+import io.openliberty.tools.langserver.lemminx.util.LibertyUtils;
+
+/**
+ * Index of the versions of each feature family of a catalog, ie. servlet ->
+ * servlet-3.1, servlet-4.0, servlet-5.0. Families are matched ignoring case and
+ * their versions are sorted from the oldest to the newest, so that the newest
+ * version of a feature is found without scanning the catalog.
+ */
+public final class FeatureFamilyIndex {
+
+    private final FeatureCatalog catalog;
+    // lower case family -> versions of the family, oldest first
+    private final Map<String, List<Feature>> families;
+
+    FeatureFamilyIndex(FeatureCatalog catalog) {
+        this.catalog = catalog;
+        Map<String, List<Feature>> versions = new HashMap<>();
+        for (Feature feature : catalog.getFeatures()) {
+            String family = getFamilyKey(getShortName(feature));
+            if (family != null) {
+                versions.computeIfAbsent(family, key -> new ArrayList<>()).add(feature);
+            }
+        }
+        this.families = new HashMap<>(versions.size() * 2);
+        for (Map.Entry<String, List<Feature>> entry : versions.entrySet()) {
+            List<Feature> familyVersions = entry.getValue();
+            familyVersions.sort((feature1, feature2) -> compareVersions(getShortName(feature1), getShortName(feature2)));
+            families.put(entry.getKey(), Collections.unmodifiableList(familyVersions));
+        }
+    }
+
+    /**
+     * Returns the lower case names of the families of the catalog
+     */
+    public Set<String> getFamilies() {
+        return Collections.unmodifiableSet(families.keySet());
+    }
+
+    /**
+     * Returns the versions of a family, ie. servlet, oldest first
+     *
+     * @param family feature name without its version, or a versioned feature name
+     * @return versions of the family, empty if the catalog does not have it
+     */
+    public List<Feature> getVersions(String family) {
+        List<Feature> versions = family != null ? families.get(getFamilyKey(family, true)) : null;
+        return versions != null ? versions : Collections.emptyList();
+    }
+
+    /**
+     * Returns the newest version of a family, ie. mpHealth-4.0 for mpHealth
+     *
+     * @param family feature name without its version, or a versioned feature name
+     * @return newest feature of the family, or null if the catalog does not have it
+     */
+    public Feature getLatest(String family) {
+        List<Feature> versions = getVersions(family);
+        return versions.isEmpty() ? null : versions.get(versions.size() - 1);
+    }
+
+    /**
+     * Returns the newest version of a feature if it is newer than the feature
+     *
+     * @param featureName versioned feature name, ie. mpHealth-2.0
+     * @return newer feature of the same family, or null if the feature is the newest or not versioned
+     */
+    public Feature getNewerVersion(String featureName) {
+        if (getFamilyKey(featureName) == null) {
+            return null;
+        }
+        Feature latest = getLatest(featureName);
+        if (latest == null || compareVersions(getShortName(latest), featureName) <= 0) {
+            return null;
+        }
+        return latest;
+    }
+
+    /**
+     * Returns the versions of a family that a platform feature enables, ie.
+     * servlet-5.0 for servlet and jakartaee-9.1
+     *
+     * @param family feature name without its version, or a versioned feature name
+     * @param platformFeature convenience feature, ie. jakartaee-9.1 or microProfile-5.0
+     * @return versions of the family enabled by the platform, oldest first
+     */
+    public List<Feature> getCompatibleVersions(String family, String platformFeature) {
+        FeatureDependencyGraph graph = catalog.getDependencyGraph();
+        int platformId = graph.getId(platformFeature);
+        if (platformId < 0) {
+            return Collections.emptyList();
+        }
+        List<Feature> compatible = new ArrayList<>();
+        for (Feature feature : getVersions(family)) {
+            int id = graph.getId(getShortName(feature));
+            if (id == platformId || (id >= 0 && graph.includes(platformId, id))) {
+                compatible.add(feature);
+            }
+        }
+        return compatible;
+    }
+
+    private static String getShortName(Feature feature) {
+        return feature.getWlpInformation() != null ? feature.getWlpInformation().getShortName() : null;
+    }
+
+    private static String getFamilyKey(String featureName) {
+        return getFamilyKey(featureName, false);
+    }
+
+    /**
+     * @param versionless true to also accept a family name without a version
+     */
+    private static String getFamilyKey(String featureName, boolean versionless) {
+        String family = FeatureDependencyGraph.getFamily(featureName);
+        if (family == null && versionless) {
+            family = featureName;
+        }
+        return family != null ? family.toLowerCase(Locale.ROOT) : null;
+    }
+
+    // compares the versions of two features of the same family, ie. 3.1 and 4.0
+    private static int compareVersions(String featureName1, String featureName2) {
+        return LibertyUtils.compareVersions(featureName1.substring(featureName1.lastIndexOf('-') + 1),
+                featureName2.substring(featureName2.lastIndexOf('-') + 1));
+    }
+}
@@ -0,0 +1,115 @@
+/*******************************************************************************
+* Copyright (c) 2022 IBM Corporation and others.
+*
+* This program and the accompanying materials are made available under the
+* terms of the Eclipse Public License v. 2.0 which is available at
+* http://www.eclipse.org/legal/epl-2.0.
+*
+* SPDX-License-Identifier: EPL-2.0
+*
+* Contributors:
+*     IBM Corporation - initial API and implementation
+*******************************************************************************/
+package io.openliberty.tools.langserver.lemminx.services;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+
+import javax.xml.stream.XMLStreamConstants;
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamReader;
+
+import io.openliberty.tools.langserver.lemminx.models.feature.Feature;
+import io.openliberty.tools.langserver.lemminx.models.feature.FeatureInfo;
+import io.openliberty.tools.langserver.lemminx.util.StaxUtils;
+
+/**
+ * Reads the feature list generated by ws-featurelist.jar with a streaming StAX
+ * parser. Only the name attribute and the description, licenseId, licenseType,
+ * shortDescription, type and version elements of the features are bound, every
+ * other element is skipped:
+ *
+ * <featureInfo>
+ *   <feature name="jaxrs-2.1">
+ *     <description>...</description>
+ *     ...
+ *   </feature>
+ * </featureInfo>
+ */
+public class FeatureInfoReader {
+
+    private static final String FEATURE_INFO = "featureInfo";
+    private static final String FEATURE = "feature";
+
+    private FeatureInfoReader() {
+    }
+
+    public static FeatureInfo readFeatureInfo(Path featureListFile) throws IOException {
+        try (InputStream is = Files.newInputStream(featureListFile)) {
+            return readFeatureInfo(is);
+        }
+    }
+
+    /**
+     * @throws IOException if the content is not a feature list
+     */
+    public static FeatureInfo readFeatureInfo(InputStream is) throws IOException {
+        XMLStreamReader reader = null;
+        try {
+            reader = StaxUtils.createReader(is);
+            reader.nextTag();
+            if (!FEATURE_INFO.equals(reader.getLocalName())) {
+                throw new IOException("Unexpected root element " + reader.getLocalName() + ", expected " + FEATURE_INFO);
+            }
+            List<Feature> features = new ArrayList<>();
+            while (reader.nextTag() == XMLStreamConstants.START_ELEMENT) {
+                if (FEATURE.equals(reader.getLocalName())) {
+                    features.add(readFeature(reader));
+                } else {
+                    StaxUtils.skipElement(reader);
+                }
+            }
+            FeatureInfo featureInfo = new FeatureInfo();
+            featureInfo.setFeatures(features.isEmpty() ? null : features);
+            return featureInfo;
+        } catch (XMLStreamException e) {
+            throw new IOException("Unable to read feature list: " + e.getMessage(), e);
+        } finally {
+            StaxUtils.closeReader(reader);
+        }
+    }
+
+    private static Feature readFeature(XMLStreamReader reader) throws XMLStreamException {
+        Feature feature = new Feature();
+        feature.setName(reader.getAttributeValue(null, "name"));
+        while (reader.nextTag() == XMLStreamConstants.START_ELEMENT) {
+            switch (reader.getLocalName()) {
+                case "description":
+                    feature.setDescription(reader.getElementText());
+                    break;
+                case "licenseId":
+                    feature.setLicenseId(reader.getElementText());
+                    break;
+                case "licenseType":
+                    feature.setLicenseType(reader.getElementText());
+                    break;
+                case "shortDescription":
+                    feature.setShortDescription(reader.getElementText());
+                    break;
+                case "type":
+                    feature.setType(reader.getElementText());
+                    break;
+                case "version":
+                    feature.setVersion(reader.getElementText());
+                    break;
+                default:
+                    StaxUtils.skipElement(reader);
+            }
+        }
+        return feature;
+    }
+}
@@ -0,0 +1,168 @@
+/*******************************************************************************
+* Copyright (c) 2022 IBM Corporation and others.
+*
+* This program and the accompanying materials are made available under the
+* terms of the Eclipse Public License v. 2.0 which is available at
+* http://www.eclipse.org/legal/epl-2.0.
+*
+* SPDX-License-Identifier: EPL-2.0
+*
+* Contributors:
+*     IBM Corporation - initial API and implementation
+*******************************************************************************/
+package io.openliberty.tools.langserver.lemminx.services;
+
+import java.lang.ref.WeakReference;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.WeakHashMap;
+
+import io.openliberty.tools.langserver.lemminx.models.feature.Feature;
+import io.openliberty.tools.langserver.lemminx.models.feature.JavaSEVersionRequirements;
+import io.openliberty.tools.langserver.lemminx.models.feature.WlpInformation;
+
+/**
+ * Hash-conses the features of the catalogs loaded by the FeatureService. Most
+ * features are identical between neighbouring Liberty versions, so equal features
+ * are replaced by a single canonical instance, whose strings and lists are shared
+ * as well.
+ *
+ * Canonical features are copies, the features that are interned are never
+ * modified. Canonical instances and strings are only weakly referenced: once no
+ * cached catalog uses them anymore they can be garbage collected. Strings are
+ * interned in this interner rather than in the JVM string table, which would keep
+ * every feature description of every version loaded.
+ */
+public class FeatureInterner {
+
+    // content of a feature -> canonical feature
+    private final Map<List<Object>, WeakReference<Feature>> features = new WeakHashMap<>();
+    // canonical feature -> its content, keeps the key above reachable while the feature is
+    private final Map<Feature, List<Object>> featureKeys = new WeakHashMap<>();
+    // canonical lists and strings are their own keys
+    private final Map<ArrayList<String>, WeakReference<ArrayList<String>>> lists = new WeakHashMap<>();
+    private final Map<String, WeakReference<String>> strings = new WeakHashMap<>();
+
+    /**
+     * Returns the given features with each feature replaced by its canonical
+     * instance. Canonical features share their strings and lists, so they must not
+     * be modified.
+     */
+    public synchronized List<Feature> intern(List<Feature> featureList) {
+        List<Feature> internedFeatures = new ArrayList<>(featureList.size());
+        for (Feature feature : featureList) {
+            internedFeatures.add(intern(feature));
+        }
+        return internedFeatures;
+    }
+
+    /**
+     * Returns a copy of the catalog that uses the canonical features, keeping its
+     * name index
+     */
+    public FeatureCatalog intern(FeatureCatalog catalog) {
+        return new FeatureCatalog(catalog.getLibertyRuntime(), catalog.getLibertyVersion(), intern(catalog.getFeatures()), catalog.getSlots());
+    }
+
+    private Feature intern(Feature feature) {
+        WeakReference<Feature> reference = features.get(keyOf(feature));
+        Feature canonical = reference != null ? reference.get() : null;
+        if (canonical != null) {
+            return canonical;
+        }
+
+        canonical = new Feature();
+        canonical.setDescription(intern(feature.getDescription()));
+        canonical.setLicenseId(intern(feature.getLicenseId()));
+        canonical.setLicenseType(intern(feature.getLicenseType()));
+        canonical.setName(intern(feature.getName()));
+        canonical.setShortDescription(intern(feature.getShortDescription()));
+        canonical.setType(intern(feature.getType()));
+        canonical.setVersion(intern(feature.getVersion()));
+        WlpInformation wlpInformation = feature.getWlpInformation();
+        if (wlpInformation != null) {
+            WlpInformation canonicalWlpInformation = new WlpInformation(intern(wlpInformation.getShortName()));
+            canonicalWlpInformation.setAppliesTo(intern(wlpInformation.getAppliesTo()));
+            canonicalWlpInformation.setDisplayPolicy(intern(wlpInformation.getDisplayPolicy()));
+            canonicalWlpInformation.setDownloadPolicy(intern(wlpInformation.getDownloadPolicy()));
+            canonicalWlpInformation.setIbmInstallTo(intern(wlpInformation.getIbmInstallTo()));
+            canonicalWlpInformation.setInstallPolicy(intern(wlpInformation.getInstallPolicy()));
+            canonicalWlpInformation.setSingleton(intern(wlpInformation.getSingleton()));
+            canonicalWlpInformation.setTypeLabel(intern(wlpInformation.getTypeLabel()));
+            canonicalWlpInformation.setVisibility(intern(wlpInformation.getVisibility()));
+            canonicalWlpInformation.setWebDisplayPolicy(intern(wlpInformation.getWebDisplayPolicy()));
+            canonicalWlpInformation.setMavenCoordinates(intern(wlpInformation.getMavenCoordinates()));
+            canonicalWlpInformation.setProvideFeature(intern(wlpInformation.getProvideFeature()));
+            canonicalWlpInformation.setRequireFeature(intern(wlpInformation.getRequireFeature()));
+            JavaSEVersionRequirements requirements = wlpInformation.getJavaSEVersionRequirements();
+            if (requirements != null) {
+                JavaSEVersionRequirements canonicalRequirements = new JavaSEVersionRequirements();
+                canonicalRequirements.setMinVersion(intern(requirements.getMinVersion()));
+                canonicalRequirements.setVersionDisplayString(intern(requirements.getVersionDisplayString()));
+                canonicalRequirements.setRawRequirements(intern(requirements.getRawRequirements()));
+                canonicalWlpInformation.setJavaSEVersionRequirements(canonicalRequirements);
+            }
+            canonical.setWlpInformation(canonicalWlpInformation);
+        }
+
+        // the key of the copy holds the interned values
+        List<Object> key = keyOf(canonical);
+        features.put(key, new WeakReference<>(canonical));
+        featureKeys.put(canonical, key);
+        return canonical;
+    }
+
+    /**
+     * Returns the values of all the fields of a feature
+     */
+    private static List<Object> keyOf(Feature feature) {
+        WlpInformation wlpInformation = feature.getWlpInformation();
+        if (wlpInformation == null) {
+            return Arrays.asList(feature.getDescription(), feature.getLicenseId(), feature.getLicenseType(), feature.getName(),
+                    feature.getShortDescription(), feature.getType(), feature.getVersion());
+        }
+        JavaSEVersionRequirements requirements = wlpInformation.getJavaSEVersionRequirements();
+        return Arrays.asList(feature.getDescription(), feature.getLicenseId(), feature.getLicenseType(), feature.getName(),
+                feature.getShortDescription(), feature.getType(), feature.getVersion(),
+                wlpInformation.getAppliesTo(), wlpInformation.getDisplayPolicy(), wlpInformation.getDownloadPolicy(),
+                wlpInformation.getIbmInstallTo(), wlpInformation.getInstallPolicy(), wlpInformation.getSingleton(),
+                wlpInformation.getTypeLabel(), wlpInformation.getVisibility(), wlpInformation.getWebDisplayPolicy(),
+                wlpInformation.getMavenCoordinates(), wlpInformation.getShortName(), wlpInformation.getProvideFeature(),
+                wlpInformation.getRequireFeature(), requirements != null,
+                requirements != null ? requirements.getMinVersion() : null,
+                requirements != null ? requirements.getVersionDisplayString() : null,
+                requirements != null ? requirements.getRawRequirements() : null);
+    }
+
+    private String intern(String value) {
+        if (value == null) {
+            return null;
+        }
+        WeakReference<String> reference = strings.get(value);
+        String canonical = reference != null ? reference.get() : null;
+        if (canonical != null) {
+            return canonical;
+        }
+        strings.put(value, new WeakReference<>(value));
+        return value;
+    }
+
+    private ArrayList<String> intern(ArrayList<String> values) {
+        if (values == null) {
+            return null;
+        }
+        WeakReference<ArrayList<String>> reference = lists.get(values);
+        ArrayList<String> canonical = reference != null ? reference.get() : null;
+        if (canonical != null) {
+            return canonical;
+        }
+        canonical = new ArrayList<>(values.size());
+        for (String value : values) {
+            canonical.add(intern(value));
+        }
+        lists.put(canonical, new WeakReference<>(canonical));
+        return canonical;
+    }
+}
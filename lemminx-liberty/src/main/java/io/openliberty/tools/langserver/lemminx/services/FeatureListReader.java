@@ -0,0 +1,187 @@
+/*******************************************************************************
+* Copyright (c) 2022 IBM Corporation and others.
+*
+* This program and the accompanying materials are made available under the
+* terms of the Eclipse Public License v. 2.0 which is available at
+* http://www.eclipse.org/legal/epl-2.0.
+*
+* SPDX-License-Identifier: EPL-2.0
+*
+* Contributors:
+*     IBM Corporation - initial API and implementation
+*******************************************************************************/
+package io.openliberty.tools.langserver.lemminx.services;
+
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+
+import com.google.gson.JsonParseException;
+import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.JsonToken;
+import com.google.gson.stream.MalformedJsonException;
+
+import io.openliberty.tools.langserver.lemminx.models.feature.Feature;
+import io.openliberty.tools.langserver.lemminx.models.feature.WlpInformation;
+import io.openliberty.tools.langserver.lemminx.util.LibertyConstants;
+
+/**
+ * Reads the public features of a features.json feature list with a streaming
+ * JsonReader. Only the fields used by the language server are bound, all other
+ * values are skipped without being materialized, and no Feature is created for
+ * the entries that are not public.
+ */
+public final class FeatureListReader {
+
+    private FeatureListReader() {
+    }
+
+    /**
+     * Returns the public features of a feature list
+     *
+     * @param reader reader of a features.json feature list, not closed by this method
+     * @return list of public features
+     * @throws JsonParseException if the feature list is not valid
+     */
+    public static ArrayList<Feature> readPublicFeatures(Reader reader) throws IOException, JsonParseException {
+        JsonReader jsonReader = new JsonReader(reader);
+        ArrayList<Feature> publicFeatures = new ArrayList<>();
+        try {
+            jsonReader.beginArray();
+            while (jsonReader.hasNext()) {
+                Feature feature = readFeature(jsonReader);
+                if (feature != null) {
+                    publicFeatures.add(feature);
+                }
+            }
+            jsonReader.endArray();
+        } catch (MalformedJsonException | IllegalStateException e) {
+            throw new JsonParseException(e);
+        }
+        return publicFeatures;
+    }
+
+    /**
+     * Returns the public features of a feature list file
+     *
+     * @throws JsonParseException if the feature list is not valid
+     */
+    public static ArrayList<Feature> readPublicFeatures(Path featureList) throws IOException, JsonParseException {
+        try (Reader reader = new InputStreamReader(Files.newInputStream(featureList), StandardCharsets.UTF_8)) {
+            return readPublicFeatures(reader);
+        }
+    }
+
+    /**
+     * @return the feature of the current object, or null if it is not public
+     */
+    private static Feature readFeature(JsonReader jsonReader) throws IOException {
+        String name = null;
+        String shortDescription = null;
+        FeatureInformation information = null;
+
+        jsonReader.beginObject();
+        while (jsonReader.hasNext()) {
+            switch (jsonReader.nextName()) {
+                case "name":
+                    name = nextString(jsonReader);
+                    break;
+                case "shortDescription":
+                    shortDescription = nextString(jsonReader);
+                    break;
+                case "wlpInformation":
+                    information = readWlpInformation(jsonReader);
+                    break;
+                default:
+                    jsonReader.skipValue();
+            }
+        }
+        jsonReader.endObject();
+
+        if (information == null || !LibertyConstants.PUBLIC_VISIBILITY.equals(information.visibility)) {
+            return null;
+        }
+        WlpInformation wlpInformation = new WlpInformation(information.shortName);
+        wlpInformation.setVisibility(information.visibility);
+        wlpInformation.setSingleton(information.singleton);
+        wlpInformation.setProvideFeature(information.provideFeature);
+        wlpInformation.setRequireFeature(information.requireFeature);
+
+        Feature feature = new Feature();
+        feature.setName(name);
+        feature.setShortDescription(shortDescription);
+        feature.setWlpInformation(wlpInformation);
+        return feature;
+    }
+
+    // fields of wlpInformation that are kept for public features
+    private static class FeatureInformation {
+        private String shortName;
+        private String visibility;
+        private String singleton;
+        private ArrayList<String> provideFeature;
+        private ArrayList<String> requireFeature;
+    }
+
+    private static FeatureInformation readWlpInformation(JsonReader jsonReader) throws IOException {
+        if (jsonReader.peek() == JsonToken.NULL) {
+            jsonReader.nextNull();
+            return null;
+        }
+        FeatureInformation information = new FeatureInformation();
+        jsonReader.beginObject();
+        while (jsonReader.hasNext()) {
+            switch (jsonReader.nextName()) {
+                case "shortName":
+                    information.shortName = nextString(jsonReader);
+                    break;
+                case "visibility":
+                    information.visibility = nextString(jsonReader);
+                    break;
+                case "singleton":
+                    information.singleton = nextString(jsonReader);
+                    break;
+                case "provideFeature":
+                    information.provideFeature = nextStringList(jsonReader);
+                    break;
+                case "requireFeature":
+                    information.requireFeature = nextStringList(jsonReader);
+                    break;
+                default:
+                    jsonReader.skipValue();
+            }
+        }
+        jsonReader.endObject();
+        return information;
+    }
+
+    private static String nextString(JsonReader jsonReader) throws IOException {
+        if (jsonReader.peek() == JsonToken.NULL) {
+            jsonReader.nextNull();
+            return null;
+        }
+        return jsonReader.nextString();
+    }
+
+    private static ArrayList<String> nextStringList(JsonReader jsonReader) throws IOException {
+        if (jsonReader.peek() == JsonToken.NULL) {
+            jsonReader.nextNull();
+            return null;
+        }
+        ArrayList<String> values = new ArrayList<>();
+        jsonReader.beginArray();
+        while (jsonReader.hasNext()) {
+            String value = nextString(jsonReader);
+            if (value != null) {
+                values.add(value);
+            }
+        }
+        jsonReader.endArray();
+        values.trimToSize();
+        return values;
+    }
+}
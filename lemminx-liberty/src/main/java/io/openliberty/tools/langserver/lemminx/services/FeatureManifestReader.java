@@ -0,0 +1,250 @@
+/*******************************************************************************
+* Copyright (c) 2022 IBM Corporation and others.
+*
+* This program and the accompanying materials are made available under the
+* terms of the Eclipse Public License v. 2.0 which is available at
+* http://www.eclipse.org/legal/epl-2.0.
+*
+* SPDX-License-Identifier: EPL-2.0
+*
+* Contributors:
+*     IBM Corporation - initial API and implementation
+*******************************************************************************/
+package io.openliberty.tools.langserver.lemminx.services;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Objects;
+import java.util.Properties;
+import java.util.jar.Attributes;
+import java.util.jar.Manifest;
+import java.util.logging.Logger;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import io.openliberty.tools.langserver.lemminx.models.feature.Feature;
+import io.openliberty.tools.langserver.lemminx.models.feature.WlpInformation;
+
+/**
+ * Lists the features installed in a Liberty runtime by reading their subsystem
+ * manifests directly, instead of starting ws-featurelist.jar in another JVM:
+ * - wlp/lib/features/*.mf for the features of the runtime
+ * - wlp/usr/extension/lib/features/*.mf for the user features, named usr:(short name)
+ *
+ * Only public features are returned. Manifests are read in parallel.
+ */
+public class FeatureManifestReader {
+
+    private static final Logger LOGGER = Logger.getLogger(FeatureManifestReader.class.getName());
+
+    private static final Path FEATURES_DIR = Paths.get("lib", "features");
+    private static final Path USER_FEATURES_DIR = Paths.get("usr", "extension", "lib", "features");
+    private static final String USER_FEATURE_PREFIX = "usr:";
+
+    private static final Attributes.Name SYMBOLIC_NAME = new Attributes.Name("Subsystem-SymbolicName");
+    private static final Attributes.Name SHORT_NAME = new Attributes.Name("IBM-ShortName");
+    private static final Attributes.Name DESCRIPTION = new Attributes.Name("Subsystem-Description");
+    private static final Attributes.Name NAME = new Attributes.Name("Subsystem-Name");
+    private static final Attributes.Name LOCALIZATION = new Attributes.Name("Subsystem-Localization");
+    private static final Attributes.Name VERSION = new Attributes.Name("Subsystem-Version");
+    private static final Attributes.Name CONTENT = new Attributes.Name("Subsystem-Content");
+
+    private FeatureManifestReader() {
+    }
+
+    /**
+     * Reads the public features installed in a Liberty runtime
+     *
+     * @param installDir wlp directory of the runtime
+     * @return features sorted by name, empty if the runtime has no feature manifest
+     */
+    public static List<Feature> readInstalledFeatures(Path installDir) throws IOException {
+        List<Path> manifests = listManifests(installDir.resolve(FEATURES_DIR));
+        List<Path> userManifests = listManifests(installDir.resolve(USER_FEATURES_DIR));
+
+        List<Feature> features;
+        try {
+            features = Stream.concat(
+                    manifests.parallelStream().map(manifest -> readFeature(manifest, "")),
+                    userManifests.parallelStream().map(manifest -> readFeature(manifest, USER_FEATURE_PREFIX)))
+                    .filter(Objects::nonNull)
+                    .sorted(Comparator.comparing(Feature::getName))
+                    .collect(Collectors.toList());
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+        LOGGER.fine("Read " + features.size() + " installed features from " + (manifests.size() + userManifests.size()) + " manifests in " + installDir);
+        return features;
+    }
+
+    private static List<Path> listManifests(Path featuresDir) throws IOException {
+        if (!Files.isDirectory(featuresDir)) {
+            return new ArrayList<>();
+        }
+        try (Stream<Path> files = Files.list(featuresDir)) {
+            return files.filter(file -> file.getFileName().toString().endsWith(".mf") && Files.isRegularFile(file))
+                    .collect(Collectors.toList());
+        }
+    }
+
+    /**
+     * @return the feature of the manifest, or null if it is not a public feature
+     */
+    private static Feature readFeature(Path manifestFile, String namePrefix) {
+        Attributes attributes;
+        try {
+            byte[] content = Files.readAllBytes(manifestFile);
+            // the manifest parser drops a last line that does not end with a new line
+            if (content.length > 0 && content[content.length - 1] != '\n') {
+                byte[] terminated = new byte[content.length + 1];
+                System.arraycopy(content, 0, terminated, 0, content.length);
+                terminated[content.length] = '\n';
+                content = terminated;
+            }
+            attributes = new Manifest(new ByteArrayInputStream(content)).getMainAttributes();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+
+        String symbolicNameHeader = attributes.getValue(SYMBOLIC_NAME);
+        String shortName = attributes.getValue(SHORT_NAME);
+        if (symbolicNameHeader == null || shortName == null) {
+            return null;
+        }
+        List<String> symbolicName = splitClause(splitClauses(symbolicNameHeader).get(0));
+        if (!"public".equals(getDirective(symbolicName, "visibility"))) {
+            return null;
+        }
+
+        Feature feature = new Feature();
+        String name = namePrefix + shortName.trim();
+        feature.setName(name);
+        feature.setVersion(attributes.getValue(VERSION));
+        String description = localize(manifestFile, attributes, attributes.getValue(DESCRIPTION));
+        if (description == null) {
+            description = localize(manifestFile, attributes, attributes.getValue(NAME));
+        }
+        feature.setDescription(description);
+        feature.setShortDescription(description);
+
+        WlpInformation wlpInformation = new WlpInformation(name);
+        wlpInformation.setVisibility("PUBLIC");
+        wlpInformation.setSingleton(Boolean.toString("true".equals(getDirective(symbolicName, "singleton"))));
+        ArrayList<String> provideFeature = new ArrayList<>();
+        provideFeature.add(symbolicName.get(0));
+        wlpInformation.setProvideFeature(provideFeature);
+        wlpInformation.setRequireFeature(getRequiredFeatures(attributes.getValue(CONTENT)));
+        feature.setWlpInformation(wlpInformation);
+        return feature;
+    }
+
+    /**
+     * Returns the features in the Subsystem-Content header, in the same form as the
+     * requireFeature of the features from Maven
+     */
+    private static ArrayList<String> getRequiredFeatures(String content) {
+        if (content == null) {
+            return null;
+        }
+        ArrayList<String> requiredFeatures = new ArrayList<>();
+        for (String clause : splitClauses(content)) {
+            List<String> parts = splitClause(clause);
+            if ("osgi.subsystem.feature".equals(getDirective(parts, "type"))) {
+                requiredFeatures.add(parts.get(0));
+            }
+        }
+        return requiredFeatures.isEmpty() ? null : requiredFeatures;
+    }
+
+    /**
+     * Resolves a %key header value from the properties file of the feature:
+     * Subsystem-Localization: OSGI-INF/l10n/(symbolic name) is installed as
+     * lib/features/l10n/(symbolic name).properties
+     */
+    private static String localize(Path manifestFile, Attributes attributes, String value) {
+        if (value == null || !value.startsWith("%")) {
+            return value;
+        }
+        String localization = attributes.getValue(LOCALIZATION);
+        if (localization == null) {
+            return null;
+        }
+        String baseName = localization.substring(localization.lastIndexOf('/') + 1).trim();
+        Path propertiesFile = manifestFile.resolveSibling("l10n").resolve(baseName + ".properties");
+        if (!Files.isRegularFile(propertiesFile)) {
+            return null;
+        }
+        Properties properties = new Properties();
+        try (InputStream is = Files.newInputStream(propertiesFile)) {
+            properties.load(is);
+        } catch (IOException e) {
+            LOGGER.fine("Unable to read " + propertiesFile + ": " + e.getMessage());
+            return null;
+        }
+        return properties.getProperty(value.substring(1).trim());
+    }
+
+    /**
+     * Splits a header into its comma separated clauses, ignoring commas in quotes
+     */
+    private static List<String> splitClauses(String header) {
+        return split(header, ',');
+    }
+
+    /**
+     * Splits a clause into its name followed by its attributes and directives
+     */
+    private static List<String> splitClause(String clause) {
+        return split(clause, ';');
+    }
+
+    private static List<String> split(String value, char separator) {
+        List<String> parts = new ArrayList<>();
+        boolean quoted = false;
+        int start = 0;
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            if (c == '"') {
+                quoted = !quoted;
+            } else if (c == separator && !quoted) {
+                parts.add(value.substring(start, i).trim());
+                start = i + 1;
+            }
+        }
+        parts.add(value.substring(start).trim());
+        return parts;
+    }
+
+    /**
+     * Returns the value of a directive (name:=value) or attribute (name=value) of a clause
+     */
+    private static String getDirective(List<String> clause, String name) {
+        for (int i = 1; i < clause.size(); i++) {
+            String part = clause.get(i);
+            int separator = part.indexOf('=');
+            if (separator < 0) {
+                continue;
+            }
+            String key = part.substring(0, separator);
+            if (key.endsWith(":")) {
+                key = key.substring(0, key.length() - 1);
+            }
+            if (key.trim().equals(name)) {
+                String value = part.substring(separator + 1).trim();
+                if (value.length() >= 2 && value.startsWith("\"") && value.endsWith("\"")) {
+                    value = value.substring(1, value.length() - 1);
+                }
+                return value.trim();
+            }
+        }
+        return null;
+    }
+}
@@ -0,0 +1,223 @@
+/*******************************************************************************
+* Copyright (c) 2022 IBM Corporation and others.
+*
+* This program and the accompanying materials are made available under the
+* terms of the Eclipse Public License v. 2.0 which is available at
+* http://www.eclipse.org/legal/epl-2.0.
+*
+* SPDX-License-Identifier: EPL-2.0
+*
+* Contributors:
+*     IBM Corporation - initial API and implementation
+*******************************************************************************/
+package io.openliberty.tools.langserver.lemminx.services;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+import io.openliberty.tools.langserver.lemminx.models.feature.Feature;
+
+/**
+ * Search index over the short names of the features of a catalog, used to filter
+ * feature completion on the server. Names are matched ignoring case:
+ * - by prefix, with a binary search over the sorted names;
+ * - by substring, and for longer queries approximately, with a trigram index.
+ */
+public final class FeatureNameIndex {
+
+    // a fuzzy match must share at least this fraction of the trigrams of the query
+    private static final double FUZZY_THRESHOLD = 0.5;
+    // and at least this many, a single shared trigram of a short query is mostly noise
+    private static final int MIN_FUZZY_TRIGRAMS = 2;
+
+    /**
+     * A feature that matches a query
+     */
+    public static final class Match {
+        private final int id;
+        private final Feature feature;
+        private final int matchStart;
+        private final int matchLength;
+
+        Match(int id, Feature feature, int matchStart, int matchLength) {
+            this.id = id;
+            this.feature = feature;
+            this.matchStart = matchStart;
+            this.matchLength = matchLength;
+        }
+
+        /**
+         * @return position of the feature in the catalog
+         */
+        public int getId() {
+            return id;
+        }
+
+        public Feature getFeature() {
+            return feature;
+        }
+
+        /**
+         * @return start of the query in the feature short name, or -1 for an approximate match
+         */
+        public int getMatchStart() {
+            return matchStart;
+        }
+
+        public int getMatchLength() {
+            return matchLength;
+        }
+
+        public boolean isPrefixMatch() {
+            return matchStart == 0;
+        }
+
+        public boolean isFuzzyMatch() {
+            return matchStart < 0;
+        }
+    }
+
+    private final List<Feature> features;
+    // lower case short names in ascending order, and the id of their feature
+    private final String[] sortedNames;
+    private final int[] sortedIds;
+    // lower case short name of each feature id
+    private final String[] names;
+    private final Map<Long, int[]> trigrams;
+
+    FeatureNameIndex(FeatureCatalog catalog) {
+        this.features = catalog.getFeatures();
+        List<Integer> ids = new ArrayList<>();
+        this.names = new String[features.size()];
+        for (int id = 0; id < features.size(); id++) {
+            Feature feature = features.get(id);
+            if (feature.getWlpInformation() != null && feature.getWlpInformation().getShortName() != null) {
+                names[id] = feature.getWlpInformation().getShortName().toLowerCase(Locale.ROOT);
+                ids.add(id);
+            }
+        }
+        ids.sort(Comparator.comparing((Integer id) -> names[id]).thenComparing(id -> id));
+        this.sortedNames = new String[ids.size()];
+        this.sortedIds = new int[ids.size()];
+        for (int i = 0; i < ids.size(); i++) {
+            sortedIds[i] = ids.get(i);
+            sortedNames[i] = names[sortedIds[i]];
+        }
+
+        Map<Long, List<Integer>> postings = new HashMap<>();
+        for (int id : sortedIds) {
+            String name = names[id];
+            for (int i = 0; i + 3 <= name.length(); i++) {
+                List<Integer> posting = postings.computeIfAbsent(trigram(name, i), key -> new ArrayList<>());
+                // a name may contain the same trigram twice
+                if (posting.isEmpty() || posting.get(posting.size() - 1) != id) {
+                    posting.add(id);
+                }
+            }
+        }
+        this.trigrams = new HashMap<>();
+        for (Map.Entry<Long, List<Integer>> entry : postings.entrySet()) {
+            trigrams.put(entry.getKey(), entry.getValue().stream().mapToInt(Integer::intValue).toArray());
+        }
+    }
+
+    /**
+     * Returns the features whose short name matches the query, best matches first:
+     * prefix matches in alphabetical order, then the other substring matches, then
+     * approximate matches sorted by the number of trigrams they share with the
+     * query.
+     *
+     * @param query start of a feature name, all features match an empty query
+     */
+    public List<Match> search(String query) {
+        if (query == null || query.isEmpty()) {
+            List<Match> matches = new ArrayList<>(features.size());
+            for (int id = 0; id < features.size(); id++) {
+                matches.add(new Match(id, features.get(id), 0, 0));
+            }
+            return matches;
+        }
+
+        String lowerQuery = query.toLowerCase(Locale.ROOT);
+        List<Match> matches = new ArrayList<>();
+        boolean[] matched = new boolean[features.size()];
+
+        // prefix matches form a range of the sorted names
+        int start = lowerBound(lowerQuery);
+        for (int i = start; i < sortedNames.length && sortedNames[i].startsWith(lowerQuery); i++) {
+            matched[sortedIds[i]] = true;
+            matches.add(new Match(sortedIds[i], features.get(sortedIds[i]), 0, query.length()));
+        }
+
+        if (lowerQuery.length() < 3) {
+            // too short for trigrams, the names are few and short enough to scan
+            for (int id : sortedIds) {
+                int index = names[id].indexOf(lowerQuery);
+                if (!matched[id] && index > 0) {
+                    matched[id] = true;
+                    matches.add(new Match(id, features.get(id), index, query.length()));
+                }
+            }
+            return matches;
+        }
+
+        // count the trigrams of the query that each name contains
+        int queryTrigrams = lowerQuery.length() - 2;
+        int[] counts = new int[features.size()];
+        for (int i = 0; i < queryTrigrams; i++) {
+            int[] posting = trigrams.get(trigram(lowerQuery, i));
+            if (posting != null) {
+                for (int id : posting) {
+                    counts[id]++;
+                }
+            }
+        }
+
+        List<Integer> fuzzy = new ArrayList<>();
+        int minimumCount = Math.max(MIN_FUZZY_TRIGRAMS, (int) Math.ceil(queryTrigrams * FUZZY_THRESHOLD));
+        for (int id : sortedIds) {
+            if (matched[id] || counts[id] == 0) {
+                continue;
+            }
+            // a substring match contains every trigram of the query
+            int index = counts[id] >= queryTrigrams ? names[id].indexOf(lowerQuery) : -1;
+            if (index > 0) {
+                matches.add(new Match(id, features.get(id), index, query.length()));
+            } else if (counts[id] >= minimumCount) {
+                fuzzy.add(id);
+            }
+        }
+        // stable sort, keeps the alphabetical order between equal counts
+        fuzzy.sort(Comparator.comparingInt((Integer id) -> counts[id]).reversed());
+        for (int id : fuzzy) {
+            matches.add(new Match(id, features.get(id), -1, 0));
+        }
+        return matches;
+    }
+
+    private int lowerBound(String key) {
+        int low = 0;
+        int high = sortedNames.length;
+        while (low < high) {
+            int middle = (low + high) >>> 1;
+            if (sortedNames[middle].compareTo(key) < 0) {
+                low = middle + 1;
+            } else {
+                high = middle;
+            }
+        }
+        return low;
+    }
+
+    // each char is widened to a long before it is shifted, so that chars >= 0x8000 do not spill into the other chars
+    private static long trigram(String value, int index) {
+        long first = value.charAt(index);
+        long second = value.charAt(index + 1);
+        long third = value.charAt(index + 2);
+        return (first << 32) | (second << 16) | third;
+    }
+}
@@ -0,0 +1,177 @@
+/*******************************************************************************
+* Copyright (c) 2022 IBM Corporation and others.
+*
+* This program and the accompanying materials are made available under the
+* terms of the Eclipse Public License v. 2.0 which is available at
+* http://www.eclipse.org/legal/epl-2.0.
+*
+* SPDX-License-Identifier: EPL-2.0
+*
+* Contributors:
+*     IBM Corporation - initial API and implementation
+*******************************************************************************/
+package io.openliberty.tools.langserver.lemminx.services;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.logging.Logger;
+
+import io.openliberty.tools.langserver.lemminx.util.LibertyUtils;
+
+/**
+ * Downloads the feature lists of the newest Liberty versions before they are
+ * needed, so that the catalog is already in the feature store when a project
+ * moves to a new version.
+ *
+ * The versions are read from the maven-metadata.xml of the features artifact.
+ * Prefetching runs on a single low priority thread, a while after the runtime
+ * is first used and then once a day, and waits for the requestDelay setting
+ * between downloads. Nothing is fetched when the offline setting is on, and
+ * failures back off like the other fetches.
+ */
+public class FeaturePrefetcher {
+
+    private static final Logger LOGGER = Logger.getLogger(FeaturePrefetcher.class.getName());
+
+    // newest versions of each runtime to keep in the feature store
+    static final int PREFETCH_VERSIONS = 3;
+    static final long INITIAL_DELAY = TimeUnit.MINUTES.toSeconds(1);
+    static final long PERIOD = TimeUnit.DAYS.toSeconds(1);
+
+    private final MavenCentralFeatureSource mavenSource;
+    private final LocalFeatureRepository localRepository;
+    private final FeatureCatalogStore featureStore;
+    private final FetchBackoff fetchBackoff;
+    // runtimes that are prefetched, ie. 'ol' or 'wlp'
+    private final Map<String, Boolean> scheduledRuntimes = new ConcurrentHashMap<>();
+    private volatile ScheduledExecutorService executor;
+
+    public FeaturePrefetcher(MavenCentralFeatureSource mavenSource, LocalFeatureRepository localRepository,
+            FeatureCatalogStore featureStore, FetchBackoff fetchBackoff) {
+        this.mavenSource = mavenSource;
+        this.localRepository = localRepository;
+        this.featureStore = featureStore;
+        this.fetchBackoff = fetchBackoff;
+    }
+
+    /**
+     * Starts prefetching the newest feature lists of a runtime in the background,
+     * if it is not already prefetched
+     */
+    public void schedule(String libertyRuntime) {
+        if (libertyRuntime == null || scheduledRuntimes.putIfAbsent(libertyRuntime, Boolean.TRUE) != null) {
+            return;
+        }
+        getExecutor().scheduleWithFixedDelay(() -> {
+            try {
+                prefetch(libertyRuntime);
+            } catch (RuntimeException e) {
+                LOGGER.warning("Unable to prefetch features for " + libertyRuntime + ": " + e.getMessage());
+            }
+        }, INITIAL_DELAY, PERIOD, TimeUnit.SECONDS);
+    }
+
+    /**
+     * Downloads the feature lists of the newest versions of a runtime that are not
+     * stored yet
+     *
+     * @return versions whose feature list was downloaded
+     */
+    public List<String> prefetch(String libertyRuntime) {
+        if (SettingsService.getInstance().isOffline()) {
+            LOGGER.fine("Offline, not prefetching features for " + libertyRuntime);
+            return Collections.emptyList();
+        }
+        long requestDelay = TimeUnit.SECONDS.toMillis(SettingsService.getInstance().getRequestDelay());
+        List<String> versions = loadNewestVersions(libertyRuntime, requestDelay);
+
+        List<String> prefetched = new ArrayList<>();
+        for (String version : versions) {
+            String featureCacheKey = libertyRuntime + "-" + version;
+            if (featureStore.read(libertyRuntime, version) != null || localRepository.find(libertyRuntime, version) != null) {
+                continue;
+            }
+            if (!prefetched.isEmpty() && !sleep(requestDelay)) {
+                break;
+            }
+            if (!fetchBackoff.tryAcquire(featureCacheKey)) {
+                continue;
+            }
+            try {
+                // the source writes the feature list to the feature store
+                if (mavenSource.loadFeatures(libertyRuntime, version) != null) {
+                    fetchBackoff.onSuccess(featureCacheKey);
+                    prefetched.add(version);
+                    LOGGER.fine("Prefetched features for " + featureCacheKey);
+                } else {
+                    fetchBackoff.onFailure(featureCacheKey, requestDelay, false);
+                }
+            } catch (IOException e) {
+                fetchBackoff.onFailure(featureCacheKey, requestDelay, true);
+                LOGGER.fine("Unable to prefetch features for " + featureCacheKey + ": " + e.getMessage());
+            }
+        }
+        return prefetched;
+    }
+
+    /**
+     * @return the newest released versions of a runtime, newest first, or none if they cannot be read
+     */
+    private List<String> loadNewestVersions(String libertyRuntime, long requestDelay) {
+        String metadataKey = libertyRuntime + "-metadata";
+        if (!fetchBackoff.tryAcquire(metadataKey)) {
+            return Collections.emptyList();
+        }
+        List<String> versions;
+        try {
+            versions = mavenSource.loadVersions(libertyRuntime);
+            fetchBackoff.onSuccess(metadataKey);
+        } catch (IOException e) {
+            fetchBackoff.onFailure(metadataKey, requestDelay, true);
+            LOGGER.fine("Unable to read the versions of " + libertyRuntime + ": " + e.getMessage());
+            return Collections.emptyList();
+        }
+        List<String> newest = new ArrayList<>();
+        for (String version : versions) {
+            // only released versions, not betas
+            if (version.matches("\\d+(\\.\\d+)*")) {
+                newest.add(version);
+            }
+        }
+        newest.sort((version1, version2) -> LibertyUtils.compareVersions(version2, version1));
+        return newest.subList(0, Math.min(PREFETCH_VERSIONS, newest.size()));
+    }
+
+    private static boolean sleep(long millis) {
+        try {
+            Thread.sleep(millis);
+            return true;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        }
+    }
+
+    private ScheduledExecutorService getExecutor() {
+        if (executor == null) {
+            synchronized (this) {
+                if (executor == null) {
+                    executor = Executors.newSingleThreadScheduledExecutor(runnable -> {
+                        Thread thread = new Thread(runnable, "liberty-feature-prefetch");
+                        thread.setDaemon(true);
+                        thread.setPriority(Thread.MIN_PRIORITY);
+                        return thread;
+                    });
+                }
+            }
+        }
+        return executor;
+    }
+}
@@ -17,24 +17,32 @@ import java.io.IOException;
 import java.io.InputStream;
 import java.io.InputStreamReader;
 import java.io.File;
-import java.net.URL;
 import java.nio.charset.StandardCharsets;
 import java.nio.file.Path;
 import java.nio.file.Paths;
 import java.util.ArrayList;
 import java.util.Arrays;
-import java.util.HashMap;
+import java.util.Collection;
+import java.util.Comparator;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
+import java.util.ServiceConfigurationError;
+import java.util.ServiceLoader;
+import java.util.function.Consumer;
 import java.util.logging.Logger;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
 
-import javax.xml.bind.JAXBContext;
-import javax.xml.bind.JAXBException;
-import javax.xml.bind.Unmarshaller;
-
-import com.google.gson.Gson;
 import com.google.gson.JsonParseException;
 
 import org.eclipse.lemminx.uriresolver.CacheResourcesManager;
@@ -43,7 +51,6 @@ import org.eclipse.lemminx.uriresolver.CacheResourcesManager.ResourceToDeploy;
 import io.openliberty.tools.langserver.lemminx.models.feature.Feature;
 import io.openliberty.tools.langserver.lemminx.models.feature.FeatureInfo;
 import io.openliberty.tools.langserver.lemminx.models.feature.WlpInformation;
-import io.openliberty.tools.langserver.lemminx.util.LibertyConstants;
 import io.openliberty.tools.langserver.lemminx.util.LibertyUtils;
 
 public class FeatureService {
@@ -53,86 +60,285 @@ public class FeatureService {
   // Singleton so that only 1 Feature Service can be initialized and is
   // shared between all Lemminx Language Feature Participants
 
-  private static FeatureService instance;
-  private static String olFeatureEndpoint = "https://repo1.maven.org/maven2/io/openliberty/features/features/%1$s/features-%1$s.json";
-  private static String wlpFeatureEndpoint = "https://repo1.maven.org/maven2/com/ibm/websphere/appserver/features/features/%1$s/features-%1$s.json";
+  private static final FeatureService INSTANCE = new FeatureService();
 
   public static FeatureService getInstance() {
-    if (instance == null) {
-      instance = new FeatureService();
-    }
-    return instance;
+    return INSTANCE;
   }
 
-  // Cache of Liberty version -> list of supported features
-  private Map<String, List<Feature>> featureCache;   // the key consists of runtime-version, where runtime is 'ol' or 'wlp'
-  private List<Feature> defaultFeatureList;
-  private long featureUpdateTime;
+  // Cache of Liberty version -> catalog of supported features, bounded by the featureCacheSize setting
+  // Evicted catalogs are read again from the feature store when they are needed
+  private final FeatureCatalogCache featureCache;   // the key consists of runtime-version, where runtime is 'ol' or 'wlp'
+  private final AtomicReference<FeatureCatalog> defaultFeatureCatalog;
+  // Shares equal features between the catalogs of different Liberty versions
+  private final FeatureInterner featureInterner;
+  // When each Liberty version may be fetched from the network again, and whether the network is reachable
+  private final FetchBackoff fetchBackoff;
+  // Feature lists downloaded from Maven, persisted across language server sessions
+  private final FeatureCatalogStore featureStore;
+  // Sources of exact feature lists in priority order, ie. the local Maven repository and Maven Central
+  private final List<FeatureCatalogSource> catalogSources;
+  // Downloads the feature lists of the newest Liberty versions in the background
+  private final FeaturePrefetcher prefetcher;
+  // Liberty version being loaded in the background -> load shared by every caller
+  private final Map<String, CatalogLoad> inFlightLoads;
+  // Liberty workspace generating its installed feature list -> generation shared by every caller
+  private final Map<String, CompletableFuture<FeatureCatalog>> inFlightInstalledLoads;
+  // Feature lists generated for installed runtimes, persisted across language server sessions
+  private final InstalledFeatureListStore installedFeatureStore;
+  // Runtime fingerprint -> installed features, shared by the workspaces that use the same runtime
+  private final Map<String, FeatureCatalog> installedCatalogs;
+  private final ExecutorService fetchExecutor;
+  private volatile Consumer<Collection<String>> revalidationHandler;
 
   private FeatureService() {
-    featureCache = new HashMap<>();
-    featureUpdateTime = -1;
+    featureCache = new FeatureCatalogCache(toBytes(SettingsService.getInstance().getFeatureCacheSize()));
+    defaultFeatureCatalog = new AtomicReference<>();
+    featureInterner = new FeatureInterner();
+    fetchBackoff = new FetchBackoff();
+    featureStore = new FeatureCatalogStore();
+    LocalFeatureRepository localRepository = new LocalFeatureRepository();
+    MavenCentralFeatureSource mavenSource = new MavenCentralFeatureSource(featureStore);
+    catalogSources = loadCatalogSources(localRepository, mavenSource);
+    prefetcher = new FeaturePrefetcher(mavenSource, localRepository, featureStore, fetchBackoff);
+    inFlightLoads = new ConcurrentHashMap<>();
+    inFlightInstalledLoads = new ConcurrentHashMap<>();
+    installedFeatureStore = new InstalledFeatureListStore();
+    installedCatalogs = new ConcurrentHashMap<>();
+    fetchExecutor = Executors.newCachedThreadPool(runnable -> {
+      Thread thread = new Thread(runnable, "liberty-feature-fetch");
+      thread.setDaemon(true);
+      return thread;
+    });
   }
 
   /**
-   * Fetches information about Liberty features from Maven repo
-   *
-   * @param libertyVersion - version of Liberty to fetch features for
-   * @return list of features supported by the provided version of Liberty
+   * Returns the built-in catalog sources and the ones registered with the
+   * ServiceLoader, sorted by priority
    */
-  private List<Feature> fetchFeaturesForVersion(String libertyVersion, String libertyRuntime) throws IOException, JsonParseException {
-    String featureEndpoint = libertyRuntime.equals("wlp") ? String.format(wlpFeatureEndpoint, libertyVersion) : 
-                                                            String.format(olFeatureEndpoint, libertyVersion);
-
-    InputStreamReader reader = new InputStreamReader(new URL(featureEndpoint).openStream());
+  private static List<FeatureCatalogSource> loadCatalogSources(FeatureCatalogSource... builtInSources) {
+    List<FeatureCatalogSource> sources = new ArrayList<>(Arrays.asList(builtInSources));
+    try {
+      for (FeatureCatalogSource source : ServiceLoader.load(FeatureCatalogSource.class, FeatureService.class.getClassLoader())) {
+        LOGGER.fine("Adding feature catalog source: " + source.getName() + " with priority " + source.getPriority());
+        sources.add(source);
+      }
+    } catch (ServiceConfigurationError e) {
+      LOGGER.warning("Unable to load the feature catalog sources: " + e.getMessage());
+    }
+    // stable sort, the built-in sources come first for the same priority
+    sources.sort(Comparator.comparingInt(FeatureCatalogSource::getPriority));
+    return sources;
+  }
 
-    // Only need the public features
-    ArrayList<Feature> publicFeatures = readPublicFeatures(reader);
+  /**
+   * Returns the catalog of a feature list from the feature store, or null if it
+   * cannot be read
+   */
+  private FeatureCatalog loadStoredCatalog(String libertyVersion, String libertyRuntime, FeatureCatalogStore.Entry storedEntry) {
+    try {
+      List<Feature> features = FeatureListReader.readPublicFeatures(storedEntry.getFile());
+      LOGGER.fine("Returning public features from feature store: " + features.size());
+      return createCatalog(libertyRuntime, libertyVersion, features);
+    } catch (IOException | JsonParseException e) {
+      LOGGER.warning("Unable to read stored features from " + storedEntry.getFile() + ": " + e.getMessage());
+      return null;
+    }
+  }
 
-    LOGGER.fine("Returning public features from Maven: " + publicFeatures.size());
-    return publicFeatures;
+  /**
+   * Returns the catalog of the first local source that has the feature list of the
+   * Liberty version, or null if none has it
+   */
+  private FeatureCatalog loadLocalSourceCatalog(String libertyVersion, String libertyRuntime) {
+    for (FeatureCatalogSource source : catalogSources) {
+      if (!source.isLocal()) {
+        continue;
+      }
+      List<Feature> features = loadFeatures(source, libertyVersion, libertyRuntime, null);
+      if (features != null) {
+        LOGGER.fine("Returning public features from " + source.getName() + ": " + features.size());
+        return createCatalog(libertyRuntime, libertyVersion, features);
+      }
+    }
+    return null;
   }
 
   /**
-   * Returns the default feature list
+   * Returns the features of a Liberty version from the first source of the highest
+   * priority that has them. Sources with the same priority are asked at the same
+   * time, and each one is given up on after its timeout.
    *
-   * @return list of features supported by the default version of Liberty
+   * @param networkFailure set if a source could not be reached or timed out
+   * @return features, or null if no source that is not local has them
+   */
+  private List<Feature> loadRemoteSourceFeatures(String libertyVersion, String libertyRuntime, AtomicBoolean networkFailure) {
+    int next = 0;
+    while (next < catalogSources.size()) {
+      // sources with the same priority race each other
+      List<FeatureCatalogSource> tier = new ArrayList<>();
+      int priority = catalogSources.get(next).getPriority();
+      for (; next < catalogSources.size() && catalogSources.get(next).getPriority() == priority; next++) {
+        if (!catalogSources.get(next).isLocal()) {
+          tier.add(catalogSources.get(next));
+        }
+      }
+      if (tier.isEmpty()) {
+        continue;
+      }
+
+      CompletableFuture<List<Feature>> first = new CompletableFuture<>();
+      AtomicInteger pending = new AtomicInteger(tier.size());
+      List<Future<?>> tasks = new ArrayList<>(tier.size());
+      for (FeatureCatalogSource source : tier) {
+        CompletableFuture<List<Feature>> load = new CompletableFuture<>();
+        // submitted rather than run with supplyAsync, so that the source can be interrupted
+        Future<?> task = fetchExecutor.submit(() -> {
+          load.complete(loadFeatures(source, libertyVersion, libertyRuntime, networkFailure));
+        });
+        tasks.add(task);
+        load.orTimeout(source.getTimeout(), TimeUnit.MILLISECONDS)
+            .exceptionally(e -> {
+              Throwable cause = e instanceof CompletionException && e.getCause() != null ? e.getCause() : e;
+              if (cause instanceof TimeoutException) {
+                LOGGER.fine("Timed out loading features for " + libertyRuntime + "-" + libertyVersion + " from " + source.getName());
+                networkFailure.set(true);
+                task.cancel(true);
+              } else {
+                LOGGER.warning("Unable to load features for " + libertyRuntime + "-" + libertyVersion + " from " + source.getName() + ": " + cause);
+              }
+              return null;
+            })
+            .thenAccept(features -> {
+              if (features != null) {
+                if (first.complete(features)) {
+                  LOGGER.fine("Returning public features from " + source.getName() + ": " + features.size());
+                }
+              } else if (pending.decrementAndGet() == 0) {
+                first.complete(null);
+              }
+            });
+      }
+      List<Feature> features = first.join();
+      // the result of the sources that are still loading would be ignored, stop their downloads
+      tasks.forEach(task -> task.cancel(true));
+      if (features != null) {
+        return features;
+      }
+    }
+    return null;
+  }
+
+  /**
+   * @param networkFailure set if the source fails with an IOException, or null
+   * @return features of the source, or null if it does not have them or fails
    */
-  private List<Feature> getDefaultFeatureList() {
+  private static List<Feature> loadFeatures(FeatureCatalogSource source, String libertyVersion, String libertyRuntime, AtomicBoolean networkFailure) {
     try {
-      if (defaultFeatureList == null) {
-        // Changing this to not contain the version in the file name (same as the server.xsd) 
-        InputStream is = getClass().getClassLoader().getResourceAsStream("features.json");
-        InputStreamReader reader = new InputStreamReader(is, StandardCharsets.UTF_8);
+      return source.loadFeatures(libertyRuntime, libertyVersion);
+    } catch (IOException e) {
+      if (Thread.currentThread().isInterrupted()) {
+        // another source answered first or the source timed out
+        LOGGER.fine("Stopped loading features for " + libertyRuntime + "-" + libertyVersion + " from " + source.getName());
+        return null;
+      }
+      LOGGER.fine("Unable to reach " + source.getName() + " for " + libertyRuntime + "-" + libertyVersion + ": " + e.getMessage());
+      if (networkFailure != null) {
+        networkFailure.set(true);
+      }
+      return null;
+    } catch (RuntimeException e) {
+      LOGGER.fine("Unable to load features for " + libertyRuntime + "-" + libertyVersion + " from " + source.getName() + ": " + e.getMessage());
+      return null;
+    }
+  }
 
-        // Only need the public features
-        defaultFeatureList = readPublicFeatures(reader);
+  /**
+   * Returns the default feature catalog
+   *
+   * @return catalog of features supported by the default version of Liberty
+   */
+  private FeatureCatalog getDefaultFeatureCatalog() {
+    FeatureCatalog catalog = defaultFeatureCatalog.get();
+    if (catalog == null) {
+      // another thread may have read it at the same time, keep the first one published
+      defaultFeatureCatalog.compareAndSet(null, readDefaultFeatureCatalog());
+      catalog = defaultFeatureCatalog.get();
+    }
+    LOGGER.fine("Returning default feature list");
+    return catalog;
+  }
+
+  private FeatureCatalog readDefaultFeatureCatalog() {
+    // features.bin is generated from features.json at build time, see BinaryFeatureCatalog
+    try (InputStream binaryCatalog = getClass().getClassLoader().getResourceAsStream("features.bin")) {
+      if (binaryCatalog != null) {
+        return featureInterner.intern(BinaryFeatureCatalog.read(binaryCatalog, null, null));
       }
-      LOGGER.fine("Returning default feature list");
-      return defaultFeatureList;
+    } catch (IOException e) {
+      LOGGER.warning("Unable to read the binary default features, reading features.json: " + e.getMessage());
+    }
 
-    } catch (JsonParseException e) {
+    // Changing this to not contain the version in the file name (same as the server.xsd) 
+    InputStream is = getClass().getClassLoader().getResourceAsStream("features.json");
+    if (is == null) {
+      LOGGER.severe("Error: Unable to get default features.");
+      return new FeatureCatalog(null, null, new ArrayList<Feature>());
+    }
+    try (InputStreamReader reader = new InputStreamReader(is, StandardCharsets.UTF_8)) {
+      // Only need the public features
+      return createCatalog(null, null, readPublicFeatures(reader));
+    } catch (IOException | JsonParseException e) {
       // unable to read json in resources file, return empty list
       LOGGER.severe("Error: Unable to get default features.");
-      return defaultFeatureList;
+      return new FeatureCatalog(null, null, new ArrayList<Feature>());
     }
   }
 
+  /**
+   * Creates a catalog whose features are shared with the other catalogs
+   */
+  private FeatureCatalog createCatalog(String libertyRuntime, String libertyVersion, List<Feature> features) {
+    return new FeatureCatalog(libertyRuntime, libertyVersion, featureInterner.intern(features));
+  }
+
+  private FeatureCatalog getCachedCatalog(String featureCacheKey) {
+    return featureCache.get(featureCacheKey);
+  }
+
+  private void cacheCatalog(String featureCacheKey, FeatureCatalog catalog) {
+    featureCache.put(featureCacheKey, catalog);
+  }
+
+  /**
+   * Changes the maximum size of the feature cache, evicting the least recently
+   * used catalogs if the cache is now too large
+   *
+   * @param featureCacheSize maximum size in megabytes
+   */
+  public void setFeatureCacheSize(int featureCacheSize) {
+    featureCache.setMaxSize(toBytes(featureCacheSize));
+  }
+
+  /**
+   * Returns the feature cache, ie. to report its size and its hit, miss and eviction counts
+   */
+  public FeatureCatalogCache getFeatureCache() {
+    return featureCache;
+  }
+
+  private static long toBytes(int megabytes) {
+    return megabytes * 1024L * 1024L;
+  }
+
   /**
    * Returns a list of public features
    *
    * @param reader - InputStreamReader for json feature list
    * @return list of public features
    */
-  private ArrayList<Feature> readPublicFeatures(InputStreamReader reader) throws JsonParseException {
-    Feature[] featureList = new Gson().fromJson(reader, Feature[].class);
-
-    ArrayList<Feature> publicFeatures = new ArrayList<>();
-    Arrays.asList(featureList).stream()
-        .filter(f -> f.getWlpInformation().getVisibility().equals(LibertyConstants.PUBLIC_VISIBILITY))
-        .forEach(publicFeatures::add);
-    defaultFeatureList = publicFeatures;
-    return publicFeatures;
+  private ArrayList<Feature> readPublicFeatures(InputStreamReader reader) throws IOException, JsonParseException {
+    return FeatureListReader.readPublicFeatures(reader);
   }
 
   /**
@@ -143,88 +349,405 @@ public class FeatureService {
    * 
    * @param libertyVersion Liberty version (corresponds to XML document)
    * @param libertyRuntime Liberty runtime (corresponds to XML document)
-   * @param requestDelay Time to wait in between feature list requests to Maven
+   * @param requestDelay Time to wait before fetching the feature list of a version again after a failure
    * @param documentURI Liberty XML document
    * @return List of possible features
    */
   public List<Feature> getFeatures(String libertyVersion, String libertyRuntime, int requestDelay, String documentURI) {
+    return getFeatureCatalog(libertyVersion, libertyRuntime, requestDelay, documentURI).getFeatures();
+  }
+
+  /**
+   * Returns the indexed catalog of Liberty features corresponding to the Liberty
+   * version. The catalog is resolved the same way as getFeatures and is shared, so
+   * callers that look up several features should fetch it once.
+   * 
+   * @param libertyVersion Liberty version (corresponds to XML document)
+   * @param libertyRuntime Liberty runtime (corresponds to XML document)
+   * @param requestDelay Time to wait before fetching the feature list of a version again after a failure
+   * @param documentURI Liberty XML document
+   * @return catalog of possible features
+   */
+  public FeatureCatalog getFeatureCatalog(String libertyVersion, String libertyRuntime, int requestDelay, String documentURI) {
     if (libertyRuntime == null || libertyVersion == null) {
         // return default feature list
-        List<Feature> defaultFeatures = getDefaultFeatureList(); 
-        return defaultFeatures;
+        return getDefaultFeatureCatalog();
+    }
+    // keep the newest versions of this runtime ready for the next upgrade
+    prefetcher.schedule(libertyRuntime);
+
+    FeatureCatalog catalog = getLocalFeatureCatalog(libertyVersion, libertyRuntime, requestDelay, documentURI);
+    if (catalog != null) {
+        return catalog;
+    }
+
+    // else need to fetch the features from maven central, which is done in the background
+    // so that completion, hover and diagnostics never wait for the network
+    FeatureCatalog fallbackCatalog = getFallbackFeatureCatalog(libertyVersion, libertyRuntime, documentURI);
+    FeatureCatalog loadedCatalog = loadFeatureCatalog(libertyVersion, libertyRuntime, requestDelay, documentURI, fallbackCatalog).getNow(null);
+    return loadedCatalog != null ? loadedCatalog : fallbackCatalog;
+  }
+
+  /**
+   * Returns the catalog that getFeatureCatalog would answer with for the Liberty
+   * version from what is already loaded: the cached catalog of the version, or the
+   * fallback catalog. Nothing is loaded and the document is not registered for
+   * revalidation, so it can be used to answer requests about items that were
+   * built from a catalog earlier, ie. completionItem/resolve.
+   * 
+   * @param libertyVersion Liberty version, or null for the default catalog
+   * @param libertyRuntime Liberty runtime, or null for the default catalog
+   * @param documentURI Liberty XML document
+   * @return catalog of possible features
+   */
+  public FeatureCatalog getCachedFeatureCatalog(String libertyVersion, String libertyRuntime, String documentURI) {
+    if (libertyRuntime == null || libertyVersion == null) {
+        return getDefaultFeatureCatalog();
+    }
+    FeatureCatalog catalog = getCachedCatalog(libertyRuntime + "-" + libertyVersion);
+    return catalog != null ? catalog : getFallbackFeatureCatalog(libertyVersion, libertyRuntime, documentURI);
+  }
+
+  /**
+   * Returns the exact feature catalog corresponding to the Liberty version once it
+   * is loaded. The future shares the load started by getFeatureCatalog, and
+   * completes with the fallback catalog if the exact one cannot be loaded.
+   * 
+   * @param libertyVersion Liberty version (corresponds to XML document)
+   * @param libertyRuntime Liberty runtime (corresponds to XML document)
+   * @param requestDelay Time to wait before fetching the feature list of a version again after a failure
+   * @param documentURI Liberty XML document
+   * @return future catalog of possible features
+   */
+  public CompletableFuture<FeatureCatalog> getFeatureCatalogAsync(String libertyVersion, String libertyRuntime, int requestDelay, String documentURI) {
+    if (libertyRuntime == null || libertyVersion == null) {
+        return CompletableFuture.completedFuture(getDefaultFeatureCatalog());
+    }
+    // keep the newest versions of this runtime ready for the next upgrade
+    prefetcher.schedule(libertyRuntime);
+
+    FeatureCatalog catalog = getLocalFeatureCatalog(libertyVersion, libertyRuntime, requestDelay, documentURI);
+    if (catalog != null) {
+        return CompletableFuture.completedFuture(catalog);
     }
 
+    return loadFeatureCatalog(libertyVersion, libertyRuntime, requestDelay, documentURI, null)
+            .thenApply(loadedCatalog -> loadedCatalog != null ? loadedCatalog : getFallbackFeatureCatalog(libertyVersion, libertyRuntime, documentURI));
+  }
+
+  /**
+   * Returns the catalog for the Liberty version from the feature cache, from a local
+   * catalog source or from the features downloaded by a previous session, or null
+   * if none has it. A stale stored copy is returned right away and revalidated in
+   * the background. The installed features of the workspace are returned if they
+   * are all that was found for the version and no catalog source will be tried yet.
+   */
+  private FeatureCatalog getLocalFeatureCatalog(String libertyVersion, String libertyRuntime, int requestDelay, String documentURI) {
     String featureCacheKey = libertyRuntime + "-" + libertyVersion;
 
     // if the features are already cached in the feature cache
-    if (featureCache.containsKey(featureCacheKey)) {
+    FeatureCatalog catalog = getCachedCatalog(featureCacheKey);
+    if (catalog != null) {
         LOGGER.fine("Getting cached features for: " + featureCacheKey);
-        return featureCache.get(featureCacheKey);
+        return catalog;
+    }
+
+    // ie. a beta or a runtime built locally, that no catalog source has
+    catalog = getCurrentInstalledCatalog(libertyVersion, libertyRuntime, documentURI);
+    if (catalog != null) {
+        return catalog;
     }
 
     LOGGER.fine("Getting features for: " + featureCacheKey);
 
-    // else need to fetch the features from maven central
-    try {
-        // verify that request delay (seconds) has gone by since last fetch request
-        long currentTime = System.currentTimeMillis();
-        if (this.featureUpdateTime == -1 || currentTime >= (this.featureUpdateTime + (requestDelay * 1000))) {
-            List<Feature> features = fetchFeaturesForVersion(libertyVersion, libertyRuntime);
-            featureCache.put(featureCacheKey, features);
-            this.featureUpdateTime = System.currentTimeMillis();
-            return features;
+    // released feature lists never change, so a local copy is exact and needs no revalidation
+    catalog = loadLocalSourceCatalog(libertyVersion, libertyRuntime);
+    if (catalog != null) {
+        cacheCatalog(featureCacheKey, catalog);
+        return catalog;
+    }
+
+    FeatureCatalogStore.Entry storedEntry = featureStore.read(libertyRuntime, libertyVersion);
+    if (storedEntry != null) {
+        catalog = loadStoredCatalog(libertyVersion, libertyRuntime, storedEntry);
+        if (catalog != null) {
+            cacheCatalog(featureCacheKey, catalog);
+            if (!storedEntry.isFresh() && !SettingsService.getInstance().isOffline()) {
+                loadFeatureCatalog(libertyVersion, libertyRuntime, requestDelay, null, null);
+            }
+            return catalog;
+        }
+    }
+    return null;
+  }
+
+  /**
+   * Returns the installed features of the workspace of the document if they were
+   * generated for the Liberty version, the installation did not change since, and
+   * the catalog sources are not to be tried for the version now: the client is
+   * offline or the last fetch of the version failed. This way the outcome of the
+   * last load is kept per workspace and version, and the catalog sources are not
+   * probed again on every request.
+   *
+   * @return installed catalog, or null if the catalog sources may be tried
+   */
+  private FeatureCatalog getCurrentInstalledCatalog(String libertyVersion, String libertyRuntime, String documentURI) {
+    if (documentURI == null) {
+        return null;
+    }
+    LibertyWorkspace libertyWorkspace = LibertyProjectsManager.getInstance().getWorkspaceFolder(documentURI);
+    if (libertyWorkspace == null || libertyWorkspace.isInstalledFeaturesChanged()) {
+        return null;
+    }
+    FeatureCatalog installedFeatures = libertyWorkspace.getInstalledFeatureCatalog();
+    if (installedFeatures == null || !libertyRuntime.equals(installedFeatures.getLibertyRuntime())
+            || !libertyVersion.equals(installedFeatures.getLibertyVersion())) {
+        return null;
+    }
+    String featureCacheKey = libertyRuntime + "-" + libertyVersion;
+    if (SettingsService.getInstance().isOffline() || fetchBackoff.isBackingOff(featureCacheKey)) {
+        LOGGER.fine("Getting installed features for: " + featureCacheKey);
+        return installedFeatures;
+    }
+    return null;
+  }
+
+  /**
+   * Sets the handler that is given the URIs of the documents that were answered
+   * with a fallback catalog, once a different catalog for their Liberty version has
+   * been loaded in the background. The handler is expected to validate them again.
+   * 
+   * @param revalidationHandler handler, or null to remove it
+   */
+  public void setRevalidationHandler(Consumer<Collection<String>> revalidationHandler) {
+    this.revalidationHandler = revalidationHandler;
+  }
+
+  /**
+   * A load of the exact feature catalog for a Liberty version. Every caller that
+   * misses the cache for the same version while it runs shares its result.
+   */
+  private static class CatalogLoad {
+    private final CompletableFuture<FeatureCatalog> future = new CompletableFuture<>();
+    // documents that were answered with a fallback catalog -> that catalog, they need to
+    // be revalidated if the loaded catalog is a different one
+    private final Map<String, FeatureCatalog> servedCatalogs = new ConcurrentHashMap<>();
+  }
+
+  /**
+   * Starts loading the exact feature catalog for a Liberty version on a background
+   * thread, or joins the load that is already in flight for that version.
+   *
+   * @param documentURI document whose installed features are used if no source has the version, or null
+   * @param servedCatalog catalog the document was answered with, it is revalidated once a different
+   *        catalog is loaded, or null if the document does not need to be revalidated
+   * @return future that completes with the exact catalog, or null if it could not be loaded
+   */
+  private CompletableFuture<FeatureCatalog> loadFeatureCatalog(String libertyVersion, String libertyRuntime, int requestDelay, String documentURI,
+      FeatureCatalog servedCatalog) {
+    String featureCacheKey = libertyRuntime + "-" + libertyVersion;
+    CatalogLoad newLoad = new CatalogLoad();
+    CatalogLoad load = inFlightLoads.putIfAbsent(featureCacheKey, newLoad);
+    if (documentURI != null && servedCatalog != null) {
+        // added before checking for completion, so the document is either revalidated
+        // or its caller sees the completed future
+        (load != null ? load : newLoad).servedCatalogs.put(documentURI, servedCatalog);
+    }
+    if (load != null) {
+        return load.future;
+    }
+
+    fetchExecutor.execute(() -> {
+        FeatureCatalog catalog = null;
+        try {
+            catalog = fetchFeatureCatalog(libertyVersion, libertyRuntime, requestDelay, documentURI);
+        } catch (RuntimeException e) {
+            LOGGER.warning("Unable to load features for " + featureCacheKey + ": " + e.getMessage());
+        } finally {
+            inFlightLoads.remove(featureCacheKey, newLoad);
+            newLoad.future.complete(catalog);
+        }
+        Consumer<Collection<String>> handler = revalidationHandler;
+        if (catalog != null && handler != null) {
+            // the installed features of a workspace are loaded again for every document that was
+            // answered with them, revalidating those documents would only load them once more
+            List<String> documentURIs = new ArrayList<>();
+            for (Map.Entry<String, FeatureCatalog> served : newLoad.servedCatalogs.entrySet()) {
+                if (served.getValue() != catalog) {
+                    documentURIs.add(served.getKey());
+                }
+            }
+            if (!documentURIs.isEmpty()) {
+                LOGGER.fine("Revalidating documents with the features for " + featureCacheKey + ": " + documentURIs);
+                handler.accept(documentURIs);
+            }
+        }
+    });
+    return newLoad.future;
+  }
+
+  /**
+   * Fetches the exact feature catalog for a Liberty version. First attempts to fetch
+   * the feature list from the catalog sources that are not local, ie. Maven Central,
+   * otherwise falls back to the list of installed features.
+   *
+   * @return the exact catalog, or null if it could not be loaded
+   */
+  private FeatureCatalog fetchFeatureCatalog(String libertyVersion, String libertyRuntime, int requestDelay, String documentURI) {
+    String featureCacheKey = libertyRuntime + "-" + libertyVersion;
+    FeatureCatalogStore.Entry storedEntry = featureStore.read(libertyRuntime, libertyVersion);
+    // after a failure, wait for the request delay (seconds) and then exponentially longer for this version
+    if (SettingsService.getInstance().isOffline()) {
+        LOGGER.fine("Offline, not fetching features for " + featureCacheKey);
+    } else if (fetchBackoff.tryAcquire(featureCacheKey)) {
+        AtomicBoolean networkFailure = new AtomicBoolean();
+        List<Feature> features = loadRemoteSourceFeatures(libertyVersion, libertyRuntime, networkFailure);
+        if (features != null) {
+            fetchBackoff.onSuccess(featureCacheKey);
+            FeatureCatalog catalog = createCatalog(libertyRuntime, libertyVersion, features);
+            cacheCatalog(featureCacheKey, catalog);
+            return catalog;
         }
-    } catch (Exception e) {
-        // do nothing, continue on to returning default feature list
+        fetchBackoff.onFailure(featureCacheKey, requestDelay * 1000L, networkFailure.get());
+    } else {
+        LOGGER.fine("Not fetching features for " + featureCacheKey + " until " + fetchBackoff.getNextAttempt(featureCacheKey)
+            + (fetchBackoff.isCircuitOpen() ? ", the network is unreachable" : ""));
+    }
+
+    if (storedEntry != null) {
+        // no source could be reached, keep using the stored copy
+        return null;
     }
 
     // fetch installed features list - this would only happen if a features.json was not able to be downloaded from Maven Central
     // which would not be the normal case
-    List<Feature> installedFeatures = getInstalledFeaturesList(documentURI, libertyRuntime, libertyVersion);
-    if (installedFeatures.size() != 0) {
-        return installedFeatures;
+    if (documentURI != null) {
+        FeatureCatalog installedFeatures = getInstalledFeaturesList(documentURI, libertyRuntime, libertyVersion);
+        if (installedFeatures != null && !installedFeatures.isEmpty()) {
+            return installedFeatures;
+        }
+    }
+    return null;
+  }
+
+  /**
+   * Returns the best feature catalog that is available without loading anything:
+   * the installed features of the workspace if they were generated already, then
+   * the cached catalog of the closest version of the same runtime, and finally the
+   * default features.json.
+   */
+  private FeatureCatalog getFallbackFeatureCatalog(String libertyVersion, String libertyRuntime, String documentURI) {
+    LibertyWorkspace libertyWorkspace = documentURI != null ? LibertyProjectsManager.getInstance().getWorkspaceFolder(documentURI) : null;
+    if (libertyWorkspace != null && libertyWorkspace.getInstalledFeatureCatalog() != null
+            && !libertyWorkspace.getInstalledFeatureCatalog().isEmpty()) {
+        return libertyWorkspace.getInstalledFeatureCatalog();
+    }
+
+    // prefer the newest version that is not newer than the requested one
+    FeatureCatalog closest = null;
+    boolean closestIsOlder = false;
+    for (FeatureCatalog catalog : featureCache.values()) {
+        if (!libertyRuntime.equals(catalog.getLibertyRuntime())) {
+            continue;
+        }
+        boolean isOlder = LibertyUtils.compareVersions(catalog.getLibertyVersion(), libertyVersion) <= 0;
+        if (closest == null
+                || (isOlder && (!closestIsOlder || LibertyUtils.compareVersions(catalog.getLibertyVersion(), closest.getLibertyVersion()) > 0))
+                || (!isOlder && !closestIsOlder && LibertyUtils.compareVersions(catalog.getLibertyVersion(), closest.getLibertyVersion()) < 0)) {
+            closest = catalog;
+            closestIsOlder = isOlder;
+        }
+    }
+    if (closest != null) {
+        LOGGER.fine("Returning features of " + closest + " until the features for " + libertyRuntime + "-" + libertyVersion + " are loaded");
+        return closest;
     }
 
     // return default feature list
-    List<Feature> defaultFeatures = getDefaultFeatureList(); 
-    return defaultFeatures;
+    return getDefaultFeatureCatalog();
   }
 
   public Optional<Feature> getFeature(String featureName, String libertyVersion, String libertyRuntime, int requestDelay, String documentURI) {
-    List<Feature> features = getFeatures(libertyVersion, libertyRuntime, requestDelay, documentURI);
-    return features.stream().filter(f -> f.getWlpInformation().getShortName().equalsIgnoreCase(featureName))
-        .findFirst();
+    FeatureCatalog catalog = getFeatureCatalog(libertyVersion, libertyRuntime, requestDelay, documentURI);
+    return Optional.ofNullable(catalog.getFeature(featureName));
   }
 
   public boolean featureExists(String featureName, String libertyVersion, String libertyRuntime, int requestDelay, String documentURI) {
-    return this.getFeature(featureName, libertyVersion, libertyRuntime, requestDelay, documentURI).isPresent();
+    return getFeatureCatalog(libertyVersion, libertyRuntime, requestDelay, documentURI).hasFeature(featureName);
   }
 
   /**
    * Returns the list of installed features generated from ws-featurelist.jar.
    * Generated feature list is stored in the (target/build)/.libertyls directory.
-   * Returns an empty list if cannot determine installed feature list.
+   * Returns null if cannot determine installed feature list.
    * 
    * @param documentURI xml document
-   * @return list of installed features, or empty list
+   * @return catalog of installed features, or null
    */
-  private List<Feature> getInstalledFeaturesList(String documentURI, String libertyRuntime, String libertyVersion) {
-      List<Feature> installedFeatures = new ArrayList<Feature>();
-      try {
-          LibertyWorkspace libertyWorkspace = LibertyProjectsManager.getInstance().getWorkspaceFolder(documentURI);
-          if (libertyWorkspace == null || libertyWorkspace.getWorkspaceString() == null) {
-              return installedFeatures;
-          }
+  private FeatureCatalog getInstalledFeaturesList(String documentURI, String libertyRuntime, String libertyVersion) {
+      LibertyWorkspace libertyWorkspace = LibertyProjectsManager.getInstance().getWorkspaceFolder(documentURI);
+      if (libertyWorkspace == null || libertyWorkspace.getWorkspaceString() == null) {
+          return null;
+      }
 
-          // return installed features from cache
-          if (libertyWorkspace.getInstalledFeatureList().size() != 0) {
-              return libertyWorkspace.getInstalledFeatureList();
-          }
+      // return installed features from cache, unless the Liberty installation changed
+      if (libertyWorkspace.getInstalledFeatureCatalog() != null && !libertyWorkspace.isInstalledFeaturesChanged()) {
+          return libertyWorkspace.getInstalledFeatureCatalog();
+      }
+
+      // only run one ws-featurelist.jar per workspace at a time, every caller waits for its result
+      CompletableFuture<FeatureCatalog> newLoad = new CompletableFuture<>();
+      CompletableFuture<FeatureCatalog> load = inFlightInstalledLoads.putIfAbsent(libertyWorkspace.getWorkspaceString(), newLoad);
+      if (load != null) {
+          return load.join();
+      }
+      try {
+          newLoad.complete(generateInstalledFeaturesList(libertyWorkspace, documentURI, libertyRuntime, libertyVersion));
+      } catch (RuntimeException e) {
+          newLoad.complete(null);
+          throw e;
+      } finally {
+          inFlightInstalledLoads.remove(libertyWorkspace.getWorkspaceString(), newLoad);
+      }
+      return newLoad.join();
+  }
 
+  private FeatureCatalog generateInstalledFeaturesList(LibertyWorkspace libertyWorkspace, String documentURI, String libertyRuntime, String libertyVersion) {
+      FeatureCatalog installedFeatures = null;
+      // cleared first, so that a change while the features are generated is seen by the next caller
+      boolean installationChanged = libertyWorkspace.isInstalledFeaturesChanged();
+      libertyWorkspace.setInstalledFeaturesChanged(false);
+      try {
           Path featureListJAR = LibertyUtils.findFileInWorkspace(documentURI, Paths.get("bin", "tools", "ws-featurelist.jar"));
 
           if (featureListJAR != null && featureListJAR.toFile().exists()) {
 
+              // wlp/bin/tools/ws-featurelist.jar -> wlp
+              Path installDir = featureListJAR.toAbsolutePath().getParent().getParent().getParent();
+              if (installationChanged) {
+                  installedFeatureStore.invalidate(installDir);
+              }
+              String fingerprint = installedFeatureStore.getFingerprint(installDir, libertyRuntime, libertyVersion);
+              if (fingerprint != null) {
+                  // another workspace may use the same runtime
+                  installedFeatures = installedCatalogs.get(fingerprint);
+                  if (installedFeatures == null) {
+                      installedFeatures = readInstalledFeatures(installDir, libertyRuntime, libertyVersion);
+                  }
+                  if (installedFeatures == null) {
+                      Path storedFeatureList = installedFeatureStore.read(fingerprint);
+                      if (storedFeatureList != null) {
+                          LOGGER.fine("Using stored feature list for the runtime at: " + installDir);
+                          installedFeatures = readInstalledFeatures(storedFeatureList.toFile(), libertyRuntime, libertyVersion);
+                      }
+                  }
+                  if (installedFeatures != null) {
+                      installedCatalogs.put(fingerprint, installedFeatures);
+                      libertyWorkspace.setInstalledFeatureCatalog(installedFeatures);
+                      return installedFeatures;
+                  }
+              }
+
               File tempDir = LibertyUtils.getTempDir(libertyWorkspace);
               String featureListFileName = "featurelist-"+libertyRuntime+"-"+libertyVersion+".xml";
 
@@ -248,31 +771,63 @@ public class FeatureService {
                   return installedFeatures;
               }
 
-              JAXBContext jaxbContext = JAXBContext.newInstance(FeatureInfo.class);
-              Unmarshaller jaxbUnmarshaller = jaxbContext.createUnmarshaller();
-              FeatureInfo featureInfo = (FeatureInfo) jaxbUnmarshaller.unmarshal(featureListFile);
-         
-              if ((featureInfo.getFeatures() != null) && (featureInfo.getFeatures().size() > 0)) {
-                  for (int i = 0; i < featureInfo.getFeatures().size(); i++) {
-                      Feature f = featureInfo.getFeatures().get(i);
-                      f.setShortDescription(f.getDescription());
-                      WlpInformation wlpInfo = new WlpInformation(f.getName());
-                      f.setWlpInformation(wlpInfo);
+              installedFeatures = readInstalledFeatures(featureListFile, libertyRuntime, libertyVersion);
+              if (installedFeatures != null) {
+                  if (fingerprint != null) {
+                      installedFeatureStore.write(fingerprint, featureListFile.toPath());
+                      installedCatalogs.put(fingerprint, installedFeatures);
                   }
-                  installedFeatures = featureInfo.getFeatures();
-                  libertyWorkspace.setInstalledFeatureList(installedFeatures);
+                  libertyWorkspace.setInstalledFeatureCatalog(installedFeatures);
               } else {
                   LOGGER.warning("Unable to get installed features for current Liberty workspace: " + libertyWorkspace.getWorkspaceString());
               }
           } else {
               LOGGER.warning("Unable to generate the feature list for the current Liberty workspace:" + libertyWorkspace.getWorkspaceString());
           }
-      } catch (IOException | JAXBException | InterruptedException e) {
+      } catch (IOException | InterruptedException e) {
           LOGGER.warning("Unable to get installed features: " + e);
       }
 
-      LOGGER.fine("Returning installed features: " + installedFeatures.size());
+      LOGGER.fine("Returning installed features: " + (installedFeatures == null ? 0 : installedFeatures.size()));
       return installedFeatures;
   }
 
+  /**
+   * Reads the installed features from the feature manifests of the runtime, without
+   * starting ws-featurelist.jar
+   *
+   * @return catalog of the features, or null if the manifests could not be read
+   */
+  private FeatureCatalog readInstalledFeatures(Path installDir, String libertyRuntime, String libertyVersion) {
+      try {
+          List<Feature> features = FeatureManifestReader.readInstalledFeatures(installDir);
+          if (!features.isEmpty()) {
+              return createCatalog(libertyRuntime, libertyVersion, features);
+          }
+      } catch (IOException | RuntimeException e) {
+          LOGGER.warning("Unable to read the feature manifests of the runtime at " + installDir + ", falling back to ws-featurelist.jar: " + e);
+      }
+      return null;
+  }
+
+  /**
+   * Reads a feature list generated by ws-featurelist.jar
+   *
+   * @return catalog of the features, or null if the list has no features
+   */
+  private FeatureCatalog readInstalledFeatures(File featureListFile, String libertyRuntime, String libertyVersion) throws IOException {
+      FeatureInfo featureInfo = FeatureInfoReader.readFeatureInfo(featureListFile.toPath());
+
+      if ((featureInfo.getFeatures() == null) || (featureInfo.getFeatures().size() == 0)) {
+          return null;
+      }
+      for (int i = 0; i < featureInfo.getFeatures().size(); i++) {
+          Feature f = featureInfo.getFeatures().get(i);
+          f.setShortDescription(f.getDescription());
+          WlpInformation wlpInfo = new WlpInformation(f.getName());
+          f.setWlpInformation(wlpInfo);
+      }
+      return createCatalog(libertyRuntime, libertyVersion, featureInfo.getFeatures());
+  }
+
 }
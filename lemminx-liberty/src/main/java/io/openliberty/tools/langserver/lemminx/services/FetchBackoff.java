@@ -0,0 +1,193 @@
+/*******************************************************************************
+* Copyright (c) 2022 IBM Corporation and others.
+*
+* This program and the accompanying materials are made available under the
+* terms of the Eclipse Public License v. 2.0 which is available at
+* http://www.eclipse.org/legal/epl-2.0.
+*
+* SPDX-License-Identifier: EPL-2.0
+*
+* Contributors:
+*     IBM Corporation - initial API and implementation
+*******************************************************************************/
+package io.openliberty.tools.langserver.lemminx.services;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.function.DoubleSupplier;
+import java.util.function.LongSupplier;
+import java.util.logging.Logger;
+
+/**
+ * Decides when feature lists may be fetched from the network.
+ *
+ * Each key, ie. ol-22.0.0.6, backs off on its own: after n failures in a row its
+ * next fetch waits for the base delay times 2^(n-1), capped, with jitter so that
+ * the keys that failed together do not retry together. A success resets the key.
+ *
+ * A circuit breaker shared by all keys opens after repeated network failures, so
+ * that no fetch pays a connection timeout while the network is down. Once it has
+ * been open for a while, a single trial fetch is let through: if it reaches the
+ * network the breaker closes, otherwise it opens again for twice as long, capped
+ * so that the network is tried again soon after it is back.
+ */
+public class FetchBackoff {
+
+    private static final Logger LOGGER = Logger.getLogger(FetchBackoff.class.getName());
+
+    // network failures in a row, for any key, that open the circuit breaker
+    static final int FAILURE_THRESHOLD = 3;
+    static final long MIN_OPEN_TIME = TimeUnit.SECONDS.toMillis(10);
+    static final long MAX_OPEN_TIME = TimeUnit.MINUTES.toMillis(2);
+    static final long MAX_DELAY = TimeUnit.HOURS.toMillis(1);
+
+    private static final class KeyState {
+        private final int failures;
+        private final long nextAttempt;
+
+        KeyState(int failures, long nextAttempt) {
+            this.failures = failures;
+            this.nextAttempt = nextAttempt;
+        }
+    }
+
+    private final LongSupplier clock;
+    private final DoubleSupplier random;
+    private final Map<String, KeyState> keys = new ConcurrentHashMap<>();
+
+    // circuit breaker, guarded by this
+    private int networkFailures;
+    private int openCount;
+    private long openUntil;
+    private boolean trialInFlight;
+
+    public FetchBackoff() {
+        this(System::currentTimeMillis, () -> ThreadLocalRandom.current().nextDouble());
+    }
+
+    /**
+     * @param clock current time in milliseconds
+     * @param random values between 0 and 1 for the jitter
+     */
+    public FetchBackoff(LongSupplier clock, DoubleSupplier random) {
+        this.clock = clock;
+        this.random = random;
+    }
+
+    /**
+     * Returns whether the key may be fetched now. A caller that is allowed to fetch
+     * must report the outcome with onSuccess or onFailure.
+     */
+    public boolean tryAcquire(String key) {
+        long now = clock.getAsLong();
+        KeyState state = keys.get(key);
+        if (state != null && now < state.nextAttempt) {
+            return false;
+        }
+        synchronized (this) {
+            if (openCount == 0) {
+                return true;
+            }
+            if (now < openUntil || trialInFlight) {
+                return false;
+            }
+            // half open, only this fetch tries the network
+            trialInFlight = true;
+            return true;
+        }
+    }
+
+    /**
+     * Records that the key was fetched, which also shows that the network is reachable
+     */
+    public void onSuccess(String key) {
+        keys.remove(key);
+        closeCircuit();
+    }
+
+    /**
+     * Records that the key could not be fetched
+     *
+     * @param baseDelay delay in milliseconds before the key is fetched again after its first failure
+     * @param networkFailure true if the network could not be reached, false if it answered without the key
+     */
+    public void onFailure(String key, long baseDelay, boolean networkFailure) {
+        long now = clock.getAsLong();
+        KeyState state = keys.compute(key, (k, previous) -> {
+            int failures = previous != null ? previous.failures + 1 : 1;
+            return new KeyState(failures, now + jitter(backoff(baseDelay, failures, MAX_DELAY)));
+        });
+        LOGGER.fine("Fetching " + key + " failed " + state.failures + " times, next attempt in " + (state.nextAttempt - now) + " ms");
+
+        if (!networkFailure) {
+            closeCircuit();
+            return;
+        }
+        synchronized (this) {
+            networkFailures++;
+            if (trialInFlight || (openCount == 0 && networkFailures >= FAILURE_THRESHOLD)) {
+                trialInFlight = false;
+                openCount++;
+                long openTime = jitter(backoff(MIN_OPEN_TIME, openCount, MAX_OPEN_TIME));
+                openUntil = now + openTime;
+                LOGGER.warning("Unable to reach the network after " + networkFailures + " attempts, not fetching features for " + openTime + " ms");
+            }
+        }
+    }
+
+    /**
+     * Returns whether tryAcquire would refuse the key now, without letting a trial
+     * fetch through
+     */
+    public boolean isBackingOff(String key) {
+        long now = clock.getAsLong();
+        KeyState state = keys.get(key);
+        if (state != null && now < state.nextAttempt) {
+            return true;
+        }
+        synchronized (this) {
+            return openCount > 0 && (now < openUntil || trialInFlight);
+        }
+    }
+
+    /**
+     * @return true if fetches are currently skipped because the network is unreachable
+     */
+    public synchronized boolean isCircuitOpen() {
+        return openCount > 0;
+    }
+
+    /**
+     * @return the time in milliseconds until which the key is not fetched, 0 if it may be fetched
+     */
+    public long getNextAttempt(String key) {
+        KeyState state = keys.get(key);
+        return state != null ? state.nextAttempt : 0;
+    }
+
+    private synchronized void closeCircuit() {
+        if (openCount > 0) {
+            LOGGER.info("The network is reachable again, fetching features");
+        }
+        networkFailures = 0;
+        openCount = 0;
+        openUntil = 0;
+        trialInFlight = false;
+    }
+
+    // baseDelay * 2^(failures - 1), capped
+    private static long backoff(long baseDelay, int failures, long maxDelay) {
+        long delay = Math.max(baseDelay, 1);
+        for (int i = 1; i < failures && delay < maxDelay; i++) {
+            delay *= 2;
+        }
+        return Math.min(delay, maxDelay);
+    }
+
+    // between half and all of the delay
+    private long jitter(long delay) {
+        return delay / 2 + (long) (random.getAsDouble() * (delay - delay / 2));
+    }
+}
@@ -0,0 +1,207 @@
+/*******************************************************************************
+* Copyright (c) 2022 IBM Corporation and others.
+*
+* This program and the accompanying materials are made available under the
+* terms of the Eclipse Public License v. 2.0 which is available at
+* http://www.eclipse.org/legal/epl-2.0.
+*
+* SPDX-License-Identifier: EPL-2.0
+*
+* Contributors:
+*     IBM Corporation - initial API and implementation
+*******************************************************************************/
+package io.openliberty.tools.langserver.lemminx.services;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.logging.Logger;
+import java.util.stream.Stream;
+
+import org.eclipse.lemminx.utils.FilesUtils;
+
+/**
+ * Persists the feature lists generated for the Liberty runtimes installed in the
+ * workspaces, so that ws-featurelist.jar only runs again when the features of a
+ * runtime change. Stored lists are keyed by a fingerprint of the runtime: the
+ * names, sizes and modification times of its feature manifests. Workspaces that
+ * use the same runtime share the stored list, across language server sessions.
+ * The fingerprint of a runtime is computed once and kept until the runtime is
+ * invalidated, ie. when a change of its installation is seen.
+ *
+ * The store lives in the lemminx cache:
+ * ~/.lemminx/cache/liberty/installed/v1/featurelist-(fingerprint).xml
+ */
+public class InstalledFeatureListStore {
+
+    private static final Logger LOGGER = Logger.getLogger(InstalledFeatureListStore.class.getName());
+
+    private static final Path STORE_PATH = Paths.get("cache", "liberty", "installed", "v1");
+
+    // directories of a runtime that hold the manifests of its features
+    private static final Path[] FEATURE_DIRS = {
+        Paths.get("lib", "features"),
+        Paths.get("usr", "extension", "lib", "features")
+    };
+
+    private final Path storeDir;
+    // install directory|runtime-version -> fingerprint of the runtime
+    private final Map<String, String> fingerprints = new ConcurrentHashMap<>();
+
+    public InstalledFeatureListStore() {
+        this(null);
+    }
+
+    /**
+     * @param storeDir directory of the store, or null to use the lemminx cache
+     */
+    public InstalledFeatureListStore(Path storeDir) {
+        this.storeDir = storeDir;
+    }
+
+    /**
+     * Computes the fingerprint of a Liberty runtime from the files in its feature
+     * directories. Installing, removing or updating a feature changes the
+     * fingerprint.
+     *
+     * @param installDir wlp directory of the runtime
+     * @return hex encoded fingerprint, or null if the runtime has no feature directory
+     */
+    public static String fingerprint(Path installDir, String libertyRuntime, String libertyVersion) throws IOException {
+        List<String> entries = new ArrayList<>();
+        for (Path featureDir : FEATURE_DIRS) {
+            Path dir = installDir.resolve(featureDir);
+            if (!Files.isDirectory(dir)) {
+                continue;
+            }
+            try (Stream<Path> files = Files.walk(dir)) {
+                files.forEach(file -> {
+                    try {
+                        BasicFileAttributes attributes = Files.readAttributes(file, BasicFileAttributes.class);
+                        if (attributes.isRegularFile()) {
+                            entries.add(installDir.relativize(file).toString().replace('\\', '/') + "|" + attributes.size() + "|"
+                                    + attributes.lastModifiedTime().toMillis());
+                        }
+                    } catch (IOException e) {
+                        // the file was removed while walking, the next fingerprint will differ anyway
+                    }
+                });
+            }
+        }
+        if (entries.isEmpty()) {
+            return null;
+        }
+        // the walk order depends on the file system
+        Collections.sort(entries);
+
+        MessageDigest digest;
+        try {
+            digest = MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IOException(e);
+        }
+        digest.update((libertyRuntime + "-" + libertyVersion + "\n").getBytes(StandardCharsets.UTF_8));
+        for (String entry : entries) {
+            digest.update(entry.getBytes(StandardCharsets.UTF_8));
+            digest.update((byte) '\n');
+        }
+        StringBuilder fingerprint = new StringBuilder();
+        for (byte b : digest.digest()) {
+            fingerprint.append(Character.forDigit((b >> 4) & 0xF, 16)).append(Character.forDigit(b & 0xF, 16));
+        }
+        return fingerprint.toString();
+    }
+
+    /**
+     * Returns the fingerprint of a Liberty runtime, computed on the first call for
+     * the runtime and then kept until it is invalidated. Workspaces that use the
+     * same runtime share it.
+     *
+     * @param installDir wlp directory of the runtime
+     * @return hex encoded fingerprint, or null if the runtime has no feature directory
+     */
+    public String getFingerprint(Path installDir, String libertyRuntime, String libertyVersion) throws IOException {
+        String key = getFingerprintKey(installDir) + libertyRuntime + "-" + libertyVersion;
+        String fingerprint = fingerprints.get(key);
+        if (fingerprint == null) {
+            fingerprint = fingerprint(installDir, libertyRuntime, libertyVersion);
+            if (fingerprint != null) {
+                fingerprints.put(key, fingerprint);
+            }
+        }
+        return fingerprint;
+    }
+
+    /**
+     * Forgets the fingerprints of a Liberty runtime, so that the next call to
+     * getFingerprint walks its feature directories again
+     *
+     * @param installDir wlp directory of the runtime
+     */
+    public void invalidate(Path installDir) {
+        String prefix = getFingerprintKey(installDir);
+        fingerprints.keySet().removeIf(key -> key.startsWith(prefix));
+    }
+
+    private static String getFingerprintKey(Path installDir) {
+        return installDir.toAbsolutePath().normalize() + "|";
+    }
+
+    /**
+     * Returns the stored feature list of the runtime with the given fingerprint
+     *
+     * @return stored file, or null if no feature list was stored for the fingerprint
+     */
+    public Path read(String fingerprint) {
+        try {
+            Path file = getFeatureListFile(fingerprint);
+            return Files.isRegularFile(file) ? file : null;
+        } catch (IOException e) {
+            LOGGER.warning("Unable to read stored installed feature list " + fingerprint + ": " + e.getMessage());
+            return null;
+        }
+    }
+
+    /**
+     * Stores a generated feature list. The content is copied to a temporary file
+     * first and then moved in place so that readers never see a partial file.
+     *
+     * @return stored file, or null if the feature list could not be written
+     */
+    public Path write(String fingerprint, Path featureList) {
+        try {
+            Path file = getFeatureListFile(fingerprint);
+            Files.createDirectories(file.getParent());
+            Path tempFile = Files.createTempFile(file.getParent(), file.getFileName().toString(), ".tmp");
+            Files.copy(featureList, tempFile, StandardCopyOption.REPLACE_EXISTING);
+            Files.move(tempFile, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            LOGGER.fine("Stored installed feature list at: " + file);
+            return file;
+        } catch (IOException e) {
+            LOGGER.warning("Unable to store installed feature list " + fingerprint + ": " + e.getMessage());
+            return null;
+        }
+    }
+
+    private Path getFeatureListFile(String fingerprint) throws IOException {
+        if (fingerprint == null || !fingerprint.matches("[0-9a-f]+")) {
+            throw new IOException("Invalid runtime fingerprint: " + fingerprint);
+        }
+        return getStoreDir().resolve("featurelist-" + fingerprint + ".xml");
+    }
+
+    private Path getStoreDir() throws IOException {
+        return storeDir != null ? storeDir : FilesUtils.getDeployedPath(STORE_PATH);
+    }
+}
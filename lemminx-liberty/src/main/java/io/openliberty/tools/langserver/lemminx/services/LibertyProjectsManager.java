@@ -21,8 +21,11 @@ import java.nio.file.Paths;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.Collection;
+import java.util.Collections;
 import java.util.Map;
-import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.logging.Logger;
 import java.util.stream.Collectors;
 
@@ -36,19 +39,32 @@ public class LibertyProjectsManager {
 
     private static final LibertyProjectsManager INSTANCE = new LibertyProjectsManager();
 
-    private static final String URI_SEPARATOR = "/";
+    // documents kept in the cache of the workspace of each document, least recently used are evicted first
+    private static final int MAX_CACHED_DOCUMENTS = 4096;
 
-    private Map<String, LibertyWorkspace> libertyWorkspaceFolders;
+    // read by the language feature participants while the workspace folders are updated
+    private final Map<String, LibertyWorkspace> libertyWorkspaceFolders;
+    // longest prefix index of the workspaces, rebuilt when the workspaces change
+    private volatile WorkspaceFolderTrie workspaceFolderTrie;
+    // document URI -> its workspace, empty if it is not in a workspace, guarded by itself
+    private final Map<String, Optional<LibertyWorkspace>> documentWorkspaces;
 
     public static LibertyProjectsManager getInstance() {
         return INSTANCE;
     }
 
     private LibertyProjectsManager() {
-        libertyWorkspaceFolders = new HashMap<String,LibertyWorkspace>();
+        libertyWorkspaceFolders = new ConcurrentHashMap<String,LibertyWorkspace>();
+        workspaceFolderTrie = new WorkspaceFolderTrie(Collections.emptyList());
+        documentWorkspaces = new LinkedHashMap<String, Optional<LibertyWorkspace>>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, Optional<LibertyWorkspace>> eldest) {
+                return size() > MAX_CACHED_DOCUMENTS;
+            }
+        };
     }
 
-    public void setWorkspaceFolders(List<WorkspaceFolder> workspaceFolders) {
+    public synchronized void setWorkspaceFolders(List<WorkspaceFolder> workspaceFolders) {
         for (WorkspaceFolder folder : workspaceFolders) {
             // Add logic here to see if child folders are sub-modules in a multi-module project.
             // If child folder is a Liberty project (has src/main/liberty/config/server.xml),
@@ -116,6 +132,15 @@ public class LibertyProjectsManager {
                 }
             }
         }
+        updateWorkspaceFolderIndex();
+    }
+
+    private void updateWorkspaceFolderIndex() {
+        WorkspaceFolderTrie trie = new WorkspaceFolderTrie(new ArrayList<>(libertyWorkspaceFolders.values()));
+        synchronized (documentWorkspaces) {
+            workspaceFolderTrie = trie;
+            documentWorkspaces.clear();
+        }
     }
 
     public Collection<LibertyWorkspace> getLibertyWorkspaceFolders() {
@@ -127,53 +152,57 @@ public class LibertyProjectsManager {
     }
 
     /**
-     * Given a serverXML URI return the corresponding workspace folder URI
+     * Given a serverXML URI return the corresponding workspace folder URI. When
+     * workspaces are nested, ie. the modules of a multi-module project, the
+     * innermost workspace is returned.
      * 
      * @param serverXMLUri
      * @return
      */
     public LibertyWorkspace getWorkspaceFolder(String serverXMLUri) {
-        String normalizeUri = serverXMLUri.replace("///", "/");
-        for (LibertyWorkspace folder : getInstance().getLibertyWorkspaceFolders()) {
-            //Append workspaceDirUri with file separator to avoid bad matches
-            String workspaceDirUri = folder.getWorkspaceString();
-            if (workspaceDirUri != null && !workspaceDirUri.endsWith(URI_SEPARATOR)) {
-                workspaceDirUri = workspaceDirUri + URI_SEPARATOR;
+        WorkspaceFolderTrie trie;
+        synchronized (documentWorkspaces) {
+            Optional<LibertyWorkspace> cached = documentWorkspaces.get(serverXMLUri);
+            if (cached != null) {
+                return cached.orElse(null);
             }
+            trie = workspaceFolderTrie;
+        }
 
-            if (normalizeUri.contains(workspaceDirUri)) {
-                return folder;
+        String normalizeUri = serverXMLUri.replace("///", "/");
+        LibertyWorkspace folder = trie.find(normalizeUri);
+        if (folder == null) {
+            LOGGER.warning("Could not find LibertyWorkspace for file: " + serverXMLUri);
+        }
+        synchronized (documentWorkspaces) {
+            // the workspaces may have changed meanwhile, do not cache an answer from the old ones
+            if (trie == workspaceFolderTrie) {
+                documentWorkspaces.put(serverXMLUri, Optional.ofNullable(folder));
             }
         }
-        LOGGER.warning("Could not find LibertyWorkspace for file: " + serverXMLUri);
-        return null;
+        return folder;
     }
 
     public void cleanUpTempDirs() {
         for (LibertyWorkspace folder : getInstance().getLibertyWorkspaceFolders()) {
             // search for liberty ls directory
             URI workspaceFolderURI = folder.getWorkspaceURI();
-            try {
-                if (workspaceFolderURI != null) {
-                    Path rootPath = Paths.get(workspaceFolderURI);
-                    List<Path> matchingFiles = Files.walk(rootPath)
-                            .filter(p -> (Files.isDirectory(p) && p.getFileName().endsWith(".libertyls")))
-                            .collect(Collectors.toList());
-
-                    // delete each liberty ls directory
-                    for (Path libertylsDir : matchingFiles) {
-                        if (!libertylsDir.toFile().delete()) {
-                            LOGGER.warning("Could not delete " + libertylsDir);
-                        }
+            if (workspaceFolderURI != null) {
+                // delete each liberty ls directory
+                for (Path libertylsDir : folder.getFileIndex().findTempDirs()) {
+                    if (!libertylsDir.toFile().delete()) {
+                        LOGGER.warning("Could not delete " + libertylsDir);
                     }
                 }
-            } catch (IOException e) {
-                LOGGER.warning("Could not clean up /.libertyls directory: " + e.getMessage());
             }
         }
     }
 
-    public void cleanInstance() {
-        libertyWorkspaceFolders = new HashMap<String, LibertyWorkspace>();
+    public synchronized void cleanInstance() {
+        for (LibertyWorkspace folder : libertyWorkspaceFolders.values()) {
+            folder.close();
+        }
+        libertyWorkspaceFolders.clear();
+        updateWorkspaceFolderIndex();
     }
 }
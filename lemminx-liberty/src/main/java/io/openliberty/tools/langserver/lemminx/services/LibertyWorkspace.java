@@ -15,25 +15,18 @@ package io.openliberty.tools.langserver.lemminx.services;
 import java.io.File;
 import java.io.IOException;
 import java.net.URI;
+import java.nio.file.FileSystemNotFoundException;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.Paths;
-import java.util.ArrayList;
 import java.util.HashSet;
-import java.util.List;
 import java.util.logging.Logger;
 import java.util.Set;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
-import java.util.stream.Collectors;
 
-import javax.xml.bind.JAXBContext;
-import javax.xml.bind.JAXBException;
-import javax.xml.bind.Unmarshaller;
-
-import io.openliberty.tools.langserver.lemminx.models.feature.Feature;
 import io.openliberty.tools.langserver.lemminx.models.settings.DevcMetadata;
-import io.openliberty.tools.langserver.lemminx.util.LibertyUtils;
+import io.openliberty.tools.langserver.lemminx.util.LibertyConstants;
 
 public class LibertyWorkspace {
 
@@ -43,8 +36,13 @@ public class LibertyWorkspace {
     private String libertyVersion;
     private String libertyRuntime;
     private boolean isLibertyInstalled;
-    private List<Feature> installedFeatureList;
+    // set by the background feature loads
+    private volatile FeatureCatalog installedFeatureCatalog;
+    // set when the Liberty installation may have changed, the installed features are checked again
+    private volatile boolean installedFeaturesChanged;
     private Set<String> configFiles;
+    // files of the workspace that are looked up, ie. openliberty.properties
+    private final WorkspaceFileIndex fileIndex;
 
     // devc vars
     private String containerName;
@@ -62,11 +60,12 @@ public class LibertyWorkspace {
         this.libertyVersion = null;
         this.libertyRuntime = null;
         this.isLibertyInstalled = false;
-        this.installedFeatureList = new ArrayList<Feature>();
+        this.installedFeatureCatalog = null;
         this.containerName = null;
         this.containerAlive = false;
 
         this.configFiles = new HashSet<String>();
+        this.fileIndex = new WorkspaceFileIndex(getRootPath());
         initConfigFileList();
     }
 
@@ -82,6 +81,30 @@ public class LibertyWorkspace {
         return new File(URI.create(getWorkspaceString()).getPath());
     }
 
+    /**
+     * Returns the index of the files of this workspace that are looked up
+     */
+    public WorkspaceFileIndex getFileIndex() {
+        return fileIndex;
+    }
+
+    /**
+     * Stops watching the files of this workspace
+     */
+    public void close() {
+        fileIndex.close();
+        WorkspaceWatcher.getInstance().cancel(this);
+    }
+
+    private Path getRootPath() {
+        try {
+            return Paths.get(getWorkspaceURI());
+        } catch (IllegalArgumentException | FileSystemNotFoundException e) {
+            LOGGER.warning("Workspace URI is not a directory: " + e.getMessage());
+            return null;
+        }
+    }
+
     public void setLibertyVersion(String libertyVersion) {
         this.libertyVersion = libertyVersion;
     }
@@ -106,12 +129,28 @@ public class LibertyWorkspace {
         return this.isLibertyInstalled;
     }
 
-    public List<Feature> getInstalledFeatureList() {
-        return this.installedFeatureList;
+    /**
+     * Returns the catalog of features generated from the Liberty installation,
+     * or null if it has not been generated yet
+     */
+    public FeatureCatalog getInstalledFeatureCatalog() {
+        return this.installedFeatureCatalog;
     }
 
-    public void setInstalledFeatureList(List<Feature> installedFeatureList) {
-        this.installedFeatureList = installedFeatureList;
+    public void setInstalledFeatureCatalog(FeatureCatalog installedFeatureCatalog) {
+        this.installedFeatureCatalog = installedFeatureCatalog;
+    }
+
+    /**
+     * Returns true if the Liberty installation may have changed since the
+     * installed feature catalog was generated
+     */
+    public boolean isInstalledFeaturesChanged() {
+        return this.installedFeaturesChanged;
+    }
+
+    public void setInstalledFeaturesChanged(boolean installedFeaturesChanged) {
+        this.installedFeaturesChanged = installedFeaturesChanged;
     }
 
     public String getContainerName() {
@@ -136,26 +175,16 @@ public class LibertyWorkspace {
      * @return Path of *-liberty-devc-metadata.xml
      */
     public Path findDevcMetadata() {
-        try {
-            List<Path> metaDataList = Files
-                    .find(Paths.get(getWorkspaceURI()), Integer.MAX_VALUE,
-                            (filePath, fileAttributes) -> filePath.toString().endsWith("-liberty-devc-metadata.xml"))
-                    .collect(Collectors.toList());
-            for (Path metaDataFile : metaDataList) {
-                DevcMetadata devcMetadata = unmarshalDevcMetadataFile(metaDataFile);
-                if (devcMetadata.isContainerAlive()) {
-                    setContainerName(devcMetadata.getContainerName());
-                    setContainerAlive(true);
-                    return metaDataFile;
-                }
+        for (Path metaDataFile : fileIndex.findDevcMetadataFiles()) {
+            DevcMetadata devcMetadata = unmarshalDevcMetadataFile(metaDataFile);
+            if (devcMetadata != null && devcMetadata.isContainerAlive()) {
+                setContainerName(devcMetadata.getContainerName());
+                setContainerAlive(true);
+                return metaDataFile;
             }
-            setContainerAlive(false);
-            return null;
-        } catch (IOException e) {
-            // workspace URI does not exist
-            LOGGER.warning("Workspace URI does not exist: " + e.getMessage());
-            return null;
         }
+        setContainerAlive(false);
+        return null;
     }
 
     /**
@@ -165,27 +194,16 @@ public class LibertyWorkspace {
      */
     public static DevcMetadata unmarshalDevcMetadataFile(Path devcMetadataFile) {
         try {
-            JAXBContext jaxbContext = JAXBContext.newInstance(DevcMetadata.class);
-            Unmarshaller jaxbUnmarshaller = jaxbContext.createUnmarshaller();
-            return (DevcMetadata)jaxbUnmarshaller.unmarshal(devcMetadataFile.toFile());
-        } catch (JAXBException e) {
+            return DevcMetadataReader.readDevcMetadata(devcMetadataFile);
+        } catch (IOException e) {
             // LOGGER.warning("Unable to unmarshal the devc metadata file: " + devcMetadataFile.toString());
             return null;
         }
     }
 
     private void initConfigFileList() {
-        try {
-            List<Path> serverXmlList = Files
-                    .find(Paths.get(getWorkspaceURI()), Integer.MAX_VALUE,
-                            (filePath, fileAttributes) -> LibertyUtils.isServerXMLFile(filePath.toString()))
-                    .collect(Collectors.toList());
-            for (Path serverXml : serverXmlList) {
-                scanForConfigLocations(serverXml);
-            }
-        } catch (IOException e) {
-            // workspace URI does not exist
-            LOGGER.warning("Workspace URI does not exist: " + e.getMessage());
+        for (Path serverXml : fileIndex.findFiles(LibertyConstants.SERVER_XML)) {
+            scanForConfigLocations(serverXml);
         }
     }
 
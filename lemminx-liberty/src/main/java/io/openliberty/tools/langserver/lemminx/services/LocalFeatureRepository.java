@@ -0,0 +1,169 @@
+/*******************************************************************************
+* Copyright (c) 2022 IBM Corporation and others.
+*
+* This program and the accompanying materials are made available under the
+* terms of the Eclipse Public License v. 2.0 which is available at
+* http://www.eclipse.org/legal/epl-2.0.
+*
+* SPDX-License-Identifier: EPL-2.0
+*
+* Contributors:
+*     IBM Corporation - initial API and implementation
+*******************************************************************************/
+package io.openliberty.tools.langserver.lemminx.services;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.InvalidPathException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.logging.Logger;
+
+import javax.xml.stream.XMLStreamConstants;
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamReader;
+
+import io.openliberty.tools.langserver.lemminx.models.feature.Feature;
+import io.openliberty.tools.langserver.lemminx.util.LibertyConstants;
+import io.openliberty.tools.langserver.lemminx.util.StaxUtils;
+
+/**
+ * Finds the feature lists of Liberty versions in local Maven repositories, so
+ * that the exact catalog of a version is available without the network. The
+ * repositories are searched in order:
+ * - the directory of the featureMirrorDir setting, in the Maven repository layout
+ * - the local Maven repository, where liberty-maven-plugin resolves the feature lists:
+ *   -Dmaven.repo.local, the localRepository of ~/.m2/settings.xml, or ~/.m2/repository
+ *
+ * Released feature lists never change, so a local copy is exact.
+ */
+public class LocalFeatureRepository implements FeatureCatalogSource {
+
+    private static final Logger LOGGER = Logger.getLogger(LocalFeatureRepository.class.getName());
+
+    // null to search the repositories from the settings
+    private final List<Path> repositoryDirs;
+    private volatile Path localMavenRepository;
+
+    public LocalFeatureRepository() {
+        this(null);
+    }
+
+    /**
+     * @param repositoryDirs repositories to search, or null to use the settings and the local Maven repository
+     */
+    public LocalFeatureRepository(List<Path> repositoryDirs) {
+        this.repositoryDirs = repositoryDirs;
+    }
+
+    @Override
+    public String getName() {
+        return "local Maven repository";
+    }
+
+    @Override
+    public int getPriority() {
+        return LOCAL_REPOSITORY_PRIORITY;
+    }
+
+    @Override
+    public boolean isLocal() {
+        return true;
+    }
+
+    @Override
+    public List<Feature> loadFeatures(String libertyRuntime, String libertyVersion) throws IOException {
+        Path featureList = find(libertyRuntime, libertyVersion);
+        return featureList != null ? FeatureListReader.readPublicFeatures(featureList) : null;
+    }
+
+    /**
+     * Returns the feature list of a Liberty version from the first repository that has it
+     *
+     * @return features-(version).json file, or null if no local repository has it
+     */
+    public Path find(String libertyRuntime, String libertyVersion) {
+        // the version may come from the settings, do not let it escape the repository
+        if (libertyVersion == null || !libertyVersion.matches("[A-Za-z0-9._-]+") || libertyVersion.contains("..")) {
+            return null;
+        }
+        String featuresPath = String.format("wlp".equals(libertyRuntime) ? LibertyConstants.WLP_FEATURE_LIST_PATH : LibertyConstants.OL_FEATURE_LIST_PATH, libertyVersion);
+        for (Path repositoryDir : getRepositoryDirs()) {
+            Path featureList = repositoryDir.resolve(featuresPath);
+            if (Files.isRegularFile(featureList)) {
+                LOGGER.fine("Found features for " + libertyRuntime + "-" + libertyVersion + " in local repository: " + featureList);
+                return featureList;
+            }
+        }
+        return null;
+    }
+
+    private List<Path> getRepositoryDirs() {
+        if (repositoryDirs != null) {
+            return repositoryDirs;
+        }
+        List<Path> dirs = new ArrayList<>(2);
+        String mirrorDir = SettingsService.getInstance().getFeatureMirrorDir();
+        if (mirrorDir != null && !mirrorDir.trim().isEmpty()) {
+            try {
+                dirs.add(Paths.get(mirrorDir.trim()));
+            } catch (InvalidPathException e) {
+                LOGGER.warning("Ignoring invalid feature mirror directory " + mirrorDir + ": " + e.getMessage());
+            }
+        }
+        Path mavenRepository = localMavenRepository;
+        if (mavenRepository == null) {
+            mavenRepository = findLocalMavenRepository();
+            localMavenRepository = mavenRepository;
+        }
+        dirs.add(mavenRepository);
+        return dirs;
+    }
+
+    /**
+     * Returns the local Maven repository the same way Maven resolves it
+     */
+    static Path findLocalMavenRepository() {
+        Path userHome = Paths.get(System.getProperty("user.home"));
+        String localRepository = System.getProperty("maven.repo.local");
+        if (localRepository == null) {
+            localRepository = readLocalRepository(userHome.resolve(".m2").resolve("settings.xml"));
+        }
+        if (localRepository != null && !localRepository.trim().isEmpty()) {
+            try {
+                return Paths.get(localRepository.trim().replace("${user.home}", userHome.toString()));
+            } catch (InvalidPathException e) {
+                LOGGER.warning("Ignoring invalid local Maven repository " + localRepository + ": " + e.getMessage());
+            }
+        }
+        return userHome.resolve(".m2").resolve("repository");
+    }
+
+    /**
+     * @return localRepository of a Maven settings file, or null if it does not set one
+     */
+    public static String readLocalRepository(Path settingsFile) {
+        if (!Files.isRegularFile(settingsFile)) {
+            return null;
+        }
+        XMLStreamReader reader = null;
+        try (InputStream is = Files.newInputStream(settingsFile)) {
+            reader = StaxUtils.createReader(is);
+            reader.nextTag();
+            while (reader.nextTag() == XMLStreamConstants.START_ELEMENT) {
+                if ("localRepository".equals(reader.getLocalName())) {
+                    return reader.getElementText();
+                }
+                StaxUtils.skipElement(reader);
+            }
+        } catch (IOException | XMLStreamException e) {
+            LOGGER.fine("Unable to read the Maven settings " + settingsFile + ": " + e.getMessage());
+        } finally {
+            StaxUtils.closeReader(reader);
+        }
+        return null;
+    }
+}
@@ -0,0 +1,306 @@
+/*******************************************************************************
+* Copyright (c) 2022 IBM Corporation and others.
+*
+* This program and the accompanying materials are made available under the
+* terms of the Eclipse Public License v. 2.0 which is available at
+* http://www.eclipse.org/legal/epl-2.0.
+*
+* SPDX-License-Identifier: EPL-2.0
+*
+* Contributors:
+*     IBM Corporation - initial API and implementation
+*******************************************************************************/
+package io.openliberty.tools.langserver.lemminx.services;
+
+import java.io.ByteArrayOutputStream;
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.InterruptedIOException;
+import java.io.OutputStream;
+import java.io.Reader;
+import java.net.HttpURLConnection;
+import java.net.ProxySelector;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.logging.Logger;
+import java.util.zip.GZIPInputStream;
+
+import javax.xml.stream.XMLStreamConstants;
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamReader;
+
+import io.openliberty.tools.langserver.lemminx.models.feature.Feature;
+import io.openliberty.tools.langserver.lemminx.util.LibertyConstants;
+import io.openliberty.tools.langserver.lemminx.util.StaxUtils;
+
+/**
+ * Downloads the feature lists from Maven Central, or from the Maven repository of
+ * the featureRepositoryUrl setting. Downloaded feature lists are persisted in the
+ * feature store, and once a feature list is stored the request is conditional:
+ * the stored copy is used when Maven reports that it has not been modified.
+ *
+ * All downloads share one HttpClient, which reuses its connections, prefers
+ * HTTP/2, uses the default proxy selector (ie. -Dhttps.proxyHost) and asks for
+ * gzip. The response is parsed while it is downloaded.
+ */
+public class MavenCentralFeatureSource implements FeatureCatalogSource {
+
+    private static final Logger LOGGER = Logger.getLogger(MavenCentralFeatureSource.class.getName());
+
+    public static final String MAVEN_CENTRAL_URL = "https://repo1.maven.org/maven2/";
+
+    static final Duration CONNECT_TIMEOUT = Duration.ofSeconds(10);
+    static final Duration REQUEST_TIMEOUT = Duration.ofSeconds(30);
+
+    private static final HttpClient HTTP_CLIENT = HttpClient.newBuilder()
+            .version(HttpClient.Version.HTTP_2)
+            .connectTimeout(CONNECT_TIMEOUT)
+            .followRedirects(HttpClient.Redirect.NORMAL)
+            .proxy(ProxySelector.getDefault())
+            .build();
+
+    private final FeatureCatalogStore featureStore;
+    // null to use the featureRepositoryUrl setting
+    private final String repositoryUrl;
+
+    public MavenCentralFeatureSource(FeatureCatalogStore featureStore) {
+        this(featureStore, null);
+    }
+
+    /**
+     * @param repositoryUrl URL of the Maven repository, or null to use the settings
+     */
+    public MavenCentralFeatureSource(FeatureCatalogStore featureStore, String repositoryUrl) {
+        this.featureStore = featureStore;
+        this.repositoryUrl = repositoryUrl;
+    }
+
+    @Override
+    public String getName() {
+        return "Maven Central";
+    }
+
+    @Override
+    public int getPriority() {
+        return MAVEN_CENTRAL_PRIORITY;
+    }
+
+    @Override
+    public long getTimeout() {
+        return CONNECT_TIMEOUT.plus(REQUEST_TIMEOUT).toMillis();
+    }
+
+    /**
+     * Fetches information about Liberty features from Maven repo. If the feature
+     * list was downloaded before, the request is conditional and the stored copy
+     * is used when Maven reports that it has not been modified.
+     *
+     * @param libertyVersion - version of Liberty to fetch features for
+     * @return list of features supported by the provided version of Liberty, or null if Maven does not have it
+     */
+    @Override
+    public List<Feature> loadFeatures(String libertyRuntime, String libertyVersion) throws IOException {
+        // the version may come from the settings, do not let it change the path of the request
+        if (libertyVersion == null || !libertyVersion.matches("[A-Za-z0-9._-]+") || libertyVersion.contains("..")) {
+            return null;
+        }
+        FeatureCatalogStore.Entry storedEntry = featureStore.read(libertyRuntime, libertyVersion);
+        URI featureEndpoint = getFeatureListUri(libertyRuntime, libertyVersion);
+
+        HttpRequest.Builder request = HttpRequest.newBuilder(featureEndpoint)
+                .timeout(REQUEST_TIMEOUT)
+                .header("Accept-Encoding", "gzip");
+        if (storedEntry != null) {
+            if (storedEntry.getEtag() != null) {
+                request.header("If-None-Match", storedEntry.getEtag());
+            }
+            if (storedEntry.getLastModified() != null) {
+                request.header("If-Modified-Since", storedEntry.getLastModified());
+            }
+        }
+
+        HttpResponse<InputStream> response;
+        try {
+            response = HTTP_CLIENT.send(request.GET().build(), HttpResponse.BodyHandlers.ofInputStream());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("Interrupted while fetching " + featureEndpoint);
+        }
+
+        try (InputStream body = response.body()) {
+            int responseCode = response.statusCode();
+            if (responseCode == HttpURLConnection.HTTP_NOT_MODIFIED && storedEntry != null) {
+                LOGGER.fine("Stored features are up to date with Maven: " + storedEntry.getFile());
+                return FeatureListReader.readPublicFeatures(featureStore.markValidated(storedEntry).getFile());
+            }
+            if (responseCode == HttpURLConnection.HTTP_NOT_FOUND) {
+                // not a released version
+                return null;
+            }
+            if (responseCode != HttpURLConnection.HTTP_OK) {
+                throw new IOException("Unexpected response code " + responseCode + " from " + featureEndpoint);
+            }
+
+            InputStream content = body;
+            if ("gzip".equalsIgnoreCase(response.headers().firstValue("Content-Encoding").orElse(null))) {
+                content = new GZIPInputStream(content);
+            }
+            // keep a copy of what the parser reads for the feature store
+            ByteArrayOutputStream copy = new ByteArrayOutputStream();
+            CopyingInputStream copyingContent = new CopyingInputStream(content, copy);
+
+            // Only need the public features
+            ArrayList<Feature> publicFeatures;
+            try (Reader reader = new InputStreamReader(copyingContent, StandardCharsets.UTF_8)) {
+                publicFeatures = FeatureListReader.readPublicFeatures(reader);
+                // the parser stops at the end of the list
+                copyingContent.transferTo(OutputStream.nullOutputStream());
+            }
+
+            // only persist feature lists that could be read
+            featureStore.write(libertyRuntime, libertyVersion, copy.toByteArray(),
+                    response.headers().firstValue("ETag").orElse(null), response.headers().firstValue("Last-Modified").orElse(null));
+
+            LOGGER.fine("Returning public features from Maven: " + publicFeatures.size());
+            return publicFeatures;
+        }
+    }
+
+    /**
+     * Returns the released versions of the feature lists, from the maven-metadata.xml
+     * of the features artifact
+     *
+     * @return versions in the order of the metadata, oldest first
+     */
+    public List<String> loadVersions(String libertyRuntime) throws IOException {
+        URI metadataEndpoint = getRepositoryUri("wlp".equals(libertyRuntime) ? LibertyConstants.WLP_FEATURE_LIST_METADATA_PATH : LibertyConstants.OL_FEATURE_LIST_METADATA_PATH);
+        HttpRequest request = HttpRequest.newBuilder(metadataEndpoint)
+                .timeout(REQUEST_TIMEOUT)
+                .header("Accept-Encoding", "gzip")
+                .GET()
+                .build();
+
+        HttpResponse<InputStream> response;
+        try {
+            response = HTTP_CLIENT.send(request, HttpResponse.BodyHandlers.ofInputStream());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("Interrupted while fetching " + metadataEndpoint);
+        }
+
+        try (InputStream body = response.body()) {
+            if (response.statusCode() != HttpURLConnection.HTTP_OK) {
+                throw new IOException("Unexpected response code " + response.statusCode() + " from " + metadataEndpoint);
+            }
+            InputStream content = body;
+            if ("gzip".equalsIgnoreCase(response.headers().firstValue("Content-Encoding").orElse(null))) {
+                content = new GZIPInputStream(content);
+            }
+            return readVersions(content);
+        }
+    }
+
+    /**
+     * Returns the versions of a maven-metadata.xml:
+     * <metadata><versioning><versions><version>22.0.0.6</version>...
+     */
+    static List<String> readVersions(InputStream metadata) throws IOException {
+        List<String> versions = new ArrayList<>();
+        XMLStreamReader reader = null;
+        try {
+            reader = StaxUtils.createReader(metadata);
+            reader.nextTag();
+            while (reader.nextTag() == XMLStreamConstants.START_ELEMENT) {
+                if (!"versioning".equals(reader.getLocalName())) {
+                    StaxUtils.skipElement(reader);
+                    continue;
+                }
+                while (reader.nextTag() == XMLStreamConstants.START_ELEMENT) {
+                    if (!"versions".equals(reader.getLocalName())) {
+                        StaxUtils.skipElement(reader);
+                        continue;
+                    }
+                    while (reader.nextTag() == XMLStreamConstants.START_ELEMENT) {
+                        if ("version".equals(reader.getLocalName())) {
+                            versions.add(reader.getElementText().trim());
+                        } else {
+                            StaxUtils.skipElement(reader);
+                        }
+                    }
+                }
+            }
+        } catch (XMLStreamException e) {
+            throw new IOException("Unable to read Maven metadata: " + e.getMessage(), e);
+        } finally {
+            StaxUtils.closeReader(reader);
+        }
+        return versions;
+    }
+
+    private URI getFeatureListUri(String libertyRuntime, String libertyVersion) throws IOException {
+        return getRepositoryUri(String.format("wlp".equals(libertyRuntime) ? LibertyConstants.WLP_FEATURE_LIST_PATH : LibertyConstants.OL_FEATURE_LIST_PATH, libertyVersion));
+    }
+
+    private URI getRepositoryUri(String path) throws IOException {
+        String baseUrl = repositoryUrl != null ? repositoryUrl : SettingsService.getInstance().getFeatureRepositoryUrl();
+        if (baseUrl == null || baseUrl.trim().isEmpty()) {
+            baseUrl = MAVEN_CENTRAL_URL;
+        }
+        baseUrl = baseUrl.trim();
+        if (!baseUrl.endsWith("/")) {
+            baseUrl += "/";
+        }
+        try {
+            return URI.create(baseUrl).resolve(path);
+        } catch (IllegalArgumentException e) {
+            throw new IOException("Invalid feature repository URL " + baseUrl + ": " + e.getMessage(), e);
+        }
+    }
+
+    /**
+     * Copies the bytes that are read to an output stream
+     */
+    private static class CopyingInputStream extends FilterInputStream {
+        private final OutputStream copy;
+
+        CopyingInputStream(InputStream in, OutputStream copy) {
+            super(in);
+            this.copy = copy;
+        }
+
+        @Override
+        public int read() throws IOException {
+            int b = super.read();
+            if (b >= 0) {
+                copy.write(b);
+            }
+            return b;
+        }
+
+        @Override
+        public int read(byte[] b, int off, int len) throws IOException {
+            int read = super.read(b, off, len);
+            if (read > 0) {
+                copy.write(b, off, read);
+            }
+            return read;
+        }
+
+        @Override
+        public long skip(long n) throws IOException {
+            // skipped bytes would be missing from the copy
+            if (n <= 0) {
+                return 0;
+            }
+            return Math.max(0, read(new byte[(int) Math.min(n, 8192)]));
+        }
+    }
+}
@@ -29,6 +29,9 @@ public class SettingsService {
   // default request delay is 120 seconds
   private static int DEFAULT_REQUEST_DELAY = 120;
 
+  // default feature cache size is 64 megabytes
+  private static int DEFAULT_FEATURE_CACHE_SIZE = 64;
+
   private SettingsService() {
   }
 
@@ -64,4 +67,43 @@ public class SettingsService {
     return DEFAULT_REQUEST_DELAY;
   }
 
+  public int getFeatureCacheSize() {
+    if (settings != null) {
+      int featureCacheSize = settings.getFeatureCacheSize();
+      if (featureCacheSize > 0) {
+        return featureCacheSize;
+      }
+    }
+
+    return DEFAULT_FEATURE_CACHE_SIZE;
+  }
+
+  /**
+   * @return directory with feature lists in the Maven repository layout, or null
+   */
+  public String getFeatureMirrorDir() {
+    return settings != null ? settings.getFeatureMirrorDir() : null;
+  }
+
+  /**
+   * @return URL of the Maven repository to download feature lists from, or null for Maven Central
+   */
+  public String getFeatureRepositoryUrl() {
+    return settings != null ? settings.getFeatureRepositoryUrl() : null;
+  }
+
+  /**
+   * @return Liberty version that the configured features are checked against for an upgrade, or null
+   */
+  public String getUpgradeVersion() {
+    return settings != null ? settings.getUpgradeVersion() : null;
+  }
+
+  /**
+   * @return true if feature lists must not be fetched from the network
+   */
+  public boolean isOffline() {
+    return settings != null && settings.isOffline();
+  }
+
 }
@@ -0,0 +1,337 @@
+/*******************************************************************************
+* Copyright (c) 2022 IBM Corporation and others.
+*
+* This program and the accompanying materials are made available under the
+* terms of the Eclipse Public License v. 2.0 which is available at
+* http://www.eclipse.org/legal/epl-2.0.
+*
+* SPDX-License-Identifier: EPL-2.0
+*
+* Contributors:
+*     IBM Corporation - initial API and implementation
+*******************************************************************************/
+package io.openliberty.tools.langserver.lemminx.services;
+
+import java.io.IOException;
+import java.nio.file.DirectoryStream;
+import java.nio.file.FileVisitResult;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.SimpleFileVisitor;
+import java.nio.file.StandardWatchEventKinds;
+import java.nio.file.WatchEvent;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.logging.Logger;
+
+import io.openliberty.tools.langserver.lemminx.util.LibertyConstants;
+
+/**
+ * Index of the files of a Liberty workspace that the language server looks up,
+ * ie. openliberty.properties, ws-schemagen.jar, *-liberty-devc-metadata.xml,
+ * liberty-plugin-config.xml and server.xml, by file name.
+ *
+ * The workspace is walked once, skipping directories that never contain them
+ * (.git, node_modules, Liberty workareas), and the index is then kept current
+ * with the WorkspaceWatcher shared by all workspaces. Liberty runtimes are not
+ * walked or watched, they hold thousands of directories: the files that are
+ * looked up in a runtime are at fixed locations and are checked on each lookup.
+ * If a directory cannot be watched, the workspace is walked on every lookup
+ * from then on, and if events were lost it is walked again on the next lookup.
+ */
+public final class WorkspaceFileIndex {
+
+    private static final Logger LOGGER = Logger.getLogger(WorkspaceFileIndex.class.getName());
+
+    public static final String DEVC_METADATA_SUFFIX = "-liberty-devc-metadata.xml";
+    public static final String LIBERTYLS_DIR = ".libertyls";
+    // key of the Liberty runtime directories of the workspace
+    private static final String RUNTIME_DIR = "wlp";
+    private static final Path RUNTIME_VERSIONS_DIR = Paths.get("lib", "versions");
+    private static final Path RUNTIME_SERVERS_DIR = Paths.get("usr", "servers");
+
+    // file names that are indexed
+    private static final Set<String> INDEXED_NAMES = new HashSet<>(Arrays.asList(
+            LibertyConstants.SERVER_XML, "openliberty.properties", "WebSphereApplicationServer.properties",
+            "ws-schemagen.jar", "ws-featurelist.jar", "liberty-plugin-config.xml"));
+    // indexed file name -> directory of a runtime that holds it
+    private static final Map<String, Path> RUNTIME_FILE_DIRS = new HashMap<>();
+    static {
+        RUNTIME_FILE_DIRS.put("openliberty.properties", RUNTIME_VERSIONS_DIR);
+        RUNTIME_FILE_DIRS.put("WebSphereApplicationServer.properties", RUNTIME_VERSIONS_DIR);
+        RUNTIME_FILE_DIRS.put("ws-schemagen.jar", Paths.get("bin", "tools"));
+        RUNTIME_FILE_DIRS.put("ws-featurelist.jar", Paths.get("bin", "tools"));
+    }
+    // directories that are not searched
+    private static final Set<String> SKIPPED_DIRECTORIES = new HashSet<>(Arrays.asList(
+            ".git", ".svn", ".hg", "node_modules", ".gradle", "workarea"));
+
+    private final Path root;
+    private final WorkspaceWatcher.Listener listener = this::onEvent;
+    // indexed name, DEVC_METADATA_SUFFIX, LIBERTYLS_DIR or RUNTIME_DIR -> matching paths,
+    // replaced as a whole on every change so that lookups never see a partial update
+    private volatile Map<String, Set<Path>> entries = Collections.emptyMap();
+    private volatile boolean valid;
+    // false once a directory could not be watched
+    private volatile boolean watchable = true;
+    private volatile boolean closed;
+
+    /**
+     * @param root workspace directory, or null if the workspace is not a directory
+     */
+    public WorkspaceFileIndex(Path root) {
+        this.root = root;
+    }
+
+    /**
+     * @return true if lookups of the file name are answered by the index
+     */
+    public static boolean isIndexed(String fileName) {
+        return INDEXED_NAMES.contains(fileName);
+    }
+
+    /**
+     * Returns the files of the workspace with an indexed name
+     *
+     * @param fileName file name for which isIndexed is true, ie. openliberty.properties
+     */
+    public List<Path> findFiles(String fileName) {
+        return getEntries(fileName);
+    }
+
+    /**
+     * Returns the *-liberty-devc-metadata.xml files of the workspace
+     */
+    public List<Path> findDevcMetadataFiles() {
+        return getEntries(DEVC_METADATA_SUFFIX);
+    }
+
+    /**
+     * Returns the .libertyls directories of the workspace
+     */
+    public List<Path> findTempDirs() {
+        return getEntries(LIBERTYLS_DIR);
+    }
+
+    /**
+     * Stops watching the workspace
+     */
+    public synchronized void close() {
+        closed = true;
+        WorkspaceWatcher.getInstance().cancel(this);
+        entries = Collections.emptyMap();
+    }
+
+    private List<Path> getEntries(String key) {
+        if (!valid) {
+            build();
+        }
+        Map<String, Set<Path>> snapshot = entries;
+        List<Path> paths = new ArrayList<>(snapshot.getOrDefault(key, Collections.emptySet()));
+        for (Path runtimeDir : snapshot.getOrDefault(RUNTIME_DIR, Collections.emptySet())) {
+            addRuntimeFiles(runtimeDir, key, paths);
+        }
+        return paths;
+    }
+
+    /**
+     * Adds the files of a runtime with the indexed name, they are looked up at
+     * their location in the runtime as the runtime is not watched
+     */
+    private static void addRuntimeFiles(Path runtimeDir, String key, List<Path> paths) {
+        Path fileDir = RUNTIME_FILE_DIRS.get(key);
+        if (fileDir != null) {
+            Path file = runtimeDir.resolve(fileDir).resolve(key);
+            if (Files.isRegularFile(file)) {
+                paths.add(file);
+            }
+        } else if (LibertyConstants.SERVER_XML.equals(key)) {
+            Path serversDir = runtimeDir.resolve(RUNTIME_SERVERS_DIR);
+            if (!Files.isDirectory(serversDir)) {
+                return;
+            }
+            try (DirectoryStream<Path> servers = Files.newDirectoryStream(serversDir)) {
+                for (Path server : servers) {
+                    Path serverXml = server.resolve(LibertyConstants.SERVER_XML);
+                    if (Files.isRegularFile(serverXml)) {
+                        paths.add(serverXml);
+                    }
+                }
+            } catch (IOException e) {
+                LOGGER.fine("Unable to list the servers of the runtime at " + runtimeDir + ": " + e.getMessage());
+            }
+        }
+    }
+
+    private synchronized void build() {
+        if (valid || root == null) {
+            return;
+        }
+        WorkspaceWatcher.getInstance().cancel(this);
+        if (!Files.isDirectory(root)) {
+            // the workspace may be created later, search again on the next lookup
+            LOGGER.warning("Workspace URI does not exist: " + root);
+            entries = Collections.emptyMap();
+            return;
+        }
+        Map<String, Set<Path>> indexed = new HashMap<>();
+        boolean watched = index(root, indexed);
+        entries = freeze(indexed);
+        // if the workspace cannot be watched, it is walked again on the next lookup
+        valid = watched;
+        LOGGER.fine("Indexed workspace " + root + (valid ? "" : ", not watched"));
+    }
+
+    /**
+     * Adds the files of a directory and its sub-directories, and watches them
+     *
+     * @return true if all the directories are watched
+     */
+    private boolean index(Path dir, Map<String, Set<Path>> indexed) {
+        try {
+            Files.walkFileTree(dir, new SimpleFileVisitor<Path>() {
+                @Override
+                public FileVisitResult preVisitDirectory(Path directory, BasicFileAttributes attrs) {
+                    String name = directory.getFileName() != null ? directory.getFileName().toString() : "";
+                    if (!directory.equals(root)) {
+                        if (SKIPPED_DIRECTORIES.contains(name)) {
+                            return FileVisitResult.SKIP_SUBTREE;
+                        }
+                        if (LIBERTYLS_DIR.equals(name)) {
+                            add(indexed, LIBERTYLS_DIR, directory);
+                            return FileVisitResult.SKIP_SUBTREE;
+                        }
+                        if (isRuntimeDir(directory, name)) {
+                            add(indexed, RUNTIME_DIR, directory);
+                            return FileVisitResult.SKIP_SUBTREE;
+                        }
+                    }
+                    watch(directory);
+                    return FileVisitResult.CONTINUE;
+                }
+
+                @Override
+                public FileVisitResult visitFile(Path file, BasicFileAttributes attrs) {
+                    if (attrs.isRegularFile()) {
+                        String key = getKey(file.getFileName().toString());
+                        if (key != null) {
+                            add(indexed, key, file);
+                        }
+                    }
+                    return FileVisitResult.CONTINUE;
+                }
+
+                @Override
+                public FileVisitResult visitFileFailed(Path file, IOException e) {
+                    // ie. deleted while it is walked, or not readable
+                    return FileVisitResult.CONTINUE;
+                }
+            });
+        } catch (IOException e) {
+            LOGGER.warning("Unable to index workspace " + root + ": " + e.getMessage());
+            return false;
+        }
+        return watchable && !closed;
+    }
+
+    private static boolean isRuntimeDir(Path dir, String name) {
+        return RUNTIME_DIR.equals(name) || Files.isDirectory(dir.resolve(RUNTIME_VERSIONS_DIR));
+    }
+
+    private static void add(Map<String, Set<Path>> indexed, String key, Path path) {
+        indexed.computeIfAbsent(key, k -> new LinkedHashSet<>()).add(path);
+    }
+
+    private static Map<String, Set<Path>> freeze(Map<String, Set<Path>> indexed) {
+        Map<String, Set<Path>> snapshot = new HashMap<>();
+        for (Map.Entry<String, Set<Path>> entry : indexed.entrySet()) {
+            if (!entry.getValue().isEmpty()) {
+                snapshot.put(entry.getKey(), Collections.unmodifiableSet(entry.getValue()));
+            }
+        }
+        return Collections.unmodifiableMap(snapshot);
+    }
+
+    private static Map<String, Set<Path>> thaw(Map<String, Set<Path>> snapshot) {
+        Map<String, Set<Path>> indexed = new HashMap<>();
+        for (Map.Entry<String, Set<Path>> entry : snapshot.entrySet()) {
+            indexed.put(entry.getKey(), new LinkedHashSet<>(entry.getValue()));
+        }
+        return indexed;
+    }
+
+    private static String getKey(String fileName) {
+        if (INDEXED_NAMES.contains(fileName)) {
+            return fileName;
+        }
+        if (fileName.endsWith(DEVC_METADATA_SUFFIX)) {
+            return DEVC_METADATA_SUFFIX;
+        }
+        return null;
+    }
+
+    private void onEvent(WatchEvent.Kind<?> kind, Path path) {
+        if (kind == StandardWatchEventKinds.OVERFLOW) {
+            // events were lost, rebuild the index on the next lookup
+            valid = false;
+        } else if (kind == StandardWatchEventKinds.ENTRY_CREATE) {
+            onCreated(path);
+        } else if (kind == StandardWatchEventKinds.ENTRY_DELETE) {
+            onDeleted(path);
+        }
+    }
+
+    private synchronized void onCreated(Path path) {
+        if (!valid || closed) {
+            // the index is rebuilt on the next lookup
+            return;
+        }
+        Map<String, Set<Path>> indexed = thaw(entries);
+        if (Files.isDirectory(path)) {
+            if (!index(path, indexed)) {
+                valid = false;
+            }
+        } else {
+            String key = getKey(path.getFileName().toString());
+            if (key == null) {
+                return;
+            }
+            add(indexed, key, path);
+        }
+        entries = freeze(indexed);
+    }
+
+    private synchronized void onDeleted(Path path) {
+        if (!valid || closed) {
+            return;
+        }
+        // the path may be a directory of indexed files
+        Map<String, Set<Path>> indexed = thaw(entries);
+        for (Set<Path> paths : indexed.values()) {
+            paths.removeIf(indexedPath -> indexedPath.startsWith(path));
+        }
+        entries = freeze(indexed);
+    }
+
+    private void watch(Path dir) {
+        if (!watchable || closed) {
+            return;
+        }
+        if (!WorkspaceWatcher.getInstance().watch(this, dir, listener)) {
+            // ie. the limit of watched directories is reached, do not hold on to the
+            // watches of the other directories as the workspace is walked on every lookup
+            LOGGER.warning("Unable to watch " + dir + ", the workspace " + root + " is searched on every lookup");
+            watchable = false;
+            WorkspaceWatcher.getInstance().cancel(this);
+        }
+    }
+}
@@ -0,0 +1,79 @@
+/*******************************************************************************
+* Copyright (c) 2022 IBM Corporation and others.
+*
+* This program and the accompanying materials are made available under the
+* terms of the Eclipse Public License v. 2.0 which is available at
+* http://www.eclipse.org/legal/epl-2.0.
+*
+* SPDX-License-Identifier: EPL-2.0
+*
+* Contributors:
+*     IBM Corporation - initial API and implementation
+*******************************************************************************/
+package io.openliberty.tools.langserver.lemminx.services;
+
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Immutable trie of the Liberty workspaces keyed by the segments of their
+ * normalized URIs, ie. file:, home, user, project. A document belongs to the
+ * workspace with the longest URI that contains it, which is found in one walk
+ * over the segments of the document URI, however many workspaces there are.
+ */
+final class WorkspaceFolderTrie {
+
+    private static final class Node {
+        private final Map<String, Node> children = new HashMap<>(4);
+        private LibertyWorkspace workspace;
+    }
+
+    private final Node root = new Node();
+
+    WorkspaceFolderTrie(Collection<LibertyWorkspace> workspaces) {
+        for (LibertyWorkspace workspace : workspaces) {
+            String workspaceUri = workspace.getWorkspaceString();
+            if (workspaceUri == null) {
+                continue;
+            }
+            String[] segments = split(workspaceUri);
+            // the workspace URI is a directory, the empty segment after its last separator is not part of the key
+            int length = segments[segments.length - 1].isEmpty() ? segments.length - 1 : segments.length;
+            Node node = root;
+            for (int i = 0; i < length; i++) {
+                node = node.children.computeIfAbsent(segments[i], segment -> new Node());
+            }
+            if (node.workspace == null) {
+                node.workspace = workspace;
+            }
+        }
+    }
+
+    /**
+     * Returns the workspace with the longest URI that the document URI is in
+     *
+     * @param normalizedUri document URI normalized like the workspace URIs
+     * @return workspace of the document, or null if no workspace contains it
+     */
+    LibertyWorkspace find(String normalizedUri) {
+        String[] segments = split(normalizedUri);
+        LibertyWorkspace longestMatch = null;
+        Node node = root;
+        // the document must be below the workspace directory, so at least one segment must remain
+        for (int i = 0; i < segments.length - 1; i++) {
+            node = node.children.get(segments[i]);
+            if (node == null) {
+                break;
+            }
+            if (node.workspace != null) {
+                longestMatch = node.workspace;
+            }
+        }
+        return longestMatch;
+    }
+
+    private static String[] split(String uri) {
+        return uri.split("/", -1);
+    }
+}
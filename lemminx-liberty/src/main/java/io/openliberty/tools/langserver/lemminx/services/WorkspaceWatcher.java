@@ -0,0 +1,199 @@
+/*******************************************************************************
+* Copyright (c) 2022 IBM Corporation and others.
+*
+* This program and the accompanying materials are made available under the
+* terms of the Eclipse Public License v. 2.0 which is available at
+* http://www.eclipse.org/legal/epl-2.0.
+*
+* SPDX-License-Identifier: EPL-2.0
+*
+* Contributors:
+*     IBM Corporation - initial API and implementation
+*******************************************************************************/
+package io.openliberty.tools.langserver.lemminx.services;
+
+import java.io.IOException;
+import java.nio.file.ClosedWatchServiceException;
+import java.nio.file.FileSystems;
+import java.nio.file.Path;
+import java.nio.file.StandardWatchEventKinds;
+import java.nio.file.WatchEvent;
+import java.nio.file.WatchKey;
+import java.nio.file.WatchService;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.logging.Logger;
+
+/**
+ * Watches the directories of the Liberty workspaces for the whole language
+ * server with a single WatchService and a single thread, so that the workspace
+ * file indexes and the watchers of the Liberty installations do not each use up
+ * watches and threads.
+ *
+ * A directory is registered once with the WatchService, for all its kinds of
+ * events, and its events are dispatched to every owner that watches it.
+ */
+public final class WorkspaceWatcher {
+
+    private static final Logger LOGGER = Logger.getLogger(WorkspaceWatcher.class.getName());
+
+    private static final WorkspaceWatcher INSTANCE = new WorkspaceWatcher();
+
+    public static WorkspaceWatcher getInstance() {
+        return INSTANCE;
+    }
+
+    /**
+     * Receives the events of a watched directory on the watcher thread
+     */
+    public interface Listener {
+
+        /**
+         * @param kind ENTRY_CREATE, ENTRY_DELETE, ENTRY_MODIFY or OVERFLOW if events were lost
+         * @param path file or directory that changed, or the watched directory for OVERFLOW
+         */
+        void onEvent(WatchEvent.Kind<?> kind, Path path);
+
+        /**
+         * The watched directory was deleted or can no longer be watched
+         */
+        default void onCancelled() {
+        }
+    }
+
+    private static final class Registration {
+        private final Object owner;
+        private final Path dir;
+        private final Listener listener;
+
+        Registration(Object owner, Path dir, Listener listener) {
+            this.owner = owner;
+            this.dir = dir;
+            this.listener = listener;
+        }
+    }
+
+    // null until the first directory is watched, or if the file system cannot be watched
+    private WatchService watchService;
+    private boolean unsupported;
+    // watched directory -> registrations of the owners that watch it, guarded by this
+    private final Map<WatchKey, List<Registration>> registrations = new HashMap<>();
+
+    private WorkspaceWatcher() {
+    }
+
+    /**
+     * Watches a directory for an owner. A directory that the owner already watches
+     * is given the new listener.
+     *
+     * @param owner    owner of the registration, ie. a workspace file index
+     * @param dir      directory to watch, its sub-directories are not watched
+     * @param listener listener of the events of the directory
+     * @return false if the directory cannot be watched, ie. the limit of watched directories is reached
+     */
+    public synchronized boolean watch(Object owner, Path dir, Listener listener) {
+        WatchService service = getWatchService();
+        if (service == null) {
+            return false;
+        }
+        WatchKey key;
+        try {
+            key = dir.register(service, StandardWatchEventKinds.ENTRY_CREATE, StandardWatchEventKinds.ENTRY_DELETE,
+                    StandardWatchEventKinds.ENTRY_MODIFY);
+        } catch (IOException | UnsupportedOperationException | ClosedWatchServiceException e) {
+            LOGGER.fine("Unable to watch " + dir + ": " + e.getMessage());
+            return false;
+        }
+        // registering a watched directory again returns the same key
+        List<Registration> keyRegistrations = registrations.computeIfAbsent(key, k -> new ArrayList<>(1));
+        keyRegistrations.removeIf(registration -> registration.owner == owner);
+        keyRegistrations.add(new Registration(owner, dir, listener));
+        return true;
+    }
+
+    /**
+     * Stops watching the directories of an owner. Directories that no other owner
+     * watches are unregistered from the WatchService.
+     */
+    public synchronized void cancel(Object owner) {
+        Iterator<Map.Entry<WatchKey, List<Registration>>> entries = registrations.entrySet().iterator();
+        while (entries.hasNext()) {
+            Map.Entry<WatchKey, List<Registration>> entry = entries.next();
+            entry.getValue().removeIf(registration -> registration.owner == owner);
+            if (entry.getValue().isEmpty()) {
+                entry.getKey().cancel();
+                entries.remove();
+            }
+        }
+    }
+
+    private WatchService getWatchService() {
+        if (watchService == null && !unsupported) {
+            try {
+                watchService = FileSystems.getDefault().newWatchService();
+            } catch (IOException | UnsupportedOperationException e) {
+                LOGGER.warning("Unable to watch the workspaces for changes: " + e.getMessage());
+                unsupported = true;
+                return null;
+            }
+            WatchService service = watchService;
+            Thread thread = new Thread(() -> processEvents(service), "liberty-workspace-watch");
+            thread.setDaemon(true);
+            thread.start();
+        }
+        return watchService;
+    }
+
+    private synchronized List<Registration> getRegistrations(WatchKey key, boolean remove) {
+        List<Registration> keyRegistrations = remove ? registrations.remove(key) : registrations.get(key);
+        return keyRegistrations != null ? new ArrayList<>(keyRegistrations) : null;
+    }
+
+    private void processEvents(WatchService service) {
+        while (true) {
+            WatchKey key;
+            try {
+                key = service.take();
+            } catch (InterruptedException | ClosedWatchServiceException e) {
+                return;
+            }
+            // listeners are called without holding the lock, they may watch other directories
+            List<Registration> keyRegistrations = getRegistrations(key, false);
+            List<WatchEvent<?>> events = key.pollEvents();
+            if (keyRegistrations != null) {
+                for (WatchEvent<?> event : events) {
+                    for (Registration registration : keyRegistrations) {
+                        Path path = event.kind() == StandardWatchEventKinds.OVERFLOW ? registration.dir
+                                : registration.dir.resolve((Path) event.context());
+                        dispatch(registration, event.kind(), path);
+                    }
+                }
+            }
+            if (!key.reset()) {
+                // the directory was deleted
+                keyRegistrations = getRegistrations(key, true);
+                if (keyRegistrations != null) {
+                    for (Registration registration : keyRegistrations) {
+                        try {
+                            registration.listener.onCancelled();
+                        } catch (RuntimeException e) {
+                            LOGGER.warning("Unable to process the deletion of " + registration.dir + ": " + e);
+                        }
+                    }
+                }
+            }
+        }
+    }
+
+    private static void dispatch(Registration registration, WatchEvent.Kind<?> kind, Path path) {
+        try {
+            registration.listener.onEvent(kind, path);
+        } catch (RuntimeException e) {
+            // one listener must not stop the events of all the workspaces
+            LOGGER.warning("Unable to process the change of " + path + ": " + e);
+        }
+    }
+}
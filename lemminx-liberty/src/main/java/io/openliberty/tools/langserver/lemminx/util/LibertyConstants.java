@@ -13,6 +13,7 @@
 package io.openliberty.tools.langserver.lemminx.util;
 
 import java.io.File;
+import java.util.Set;
 
 public final class LibertyConstants {
     private LibertyConstants() {
@@ -28,6 +29,17 @@ public final class LibertyConstants {
 
     public static final String PUBLIC_VISIBILITY = "PUBLIC";
 
+    // features that only enable a set of other features, ie. jakartaee-9.1
+    public static final Set<String> CONVENIENCE_FEATURE_FAMILIES = Set.of("javaee", "javaeeClient", "jakartaee", "jakartaeeClient",
+            "webProfile", "microProfile");
+
+    // paths of the feature lists in a Maven repository, formatted with the Liberty version
+    public static final String OL_FEATURE_LIST_PATH = "io/openliberty/features/features/%1$s/features-%1$s.json";
+    public static final String WLP_FEATURE_LIST_PATH = "com/ibm/websphere/appserver/features/features/%1$s/features-%1$s.json";
+    // versions of the feature lists in a Maven repository
+    public static final String OL_FEATURE_LIST_METADATA_PATH = "io/openliberty/features/features/maven-metadata.xml";
+    public static final String WLP_FEATURE_LIST_METADATA_PATH = "com/ibm/websphere/appserver/features/features/maven-metadata.xml";
+
     public static final String WLP_USER_CONFIG_DIR = File.separator + String.join(File.separator, "usr", "shared", "config") + File.separator;
     public static final String SERVER_CONFIG_DROPINS_DEFAULTS = File.separator + String.join(File.separator, "configDropins", "defaults") + File.separator;
     public static final String SERVER_CONFIG_DROPINS_OVERRIDES = File.separator + String.join(File.separator, "configDropins", "overrides") + File.separator;
@@ -16,39 +16,31 @@ import java.io.File;
 import java.io.FileInputStream;
 import java.io.IOException;
 import java.net.URI;
-import java.nio.file.FileSystems;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.Paths;
 import java.nio.file.StandardWatchEventKinds;
-import java.nio.file.WatchKey;
-import java.nio.file.WatchService;
+import java.nio.file.WatchEvent;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.Properties;
-import java.util.concurrent.TimeUnit;
 import java.util.logging.Logger;
 import java.util.stream.Collectors;
 
-import javax.xml.bind.JAXBContext;
-import javax.xml.bind.JAXBException;
-import javax.xml.bind.Unmarshaller;
-
 import org.eclipse.lemminx.dom.DOMDocument;
 
-import io.openliberty.tools.langserver.lemminx.models.feature.Feature;
 import io.openliberty.tools.langserver.lemminx.models.settings.DevcMetadata;
 import io.openliberty.tools.langserver.lemminx.services.DockerService;
 import io.openliberty.tools.langserver.lemminx.services.LibertyProjectsManager;
 import io.openliberty.tools.langserver.lemminx.services.LibertyWorkspace;
 import io.openliberty.tools.langserver.lemminx.services.SettingsService;
+import io.openliberty.tools.langserver.lemminx.services.WorkspaceFileIndex;
+import io.openliberty.tools.langserver.lemminx.services.WorkspaceWatcher;
 
 public class LibertyUtils {
 
     private static final Logger LOGGER = Logger.getLogger(LibertyUtils.class.getName());
 
-    private static Thread thread;
-
     private LibertyUtils() {
     }
 
@@ -118,8 +110,20 @@ public class LibertyUtils {
             return null;
         }
         try {
-            Path rootPath = Paths.get(libertyWorkspace.getWorkspaceURI());
-            List<Path> matchingFiles = findFilesInDirectory(rootPath, filePath);
+            List<Path> matchingFiles;
+            String fileName = filePath.getFileName().toString();
+            if (WorkspaceFileIndex.isIndexed(fileName)) {
+                // the files that are looked up for every document are indexed
+                matchingFiles = new ArrayList<>();
+                for (Path indexedFile : libertyWorkspace.getFileIndex().findFiles(fileName)) {
+                    if (indexedFile.endsWith(filePath) && Files.isRegularFile(indexedFile)) {
+                        matchingFiles.add(indexedFile);
+                    }
+                }
+            } else {
+                Path rootPath = Paths.get(libertyWorkspace.getWorkspaceURI());
+                matchingFiles = findFilesInDirectory(rootPath, filePath);
+            }
             if (matchingFiles.isEmpty()) {
                 return null;
             }
@@ -257,10 +261,10 @@ public class LibertyUtils {
         boolean devcOn = devcMetadataFile != null;
 
         if (devcOn || (propertiesFile != null && propertiesFile.toFile().exists())) {
-            // new properties file, reset the installed features stored in the feature cache
-            // so that the installed features list will be regenerated as it may have
-            // changed between Liberty installations
-            libertyWorkspace.setInstalledFeatureList(new ArrayList<Feature>());
+            // new properties file, the installed features may have changed between Liberty
+            // installations, they are checked again against the fingerprint of the runtime
+            // and kept until then
+            libertyWorkspace.setInstalledFeaturesChanged(true);
 
             Properties prop = new Properties();
             FileInputStream fis;
@@ -302,6 +306,52 @@ public class LibertyUtils {
     }
 
 
+    /**
+     * Compares two versions segment by segment, ie. 22.0.0.9 is older than 22.0.0.10.
+     * Numeric segments are compared as numbers and a version with a qualifier such
+     * as 22.0.0.13-beta is older than the same version without it.
+     * 
+     * @return negative, zero or positive if version1 is older, equal or newer than version2
+     */
+    public static int compareVersions(String version1, String version2) {
+        String[] segments1 = version1.split("[.-]");
+        String[] segments2 = version2.split("[.-]");
+        for (int i = 0; i < Math.max(segments1.length, segments2.length); i++) {
+            if (i >= segments1.length) {
+                return isNumeric(segments2[i]) ? -1 : 1;
+            }
+            if (i >= segments2.length) {
+                return isNumeric(segments1[i]) ? 1 : -1;
+            }
+            boolean numeric1 = isNumeric(segments1[i]);
+            boolean numeric2 = isNumeric(segments2[i]);
+            int result;
+            if (numeric1 && numeric2) {
+                result = Long.compare(Long.parseLong(segments1[i]), Long.parseLong(segments2[i]));
+            } else if (numeric1 != numeric2) {
+                result = numeric1 ? 1 : -1;
+            } else {
+                result = segments1[i].compareTo(segments2[i]);
+            }
+            if (result != 0) {
+                return result;
+            }
+        }
+        return 0;
+    }
+
+    private static boolean isNumeric(String segment) {
+        if (segment.isEmpty() || segment.length() > 18) {
+            return false;
+        }
+        for (int i = 0; i < segment.length(); i++) {
+            if (!Character.isDigit(segment.charAt(i))) {
+                return false;
+            }
+        }
+        return true;
+    }
+
     /**
      * Return temp directory to store generated feature lists and schema. Creates
      * temp directory if it does not exist.
@@ -333,61 +383,48 @@ public class LibertyUtils {
     }
 
     /**
-     * Watches the parent directory of the Liberty properties file in a separate
-     * thread or actively watches a liberty-devc-metadata file. If the the contents 
-     * have been modified or deleted, the installation of Liberty has changed and 
-     * the corresponding Liberty Workspace item is updated.
+     * Watches the parent directory of the Liberty properties file or of a
+     * liberty-devc-metadata file with the watcher shared by the workspaces. If the
+     * contents have been modified or deleted, the installation of Liberty has
+     * changed and the corresponding Liberty Workspace item is updated.
      * 
      * @param watchFile        openliberty.properties or *-liberty-devc.metadata.xml to watch
      * @param libertyWorkspace Liberty Workspace object, updated to indicate if
      *                         there is an associated installation of Liberty
      */
-    public static void watchFiles(Path watchFile, LibertyWorkspace libertyWorkspace) {     
+    public static void watchFiles(Path watchFile, LibertyWorkspace libertyWorkspace) {
         boolean isProperties = watchFile.endsWith("openliberty.properties"); // if false, watchFile is a metadata file
-        try {
-            WatchService watcher = FileSystems.getDefault().newWatchService();
-            watchFile.getParent().register(watcher, StandardWatchEventKinds.ENTRY_MODIFY);
-            thread = new Thread(() -> {
-                WatchKey watchKey = null;
-                try {
-                    while (true) {
-                        watchKey = watcher.poll(5, TimeUnit.SECONDS);
-                        if (watchKey != null) {
-                            watchKey.pollEvents().stream().forEach(event -> {                                
-                                if (isProperties) {
-                                    // if modified re-calculate version
-                                    LOGGER.fine("Liberty properties file (" + watchFile + ") has been modified: "
-                                    + event.context());
-                                    libertyWorkspace.setLibertyInstalled(false);
-                                } else if (((Path)event.context()).toString().endsWith("-liberty-devc-metadata.xml")){
-                                    // watch and execute only on metadata files
-                                    DevcMetadata devcMetadata = LibertyWorkspace.unmarshalDevcMetadataFile(watchFile);
-                                    libertyWorkspace.setContainerAlive(devcMetadata.isContainerAlive());
-                                }
-                            });
-
-                            // if watchkey.reset() returns false indicates that the parent folder has been
-                            // deleted
-                            boolean valid = watchKey.reset();
-                            if (!valid) {
-                                if (isProperties) {
-                                    // if deleted re-calculate version
-                                    LOGGER.fine("Liberty properties file (" + watchFile + ") has been deleted");
-                                    libertyWorkspace.setLibertyInstalled(false);
-                                } else {
-                                    // build directory deleted
-                                    libertyWorkspace.setContainerAlive(false);
-                                }
-                            }
-                        }
+        boolean watched = WorkspaceWatcher.getInstance().watch(libertyWorkspace, watchFile.getParent(), new WorkspaceWatcher.Listener() {
+            @Override
+            public void onEvent(WatchEvent.Kind<?> kind, Path path) {
+                if (isProperties) {
+                    // if modified re-calculate version
+                    LOGGER.fine("Liberty properties file (" + watchFile + ") has been modified: " + path.getFileName());
+                    libertyWorkspace.setLibertyInstalled(false);
+                } else if (kind != StandardWatchEventKinds.ENTRY_DELETE && path.getFileName().toString().endsWith("-liberty-devc-metadata.xml")) {
+                    // watch and execute only on metadata files
+                    DevcMetadata devcMetadata = LibertyWorkspace.unmarshalDevcMetadataFile(watchFile);
+                    if (devcMetadata != null) {
+                        libertyWorkspace.setContainerAlive(devcMetadata.isContainerAlive());
                     }
-                } catch (InterruptedException e) {
-                    LOGGER.warning("Unable to watch properties file(s): " + e.getMessage());
                 }
-            });
-            thread.start();
-        } catch (IOException e) {
-            LOGGER.warning("Unable to watch properties file(s): " + e.getMessage());
+            }
+
+            @Override
+            public void onCancelled() {
+                // the parent folder has been deleted
+                if (isProperties) {
+                    // if deleted re-calculate version
+                    LOGGER.fine("Liberty properties file (" + watchFile + ") has been deleted");
+                    libertyWorkspace.setLibertyInstalled(false);
+                } else {
+                    // build directory deleted
+                    libertyWorkspace.setContainerAlive(false);
+                }
+            }
+        });
+        if (!watched) {
+            LOGGER.warning("Unable to watch properties file(s): " + watchFile);
         }
     }
 }
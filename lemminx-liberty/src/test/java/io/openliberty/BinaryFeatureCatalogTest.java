@@ -0,0 +1,62 @@
+package io.openliberty;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+
+import io.openliberty.tools.langserver.lemminx.models.feature.Feature;
+import io.openliberty.tools.langserver.lemminx.services.BinaryFeatureCatalog;
+import io.openliberty.tools.langserver.lemminx.services.FeatureCatalog;
+
+public class BinaryFeatureCatalogTest {
+
+    @Test
+    public void testRoundTrip() throws IOException {
+        List<Feature> features = new ArrayList<>();
+        for (int i = 0; i < 20; i++) {
+            features.add(FeatureCatalogTest.feature("feature" + i + "-1.0"));
+        }
+        Feature jaxrs = FeatureCatalogTest.feature("jaxrs-2.1");
+        jaxrs.getWlpInformation().setSingleton("true");
+        jaxrs.getWlpInformation().setProvideFeature(new ArrayList<>(Arrays.asList("com.ibm.websphere.appserver.jaxrs-2.1")));
+        features.add(jaxrs);
+
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        BinaryFeatureCatalog.write(new FeatureCatalog(null, null, features), out);
+        FeatureCatalog catalog = BinaryFeatureCatalog.read(new ByteArrayInputStream(out.toByteArray()), null, null);
+
+        assertEquals(21, catalog.size());
+        Feature feature = catalog.getFeature("JAXRS-2.1");
+        assertNotNull(feature);
+        assertEquals("io.openliberty.jaxrs-2.1", feature.getName());
+        assertEquals("Description of jaxrs-2.1", feature.getShortDescription());
+        assertEquals("true", feature.getWlpInformation().getSingleton());
+        assertEquals(Arrays.asList("com.ibm.websphere.appserver.jaxrs-2.1"), feature.getWlpInformation().getProvideFeature());
+        assertNull(feature.getWlpInformation().getRequireFeature());
+        assertTrue(catalog.hasFeature("feature7-1.0"));
+
+        // direct buffers, ie. memory mapped files, have no backing array
+        ByteBuffer direct = ByteBuffer.allocateDirect(out.size());
+        direct.put(out.toByteArray()).flip();
+        catalog = BinaryFeatureCatalog.read(direct, null, null);
+        assertEquals(21, catalog.size());
+        assertEquals("Description of jaxrs-2.1", catalog.getFeature("jaxrs-2.1").getShortDescription());
+    }
+
+    @Test
+    public void testInvalidContent() {
+        assertThrows(IOException.class, () -> BinaryFeatureCatalog.read(new ByteArrayInputStream(new byte[] { 1, 2, 3 }), null, null));
+    }
+}
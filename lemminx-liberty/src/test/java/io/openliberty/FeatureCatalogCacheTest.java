@@ -0,0 +1,101 @@
+package io.openliberty;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+
+import io.openliberty.tools.langserver.lemminx.models.feature.Feature;
+import io.openliberty.tools.langserver.lemminx.services.FeatureCatalog;
+import io.openliberty.tools.langserver.lemminx.services.FeatureCatalogCache;
+
+public class FeatureCatalogCacheTest {
+
+    static FeatureCatalog catalog(String libertyVersion) {
+        List<Feature> features = new ArrayList<>();
+        for (int i = 0; i < 50; i++) {
+            features.add(FeatureCatalogTest.feature("feature" + i + "-1.0"));
+        }
+        return new FeatureCatalog("ol", libertyVersion, features);
+    }
+
+    @Test
+    public void testLeastRecentlyUsedEviction() {
+        FeatureCatalog first = catalog("22.0.0.1");
+        FeatureCatalog second = catalog("22.0.0.2");
+        FeatureCatalog third = catalog("22.0.0.3");
+        assertTrue(first.getEstimatedSize() > 0);
+
+        // room for two catalogs
+        FeatureCatalogCache cache = new FeatureCatalogCache(first.getEstimatedSize() * 2 + 1);
+        cache.put("ol-22.0.0.1", first);
+        cache.put("ol-22.0.0.2", second);
+        assertSame(first, cache.get("ol-22.0.0.1"));
+
+        // 22.0.0.2 is now the least recently used catalog
+        cache.put("ol-22.0.0.3", third);
+        assertEquals(2, cache.getCatalogCount());
+        assertNull(cache.get("ol-22.0.0.2"));
+        assertNotNull(cache.get("ol-22.0.0.1"));
+        assertNotNull(cache.get("ol-22.0.0.3"));
+        assertTrue(cache.getSize() <= cache.getMaxSize());
+
+        assertEquals(1, cache.getEvictionCount());
+        assertEquals(3, cache.getHitCount());
+        assertEquals(1, cache.getMissCount());
+    }
+
+    @Test
+    public void testShrinkKeepsLatestCatalog() {
+        FeatureCatalog first = catalog("22.0.0.1");
+        FeatureCatalog second = catalog("22.0.0.2");
+
+        FeatureCatalogCache cache = new FeatureCatalogCache(Long.MAX_VALUE);
+        cache.put("ol-22.0.0.1", first);
+        cache.put("ol-22.0.0.2", second);
+        assertEquals(2, cache.getCatalogCount());
+
+        cache.setMaxSize(first.getEstimatedSize());
+        assertEquals(1, cache.getCatalogCount());
+        assertSame(second, cache.get("ol-22.0.0.2"));
+
+        // a catalog larger than the cache is still kept until the next one is added
+        cache.setMaxSize(0);
+        cache.put("ol-22.0.0.1", first);
+        assertEquals(1, cache.getCatalogCount());
+        assertSame(first, cache.get("ol-22.0.0.1"));
+    }
+
+    @Test
+    public void testSharedFeaturesCountedOnce() {
+        FeatureCatalog first = catalog("22.0.0.1");
+        // the interned features of another version
+        FeatureCatalog second = new FeatureCatalog("ol", "22.0.0.2", first.getFeatures());
+
+        FeatureCatalogCache cache = new FeatureCatalogCache(Long.MAX_VALUE);
+        cache.put("ol-22.0.0.1", first);
+        assertEquals(first.getEstimatedSize(), cache.getSize());
+        cache.put("ol-22.0.0.2", second);
+        assertTrue(cache.getSize() > first.getEstimatedSize());
+        assertTrue(cache.getSize() < first.getEstimatedSize() + second.getEstimatedSize());
+
+        // replacing a catalog does not count it twice
+        long size = cache.getSize();
+        cache.put("ol-22.0.0.2", second);
+        assertEquals(size, cache.getSize());
+
+        // the features are still counted for the catalog that is kept
+        cache.setMaxSize(second.getEstimatedSize());
+        assertEquals(1, cache.getCatalogCount());
+        assertEquals(second.getEstimatedSize(), cache.getSize());
+        cache.setMaxSize(0);
+        cache.put("ol-22.0.0.3", catalog("22.0.0.3"));
+        assertEquals(cache.get("ol-22.0.0.3").getEstimatedSize(), cache.getSize());
+    }
+}
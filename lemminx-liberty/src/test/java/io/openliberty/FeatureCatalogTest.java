@@ -0,0 +1,185 @@
+package io.openliberty;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+
+import io.openliberty.tools.langserver.lemminx.models.feature.Feature;
+import io.openliberty.tools.langserver.lemminx.models.feature.WlpInformation;
+import io.openliberty.tools.langserver.lemminx.services.FeatureCatalog;
+import io.openliberty.tools.langserver.lemminx.services.FeatureDependencyGraph;
+import io.openliberty.tools.langserver.lemminx.services.FeatureFamilyIndex;
+import io.openliberty.tools.langserver.lemminx.services.FeatureNameIndex;
+
+public class FeatureCatalogTest {
+
+    static Feature feature(String shortName) {
+        Feature feature = new Feature();
+        feature.setName("io.openliberty." + shortName);
+        feature.setShortDescription("Description of " + shortName);
+        feature.setWlpInformation(new WlpInformation(shortName));
+        return feature;
+    }
+
+    @Test
+    public void testCaseInsensitiveLookup() {
+        List<Feature> features = new ArrayList<>();
+        for (int i = 0; i < 100; i++) {
+            features.add(feature("feature" + i + "-1.0"));
+        }
+        Feature mpConfig = feature("mpConfig-1.4");
+        features.add(mpConfig);
+
+        FeatureCatalog catalog = new FeatureCatalog("ol", "22.0.0.6", features);
+        assertEquals(101, catalog.size());
+        assertSame(mpConfig, catalog.getFeature("mpConfig-1.4"));
+        assertSame(mpConfig, catalog.getFeature("MPCONFIG-1.4"));
+        assertSame(mpConfig, catalog.getFeature("mpconfig-1.4"));
+        assertTrue(catalog.hasFeature("Feature42-1.0"));
+        assertFalse(catalog.hasFeature("mpConfig"));
+        assertNull(catalog.getFeature(null));
+    }
+
+    static Feature feature(String shortName, String singleton, String... requiredFeatures) {
+        Feature feature = feature(shortName);
+        feature.getWlpInformation().setSingleton(singleton);
+        feature.getWlpInformation().setProvideFeature(new ArrayList<>(Arrays.asList("io.openliberty." + shortName)));
+        ArrayList<String> requireFeature = new ArrayList<>();
+        for (String requiredFeature : requiredFeatures) {
+            requireFeature.add("io.openliberty." + requiredFeature + "; ibm.tolerates:=\"1.0\"");
+        }
+        feature.getWlpInformation().setRequireFeature(requireFeature);
+        return feature;
+    }
+
+    @Test
+    public void testDependencyGraph() {
+        List<Feature> features = new ArrayList<>();
+        features.add(feature("jakartaee-9.1", "true", "restfulWS-3.0", "servlet-5.0", "cdi-3.0"));
+        features.add(feature("restfulWS-3.0", "true", "restfulWSClient-3.0"));
+        features.add(feature("restfulWSClient-3.0", "true", "cdi-3.0"));
+        features.add(feature("servlet-5.0", "true"));
+        features.add(feature("servlet-4.0", "true"));
+        features.add(feature("cdi-3.0", "true"));
+        features.add(feature("cdi-2.0", "true", "mpConfig-1.4"));
+        features.add(feature("mpConfig-1.4", "true", "cdi-2.0"));
+        FeatureDependencyGraph graph = new FeatureCatalog("ol", "22.0.0.6", features).getDependencyGraph();
+
+        int jakartaee = graph.getId("jakartaee-9.1");
+        assertTrue(graph.isConvenienceFeature(jakartaee));
+        assertTrue(graph.includes(jakartaee, graph.getId("restfulWSClient-3.0")));
+        assertTrue(graph.includes(graph.getId("restfulWS-3.0"), graph.getId("CDI-3.0")));
+        assertFalse(graph.includes(graph.getId("restfulWS-3.0"), graph.getId("servlet-5.0")));
+        // cycles terminate and do not include the feature itself
+        assertTrue(graph.includes(graph.getId("cdi-2.0"), graph.getId("mpConfig-1.4")));
+        assertFalse(graph.includes(graph.getId("cdi-2.0"), graph.getId("cdi-2.0")));
+        assertEquals(-1, graph.getId("unknown-1.0"));
+
+        int[] featureIds = { graph.getId("restfulWSClient-3.0"), jakartaee, graph.getId("servlet-4.0"), graph.getId("mpConfig-1.4") };
+        int[] includingFeatures = graph.findIncludingFeatures(featureIds);
+        assertEquals(jakartaee, includingFeatures[0]);
+        assertEquals(-1, includingFeatures[1]);
+        assertEquals(-1, includingFeatures[2]);
+
+        int[] conflictingFeatures = new int[featureIds.length];
+        int[] enablingFeatures = graph.findConflictingFeatures(featureIds, conflictingFeatures);
+        assertEquals(-1, enablingFeatures[1]);
+        assertEquals(jakartaee, enablingFeatures[2]);
+        assertEquals(graph.getId("servlet-5.0"), conflictingFeatures[2]);
+        // conflicts through the dependencies of other features are not reported
+        assertEquals(-1, enablingFeatures[3]);
+
+        assertEquals("mpConfig", FeatureDependencyGraph.getFamily("mpConfig-1.4"));
+        assertNull(FeatureDependencyGraph.getFamily("jaxrs"));
+    }
+
+    @Test
+    public void testNameIndex() {
+        List<Feature> features = new ArrayList<>();
+        for (String shortName : new String[] { "mpConfig-1.4", "cdi-2.0", "mpConfig-2.0", "jaxrs-2.1", "jaxrsClient-2.1", "mpRestClient-1.4" }) {
+            features.add(feature(shortName));
+        }
+        FeatureNameIndex index = new FeatureCatalog("ol", "22.0.0.6", features).getNameIndex();
+
+        assertEquals(6, index.search("").size());
+        assertEquals(Arrays.asList("mpConfig-1.4", "mpConfig-2.0"), shortNames(index.search("MPCONF")));
+        // prefix matches first, then other substring matches
+        assertEquals(Arrays.asList("jaxrsClient-2.1", "mpRestClient-1.4"), shortNames(index.search("client")).subList(0, 2));
+        assertEquals(Arrays.asList("jaxrs-2.1", "jaxrsClient-2.1"), shortNames(index.search("ja")));
+        // approximate match
+        List<FeatureNameIndex.Match> matches = index.search("mpConfgi");
+        assertEquals("mpConfig-1.4", matches.get(0).getFeature().getWlpInformation().getShortName());
+        assertTrue(matches.get(0).isFuzzyMatch());
+        assertTrue(index.search("websocket").isEmpty());
+        // a single shared trigram is not an approximate match
+        FeatureNameIndex cdiIndex = new FeatureCatalog("ol", "22.0.0.6", Arrays.asList(feature("cdi-2.0"), feature("jndi-1.0"))).getNameIndex();
+        assertEquals(Arrays.asList("cdi-2.0"), shortNames(cdiIndex.search("cdi-")));
+        assertEquals(Arrays.asList("jndi-1.0"), shortNames(cdiIndex.search("ndi")));
+
+        // chars >= 0x8000 do not spill into the other chars of a trigram
+        FeatureNameIndex unicodeIndex = new FeatureCatalog("ol", "22.0.0.6", Arrays.asList(feature("a\u8000b-1.0"))).getNameIndex();
+        assertTrue(unicodeIndex.search("z\u8000b").isEmpty());
+        assertEquals(1, unicodeIndex.search("\u8000b-").size());
+    }
+
+    static List<String> shortNames(List<FeatureNameIndex.Match> matches) {
+        List<String> shortNames = new ArrayList<>();
+        for (FeatureNameIndex.Match match : matches) {
+            shortNames.add(match.getFeature().getWlpInformation().getShortName());
+        }
+        return shortNames;
+    }
+
+    @Test
+    public void testFamilyIndex() {
+        List<Feature> features = new ArrayList<>();
+        features.add(feature("jakartaee-9.1", "true", "servlet-5.0"));
+        features.add(feature("javaee-8.0", "true", "servlet-4.0"));
+        features.add(feature("servlet-4.0", "true"));
+        features.add(feature("servlet-10.0", "true"));
+        features.add(feature("servlet-5.0", "true"));
+        features.add(feature("servlet-3.1", "true"));
+        features.add(feature("mpHealth-2.2", "true"));
+        features.add(feature("json", "false"));
+        FeatureFamilyIndex index = new FeatureCatalog("ol", "22.0.0.6", features).getFamilyIndex();
+
+        // versions are compared numerically, not alphabetically
+        assertEquals(Arrays.asList("servlet-3.1", "servlet-4.0", "servlet-5.0", "servlet-10.0"), featureNames(index.getVersions("servlet")));
+        assertEquals(featureNames(index.getVersions("servlet")), featureNames(index.getVersions("SERVLET-4.0")));
+        assertEquals("servlet-10.0", index.getLatest("Servlet").getWlpInformation().getShortName());
+        assertEquals("servlet-10.0", index.getNewerVersion("servlet-4.0").getWlpInformation().getShortName());
+        assertNull(index.getNewerVersion("servlet-10.0"));
+        assertNull(index.getNewerVersion("mpHealth-2.2"));
+        assertNull(index.getNewerVersion("servlet"));
+        assertNull(index.getLatest("json"));
+        assertTrue(index.getVersions("jaxrs").isEmpty());
+        assertFalse(index.getFamilies().contains("json"));
+
+        assertEquals(Arrays.asList("servlet-5.0"), featureNames(index.getCompatibleVersions("servlet", "jakartaee-9.1")));
+        assertEquals(Arrays.asList("servlet-4.0"), featureNames(index.getCompatibleVersions("servlet", "javaee-8.0")));
+        assertTrue(index.getCompatibleVersions("servlet", "microProfile-5.0").isEmpty());
+    }
+
+    private static List<String> featureNames(List<Feature> features) {
+        List<String> shortNames = new ArrayList<>();
+        for (Feature feature : features) {
+            shortNames.add(feature.getWlpInformation().getShortName());
+        }
+        return shortNames;
+    }
+
+    @Test
+    public void testEmptyCatalog() {
+        FeatureCatalog catalog = new FeatureCatalog(null, null, new ArrayList<Feature>());
+        assertTrue(catalog.isEmpty());
+        assertFalse(catalog.hasFeature("jaxrs-2.1"));
+    }
+}
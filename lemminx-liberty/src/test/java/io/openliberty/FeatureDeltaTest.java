@@ -0,0 +1,141 @@
+package io.openliberty;
+
+import static io.openliberty.FeatureCatalogTest.feature;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import com.google.gson.Gson;
+import com.google.gson.JsonArray;
+import com.google.gson.JsonObject;
+import com.google.gson.JsonPrimitive;
+
+import org.eclipse.lsp4j.ExecuteCommandParams;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import io.openliberty.tools.langserver.lemminx.commands.FeatureDeltaCommand;
+import io.openliberty.tools.langserver.lemminx.models.feature.Feature;
+import io.openliberty.tools.langserver.lemminx.services.FeatureCatalog;
+import io.openliberty.tools.langserver.lemminx.services.FeatureDelta;
+import io.openliberty.tools.langserver.lemminx.services.SettingsService;
+
+public class FeatureDeltaTest {
+
+    // versions that only the feature mirror of the tests has
+    static final String FROM_VERSION = "99.0.0.1";
+    static final String TO_VERSION = "99.0.0.2";
+
+    @AfterEach
+    public void tearDown() {
+        SettingsService.getInstance().updateLibertySettings(new Gson().fromJson("{\"liberty\": {}}", JsonObject.class));
+    }
+
+    @Test
+    public void testFeatureDelta() {
+        List<Feature> fromFeatures = new ArrayList<>();
+        fromFeatures.add(feature("mpMetrics-1.0", "true"));
+        fromFeatures.add(feature("mpConfig-1.4", "true", "cdi-2.0"));
+        fromFeatures.add(feature("cdi-2.0", "true"));
+        fromFeatures.add(feature("scim", "false"));
+        List<Feature> toFeatures = new ArrayList<>();
+        toFeatures.add(feature("mpMetrics-3.0", "true"));
+        toFeatures.add(feature("mpMetrics-4.0", "true"));
+        toFeatures.add(feature("mpConfig-1.4", "true", "cdi-3.0"));
+        toFeatures.add(feature("cdi-2.0", "true"));
+        toFeatures.add(feature("cdi-3.0", "true"));
+        FeatureDelta delta = FeatureDelta.compute(new FeatureCatalog("ol", "21.0.0.3", fromFeatures), new FeatureCatalog("ol", "22.0.0.6", toFeatures));
+
+        assertEquals("21.0.0.3", delta.getFromVersion());
+        assertEquals("22.0.0.6", delta.getToVersion());
+        assertEquals(Arrays.asList("cdi-3.0", "mpMetrics-3.0", "mpMetrics-4.0"), delta.getAdded());
+        assertEquals(Arrays.asList("mpMetrics-1.0", "scim"), delta.getRemoved());
+        assertEquals(Arrays.asList("mpConfig-1.4"), delta.getChanged());
+        assertTrue(delta.isRemoved("MPMETRICS-1.0"));
+        assertFalse(delta.isRemoved("cdi-2.0"));
+        assertEquals("mpMetrics-4.0", delta.getSupersedingFeature("mpMetrics-1.0"));
+        assertNull(delta.getSupersedingFeature("scim"));
+    }
+
+    @Test
+    public void testFeatureDeltaCommand() throws Exception {
+        useFeatureMirror(null);
+        FeatureDeltaCommand command = new FeatureDeltaCommand();
+
+        // the arguments are JSON values when they come from the client
+        List<Object> arguments = Arrays.asList(new JsonPrimitive(FROM_VERSION), new JsonPrimitive(" " + TO_VERSION + " "), new JsonPrimitive("ol"));
+        FeatureDelta delta = (FeatureDelta) command.executeCommand(new ExecuteCommandParams(FeatureDeltaCommand.COMMAND_ID, arguments), null, () -> {
+        });
+        assertEquals("ol", delta.getLibertyRuntime());
+        assertEquals(FROM_VERSION, delta.getFromVersion());
+        assertEquals(TO_VERSION, delta.getToVersion());
+        assertEquals(Arrays.asList("mpMetrics-4.0"), delta.getAdded());
+        assertEquals(Arrays.asList("mpMetrics-1.0"), delta.getRemoved());
+        assertEquals(Collections.singletonMap("mpMetrics-1.0", "mpMetrics-4.0"), delta.getSuperseded());
+
+        // the runtime defaults to 'ol'
+        delta = (FeatureDelta) command.executeCommand(new ExecuteCommandParams(FeatureDeltaCommand.COMMAND_ID, Arrays.asList(FROM_VERSION, TO_VERSION)), null, () -> {
+        });
+        assertEquals("ol", delta.getLibertyRuntime());
+        assertEquals(Arrays.asList("mpMetrics-1.0"), delta.getRemoved());
+    }
+
+    @Test
+    public void testFeatureDeltaCommandArguments() {
+        FeatureDeltaCommand command = new FeatureDeltaCommand();
+        assertThrows(IllegalArgumentException.class, () -> command.executeCommand(new ExecuteCommandParams(FeatureDeltaCommand.COMMAND_ID, null), null, () -> {
+        }));
+        assertThrows(IllegalArgumentException.class, () -> command.executeCommand(new ExecuteCommandParams(FeatureDeltaCommand.COMMAND_ID,
+                Arrays.asList(FROM_VERSION)), null, () -> {
+        }));
+        assertThrows(IllegalArgumentException.class, () -> command.executeCommand(new ExecuteCommandParams(FeatureDeltaCommand.COMMAND_ID,
+                Arrays.asList(new JsonArray(), TO_VERSION)), null, () -> {
+        }));
+    }
+
+    /**
+     * Serves the features of FROM_VERSION and TO_VERSION from a feature mirror, with
+     * the client offline
+     *
+     * @param settings other Liberty settings, or null
+     */
+    static void useFeatureMirror(JsonObject settings) throws IOException {
+        Path mirror = Files.createTempDirectory("mirror");
+        writeFeatureList(mirror, FROM_VERSION, "jaxrs-2.1", "mpMetrics-1.0");
+        writeFeatureList(mirror, TO_VERSION, "jaxrs-2.1", "mpMetrics-4.0");
+
+        JsonObject liberty = settings != null ? settings : new JsonObject();
+        liberty.addProperty("featureMirrorDir", mirror.toString());
+        liberty.addProperty("offline", true);
+        JsonObject root = new JsonObject();
+        root.add("liberty", liberty);
+        SettingsService.getInstance().updateLibertySettings(root);
+    }
+
+    private static void writeFeatureList(Path mirror, String libertyVersion, String... shortNames) throws IOException {
+        StringBuilder featureList = new StringBuilder("[");
+        for (String shortName : shortNames) {
+            if (featureList.length() > 1) {
+                featureList.append(',');
+            }
+            featureList.append("{\"name\":\"io.openliberty.").append(shortName).append("\",\"shortDescription\":\"").append(shortName)
+                    .append("\",\"wlpInformation\":{\"shortName\":\"").append(shortName).append("\",\"provideFeature\":[\"io.openliberty.")
+                    .append(shortName).append("\"],\"singleton\":\"true\",\"visibility\":\"PUBLIC\"}}");
+        }
+        featureList.append(']');
+        Path file = mirror.resolve("io/openliberty/features/features/" + libertyVersion + "/features-" + libertyVersion + ".json");
+        Files.createDirectories(file.getParent());
+        Files.write(file, featureList.toString().getBytes(StandardCharsets.UTF_8));
+    }
+}
@@ -0,0 +1,78 @@
+package io.openliberty;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+
+import io.openliberty.tools.langserver.lemminx.models.feature.Feature;
+import io.openliberty.tools.langserver.lemminx.services.FeatureCatalog;
+import io.openliberty.tools.langserver.lemminx.services.FeatureCatalogCache;
+import io.openliberty.tools.langserver.lemminx.services.FeatureInterner;
+
+public class FeatureInternerTest {
+
+    static List<Feature> features(String changedDescription) {
+        List<Feature> features = new ArrayList<>();
+        for (int i = 0; i < 20; i++) {
+            Feature feature = FeatureCatalogTest.feature("feature" + i + "-1.0");
+            feature.getWlpInformation().setRequireFeature(new ArrayList<>(Arrays.asList("com.ibm.websphere.appserver.servlet-4.0")));
+            features.add(feature);
+        }
+        features.get(0).setShortDescription(changedDescription);
+        return features;
+    }
+
+    @Test
+    public void testEqualFeaturesAreShared() {
+        FeatureInterner interner = new FeatureInterner();
+        List<Feature> first = interner.intern(features("first"));
+        List<Feature> second = interner.intern(features("second"));
+
+        assertNotSame(first.get(0), second.get(0));
+        for (int i = 1; i < 20; i++) {
+            assertSame(first.get(i), second.get(i));
+        }
+        // equal lists are shared between different features as well
+        assertSame(first.get(0).getWlpInformation().getRequireFeature(), second.get(0).getWlpInformation().getRequireFeature());
+        assertSame(first.get(1).getWlpInformation().getRequireFeature(), first.get(2).getWlpInformation().getRequireFeature());
+    }
+
+    @Test
+    public void testInternedFeaturesAreNotModified() {
+        FeatureInterner interner = new FeatureInterner();
+        List<Feature> first = interner.intern(features("first"));
+        List<Feature> input = features("first");
+        ArrayList<String> requireFeature = input.get(1).getWlpInformation().getRequireFeature();
+        List<Feature> second = interner.intern(input);
+
+        // canonical features are copies, the interned features and their lists keep their own values
+        assertNotSame(input.get(1), second.get(1));
+        assertSame(first.get(1), second.get(1));
+        assertSame(requireFeature, input.get(1).getWlpInformation().getRequireFeature());
+        assertNotSame(requireFeature, second.get(1).getWlpInformation().getRequireFeature());
+        assertEquals(requireFeature, second.get(1).getWlpInformation().getRequireFeature());
+        // equal strings of different features are shared
+        assertSame(first.get(0).getName(), second.get(0).getName());
+    }
+
+    @Test
+    public void testSharedFeaturesAreCountedOnce() {
+        FeatureInterner interner = new FeatureInterner();
+        FeatureCatalog first = new FeatureCatalog("ol", "22.0.0.1", interner.intern(features("first")));
+        FeatureCatalog second = new FeatureCatalog("ol", "22.0.0.2", interner.intern(features("second")));
+
+        FeatureCatalogCache cache = new FeatureCatalogCache(Long.MAX_VALUE);
+        cache.put("ol-22.0.0.1", first);
+        long oneCatalog = cache.getSize();
+        cache.put("ol-22.0.0.2", second);
+        assertEquals(oneCatalog, first.getEstimatedSize());
+        assertTrue(cache.getSize() < oneCatalog * 3 / 2);
+    }
+}
@@ -0,0 +1,76 @@
+package io.openliberty;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.io.StringReader;
+import java.util.Arrays;
+import java.util.List;
+
+import com.google.gson.JsonParseException;
+
+import org.junit.jupiter.api.Test;
+
+import io.openliberty.tools.langserver.lemminx.models.feature.Feature;
+import io.openliberty.tools.langserver.lemminx.models.feature.FeatureInfo;
+import io.openliberty.tools.langserver.lemminx.services.FeatureInfoReader;
+import io.openliberty.tools.langserver.lemminx.services.FeatureListReader;
+
+public class FeatureListReaderTest {
+
+    private static final String FEATURE_LIST = "["
+            + "{\"name\":\"io.openliberty.jaxrs-2.1\",\"shortDescription\":\"JAX-RS 2.1\",\"description\":\"long\","
+            + "\"wlpInformation\":{\"shortName\":\"jaxrs-2.1\",\"provideFeature\":[\"com.ibm.websphere.appserver.jaxrs-2.1\"],"
+            + "\"requireFeature\":[\"com.ibm.websphere.appserver.servlet-4.0\"],\"singleton\":\"true\",\"visibility\":\"PUBLIC\","
+            + "\"javaSEVersionRequirements\":{\"minVersion\":\"1.8\",\"rawRequirements\":[\"a\",\"b\"]}}},"
+            + "{\"wlpInformation\":{\"shortName\":\"jaxrsClient-2.1\",\"visibility\":\"PRIVATE\"},\"name\":\"io.openliberty.jaxrsClient-2.1\"},"
+            + "{\"name\":\"io.openliberty.noInformation\",\"wlpInformation\":null}"
+            + "]";
+
+    @Test
+    public void testReadPublicFeatures() throws IOException {
+        List<Feature> features = FeatureListReader.readPublicFeatures(new StringReader(FEATURE_LIST));
+        assertEquals(1, features.size());
+
+        Feature feature = features.get(0);
+        assertEquals("io.openliberty.jaxrs-2.1", feature.getName());
+        assertEquals("JAX-RS 2.1", feature.getShortDescription());
+        assertNull(feature.getDescription());
+        assertEquals("jaxrs-2.1", feature.getWlpInformation().getShortName());
+        assertEquals("true", feature.getWlpInformation().getSingleton());
+        assertEquals(Arrays.asList("com.ibm.websphere.appserver.jaxrs-2.1"), feature.getWlpInformation().getProvideFeature());
+        assertEquals(Arrays.asList("com.ibm.websphere.appserver.servlet-4.0"), feature.getWlpInformation().getRequireFeature());
+        assertNull(feature.getWlpInformation().getJavaSEVersionRequirements());
+    }
+
+    @Test
+    public void testInvalidFeatureList() {
+        assertThrows(JsonParseException.class, () -> FeatureListReader.readPublicFeatures(new StringReader("{\"name\":")));
+    }
+
+    @Test
+    public void testReadFeatureInfo() throws IOException {
+        String featureList = "<?xml version=\"1.0\" encoding=\"UTF-8\"?>\n"
+                + "<featureInfo name=\"Open Liberty\">\n"
+                + "  <feature name=\"jaxrs-2.1\">\n"
+                + "    <symbolicName>com.ibm.websphere.appserver.jaxrs-2.1</symbolicName>\n"
+                + "    <description>This feature enables support for JAX-RS 2.1.</description>\n"
+                + "    <include symbolicName=\"com.ibm.websphere.appserver.servlet-4.0\"><tolerates>3.1</tolerates></include>\n"
+                + "  </feature>\n"
+                + "  <autoFeature name=\"private\"/>\n"
+                + "  <feature name=\"cdi-2.0\"/>\n"
+                + "</featureInfo>";
+        FeatureInfo featureInfo = FeatureInfoReader.readFeatureInfo(new ByteArrayInputStream(featureList.getBytes(StandardCharsets.UTF_8)));
+        assertEquals(2, featureInfo.getFeatures().size());
+        assertEquals("jaxrs-2.1", featureInfo.getFeatures().get(0).getName());
+        assertEquals("This feature enables support for JAX-RS 2.1.", featureInfo.getFeatures().get(0).getDescription());
+        assertEquals("cdi-2.0", featureInfo.getFeatures().get(1).getName());
+        assertNull(featureInfo.getFeatures().get(1).getDescription());
+
+        assertThrows(IOException.class, () -> FeatureInfoReader.readFeatureInfo(new ByteArrayInputStream("<server/>".getBytes(StandardCharsets.UTF_8))));
+    }
+}
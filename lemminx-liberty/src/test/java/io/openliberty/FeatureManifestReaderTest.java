@@ -0,0 +1,73 @@
+package io.openliberty;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+
+import io.openliberty.tools.langserver.lemminx.models.feature.Feature;
+import io.openliberty.tools.langserver.lemminx.services.FeatureManifestReader;
+
+public class FeatureManifestReaderTest {
+
+    private static final String JAXRS_MANIFEST = "Subsystem-ManifestVersion: 1\n"
+            + "IBM-ShortName: jaxrs-2.1\n"
+            + "Subsystem-SymbolicName: com.ibm.websphere.appserver.jaxrs-2.1; visibility:=public; singleton:=true\n"
+            + "Subsystem-Version: 1.0.0\n"
+            + "Subsystem-Localization: OSGI-INF/l10n/com.ibm.websphere.appserver.jaxrs-2.1\n"
+            + "Subsystem-Description: %description\n"
+            + "Subsystem-Content: com.ibm.websphere.appserver.servlet-4.0; type=\"osgi.subsystem.feature\"; ibm.tol\n"
+            + " erates:=\"3.1,5.0\", com.ibm.ws.jaxrs.2.1.common; version=\"[1,1.0.100)\", com.ibm.webs\n"
+            + " phere.appserver.jaxrsClient-2.1; type=\"osgi.subsystem.feature\"\n";
+
+    private static final String PRIVATE_MANIFEST = "Subsystem-ManifestVersion: 1\n"
+            + "IBM-ShortName: jaxrsClient-2.1\n"
+            + "Subsystem-SymbolicName: com.ibm.websphere.appserver.jaxrsClient-2.1; visibility:=private\n";
+
+    private static final String USER_MANIFEST = "Subsystem-ManifestVersion: 1\n"
+            + "IBM-ShortName: myFeature-1.0\n"
+            + "Subsystem-SymbolicName: my.feature-1.0; visibility:=public\n"
+            + "Subsystem-Name: My feature";
+
+    @Test
+    public void testReadInstalledFeatures() throws IOException {
+        Path installDir = Files.createTempDirectory("wlp");
+        Path featuresDir = Files.createDirectories(installDir.resolve("lib/features"));
+        Path userFeaturesDir = Files.createDirectories(installDir.resolve("usr/extension/lib/features"));
+        Files.write(featuresDir.resolve("com.ibm.websphere.appserver.jaxrs-2.1.mf"), JAXRS_MANIFEST.getBytes(StandardCharsets.UTF_8));
+        Files.write(featuresDir.resolve("com.ibm.websphere.appserver.jaxrsClient-2.1.mf"), PRIVATE_MANIFEST.getBytes(StandardCharsets.UTF_8));
+        Files.write(userFeaturesDir.resolve("my.feature-1.0.mf"), USER_MANIFEST.getBytes(StandardCharsets.UTF_8));
+        Files.createDirectories(featuresDir.resolve("l10n"));
+        Files.write(featuresDir.resolve("l10n/com.ibm.websphere.appserver.jaxrs-2.1.properties"),
+                "description=This feature enables support for JAX-RS 2.1.\n".getBytes(StandardCharsets.ISO_8859_1));
+
+        List<Feature> features = FeatureManifestReader.readInstalledFeatures(installDir);
+        assertEquals(2, features.size());
+
+        Feature jaxrs = features.get(0);
+        assertEquals("jaxrs-2.1", jaxrs.getName());
+        assertEquals("jaxrs-2.1", jaxrs.getWlpInformation().getShortName());
+        assertEquals("This feature enables support for JAX-RS 2.1.", jaxrs.getShortDescription());
+        assertEquals("true", jaxrs.getWlpInformation().getSingleton());
+        assertEquals(Arrays.asList("com.ibm.websphere.appserver.jaxrs-2.1"), jaxrs.getWlpInformation().getProvideFeature());
+        assertEquals(Arrays.asList("com.ibm.websphere.appserver.servlet-4.0", "com.ibm.websphere.appserver.jaxrsClient-2.1"),
+                jaxrs.getWlpInformation().getRequireFeature());
+
+        Feature userFeature = features.get(1);
+        assertEquals("usr:myFeature-1.0", userFeature.getName());
+        assertEquals("My feature", userFeature.getShortDescription());
+        assertEquals("false", userFeature.getWlpInformation().getSingleton());
+    }
+
+    @Test
+    public void testNoFeatureManifests() throws IOException {
+        assertTrue(FeatureManifestReader.readInstalledFeatures(Files.createTempDirectory("wlp")).isEmpty());
+    }
+}
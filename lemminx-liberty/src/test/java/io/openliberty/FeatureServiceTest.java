@@ -0,0 +1,317 @@
+package io.openliberty;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InterruptedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.jar.Attributes;
+import java.util.jar.JarEntry;
+import java.util.jar.JarOutputStream;
+import java.util.jar.Manifest;
+import java.util.logging.Handler;
+import java.util.logging.Level;
+import java.util.logging.LogRecord;
+import java.util.logging.Logger;
+
+import com.google.gson.Gson;
+import com.google.gson.JsonObject;
+
+import org.eclipse.lsp4j.WorkspaceFolder;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import io.openliberty.tools.langserver.lemminx.models.feature.Feature;
+import io.openliberty.tools.langserver.lemminx.services.FeatureCatalog;
+import io.openliberty.tools.langserver.lemminx.services.FeatureCatalogSource;
+import io.openliberty.tools.langserver.lemminx.services.FeatureService;
+import io.openliberty.tools.langserver.lemminx.services.InstalledFeatureListStore;
+import io.openliberty.tools.langserver.lemminx.services.LibertyProjectsManager;
+import io.openliberty.tools.langserver.lemminx.services.SettingsService;
+import io.openliberty.tools.langserver.lemminx.util.LibertyUtils;
+
+public class FeatureServiceTest {
+
+    // a version that no catalog source has
+    private static final String LIBERTY_VERSION = "22.0.0.99";
+    // versions that only the catalog sources of the tests have
+    private static final String RACE_VERSION = "98.0.0.1";
+    private static final String TIMEOUT_VERSION = "98.0.0.2";
+
+    // before Maven Central, the test sources answer quickly for the other versions
+    private static final int SOURCE_PRIORITY = FeatureCatalogSource.MAVEN_CENTRAL_PRIORITY - 50;
+
+    private static final String JAXRS_MANIFEST = "Subsystem-ManifestVersion: 1\n"
+            + "IBM-ShortName: jaxrs-2.1\n"
+            + "Subsystem-SymbolicName: com.ibm.websphere.appserver.jaxrs-2.1; visibility:=public; singleton:=true\n";
+
+    private static final String FEATURE_LIST = "<featureInfo name=\"Open Liberty\">\n"
+            + "  <feature name=\"jaxrs-2.1\">\n"
+            + "    <description>This feature enables support for JAX-RS 2.1.</description>\n"
+            + "  </feature>\n"
+            + "</featureInfo>";
+
+    @AfterEach
+    public void tearDown() {
+        FeatureService.getInstance().setRevalidationHandler(null);
+        SettingsService.getInstance().updateLibertySettings(new Gson().fromJson("{\"liberty\": {}}", JsonObject.class));
+        LibertyProjectsManager.getInstance().cleanInstance();
+    }
+
+    @Test
+    public void testInstalledFeaturesRevalidatedOnce() throws IOException, InterruptedException {
+        String documentURI = createOfflineWorkspace();
+
+        FeatureService featureService = FeatureService.getInstance();
+        AtomicInteger revalidations = new AtomicInteger();
+        CountDownLatch firstRevalidation = new CountDownLatch(1);
+        CountDownLatch secondRevalidation = new CountDownLatch(2);
+        FeatureCatalog[] revalidatedCatalog = new FeatureCatalog[1];
+        featureService.setRevalidationHandler(documentURIs -> {
+            assertEquals(Collections.singletonList(documentURI), documentURIs);
+            revalidations.incrementAndGet();
+            // validate the document again, like the extension does
+            revalidatedCatalog[0] = featureService.getFeatureCatalog(LIBERTY_VERSION, "ol", 0, documentURI);
+            firstRevalidation.countDown();
+            secondRevalidation.countDown();
+        });
+
+        // answered with a fallback catalog while the installed features are loaded
+        featureService.getFeatureCatalog(LIBERTY_VERSION, "ol", 0, documentURI);
+        assertTrue(firstRevalidation.await(30, TimeUnit.SECONDS));
+        assertTrue(revalidatedCatalog[0].hasFeature("jaxrs-2.1"));
+
+        // the document was answered with the installed features, loading them again does not revalidate it
+        assertFalse(secondRevalidation.await(2, TimeUnit.SECONDS));
+        assertEquals(1, revalidations.get());
+    }
+
+    @Test
+    public void testInstalledFeaturesNotReloaded() throws IOException, InterruptedException {
+        String documentURI = createOfflineWorkspace();
+        FeatureService featureService = FeatureService.getInstance();
+        CountDownLatch revalidation = new CountDownLatch(1);
+        featureService.setRevalidationHandler(documentURIs -> revalidation.countDown());
+        featureService.getFeatureCatalog(LIBERTY_VERSION, "ol", 0, documentURI);
+        assertTrue(revalidation.await(30, TimeUnit.SECONDS));
+        FeatureCatalog installedCatalog = LibertyProjectsManager.getInstance().getWorkspaceFolder(documentURI).getInstalledFeatureCatalog();
+
+        // the catalog sources are neither probed nor loaded in the background again
+        List<String> messages = new ArrayList<>();
+        Handler handler = new Handler() {
+            @Override
+            public void publish(LogRecord record) {
+                messages.add(record.getMessage());
+            }
+
+            @Override
+            public void flush() {
+            }
+
+            @Override
+            public void close() {
+            }
+        };
+        handler.setLevel(Level.ALL);
+        Logger logger = Logger.getLogger(FeatureService.class.getName());
+        Level level = logger.getLevel();
+        logger.setLevel(Level.FINE);
+        logger.addHandler(handler);
+        try {
+            for (int i = 0; i < 10; i++) {
+                assertSame(installedCatalog, featureService.getFeatureCatalog(LIBERTY_VERSION, "ol", 0, documentURI));
+            }
+        } finally {
+            logger.removeHandler(handler);
+            logger.setLevel(level);
+        }
+        assertTrue(messages.stream().noneMatch(message -> message.startsWith("Getting features for: ")
+                || message.startsWith("Offline, not fetching features")), messages.toString());
+    }
+
+    @Test
+    public void testLosingSourceInterrupted() throws Exception {
+        FeatureCatalog catalog = FeatureService.getInstance().getFeatureCatalogAsync(RACE_VERSION, "ol", 0, null).get(30, TimeUnit.SECONDS);
+        assertEquals(RACE_VERSION, catalog.getLibertyVersion());
+        assertTrue(catalog.hasFeature("jaxrs-2.1"));
+        // the slow source is stopped once the fast source answered
+        assertTrue(SlowSource.INTERRUPTED.get(RACE_VERSION).await(10, TimeUnit.SECONDS));
+    }
+
+    @Test
+    public void testTimedOutSourceInterrupted() throws Exception {
+        // the fast source only answers once the slow source is stopped after its timeout
+        FeatureCatalog catalog = FeatureService.getInstance().getFeatureCatalogAsync(TIMEOUT_VERSION, "ol", 0, null).get(30, TimeUnit.SECONDS);
+        assertEquals(TIMEOUT_VERSION, catalog.getLibertyVersion());
+        assertTrue(catalog.hasFeature("jaxrs-2.1"));
+    }
+
+    /**
+     * Catalog source of the tests that races the slow source, registered with the
+     * ServiceLoader. It has no features for the other versions.
+     */
+    public static class FastSource implements FeatureCatalogSource {
+
+        @Override
+        public String getName() {
+            return "fast test source";
+        }
+
+        @Override
+        public int getPriority() {
+            return SOURCE_PRIORITY;
+        }
+
+        @Override
+        public List<Feature> loadFeatures(String libertyRuntime, String libertyVersion) throws IOException {
+            try {
+                if (RACE_VERSION.equals(libertyVersion)) {
+                    SlowSource.STARTED.get(RACE_VERSION).await(10, TimeUnit.SECONDS);
+                } else if (TIMEOUT_VERSION.equals(libertyVersion)) {
+                    if (!SlowSource.INTERRUPTED.get(TIMEOUT_VERSION).await(10, TimeUnit.SECONDS)) {
+                        return null;
+                    }
+                } else {
+                    return null;
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new InterruptedIOException();
+            }
+            return new ArrayList<>(Collections.singletonList(FeatureCatalogTest.feature("jaxrs-2.1")));
+        }
+    }
+
+    /**
+     * Catalog source of the tests that never answers, until its thread is interrupted
+     */
+    public static class SlowSource implements FeatureCatalogSource {
+
+        static final Map<String, CountDownLatch> STARTED = Map.of(RACE_VERSION, new CountDownLatch(1), TIMEOUT_VERSION, new CountDownLatch(1));
+        static final Map<String, CountDownLatch> INTERRUPTED = Map.of(RACE_VERSION, new CountDownLatch(1), TIMEOUT_VERSION, new CountDownLatch(1));
+
+        @Override
+        public String getName() {
+            return "slow test source";
+        }
+
+        @Override
+        public int getPriority() {
+            return SOURCE_PRIORITY;
+        }
+
+        @Override
+        public long getTimeout() {
+            return 1000;
+        }
+
+        @Override
+        public List<Feature> loadFeatures(String libertyRuntime, String libertyVersion) throws IOException {
+            if (!STARTED.containsKey(libertyVersion)) {
+                return null;
+            }
+            STARTED.get(libertyVersion).countDown();
+            try {
+                Thread.sleep(TimeUnit.MINUTES.toMillis(1));
+            } catch (InterruptedException e) {
+                INTERRUPTED.get(libertyVersion).countDown();
+                Thread.currentThread().interrupt();
+                throw new InterruptedIOException();
+            }
+            return null;
+        }
+    }
+
+    @Test
+    public void testFeatureListGenerated() throws IOException, InterruptedException {
+        Path root = Files.createTempDirectory("workspace");
+        Path installDir = root.resolve("target/liberty/wlp");
+        createFeatureListJar(Files.createDirectories(installDir.resolve("bin/tools")).resolve("ws-featurelist.jar"));
+        // no feature manifest can be read, ws-featurelist.jar has to be run; the unique file keeps
+        // the feature lists stored by other runs from being found
+        Path featuresDir = Files.createDirectories(installDir.resolve("lib/features"));
+        Files.write(featuresDir.resolve(UUID.randomUUID() + ".txt"), "not a manifest".getBytes(StandardCharsets.UTF_8));
+        SettingsService.getInstance().updateLibertySettings(new Gson().fromJson("{\"liberty\": {\"offline\": true}}", JsonObject.class));
+        LibertyProjectsManager.getInstance().setWorkspaceFolders(Collections.singletonList(new WorkspaceFolder(root.toUri().toString())));
+        String documentURI = root.resolve("src/main/liberty/config/server.xml").toUri().toString();
+
+        FeatureService featureService = FeatureService.getInstance();
+        CountDownLatch revalidation = new CountDownLatch(1);
+        featureService.setRevalidationHandler(documentURIs -> revalidation.countDown());
+        featureService.getFeatureCatalog(LIBERTY_VERSION, "ol", 0, documentURI);
+        assertTrue(revalidation.await(30, TimeUnit.SECONDS));
+
+        FeatureCatalog installedCatalog = featureService.getFeatureCatalog(LIBERTY_VERSION, "ol", 0, documentURI);
+        assertTrue(installedCatalog.hasFeature("jaxrs-2.1"));
+        assertEquals(1, installedCatalog.size());
+
+        // the generated feature list is stored for the runtime
+        Path generatedFeatureList = LibertyUtils.getTempDir(LibertyProjectsManager.getInstance().getWorkspaceFolder(documentURI)).toPath()
+                .resolve("featurelist-ol-" + LIBERTY_VERSION + ".xml");
+        assertTrue(Files.isRegularFile(generatedFeatureList), "Did not find generated featurelist file: " + generatedFeatureList);
+        Path storedFeatureList = new InstalledFeatureListStore().read(InstalledFeatureListStore.fingerprint(installDir, "ol", LIBERTY_VERSION));
+        assertNotNull(storedFeatureList);
+        assertArrayEquals(Files.readAllBytes(generatedFeatureList), Files.readAllBytes(storedFeatureList));
+    }
+
+    /**
+     * Stands in for ws-featurelist.jar, writes the feature list to the file given as argument
+     */
+    public static class FeatureListGenerator {
+        public static void main(String[] args) throws IOException {
+            Files.write(Paths.get(args[0]), FEATURE_LIST.getBytes(StandardCharsets.UTF_8));
+        }
+    }
+
+    private static void createFeatureListJar(Path jar) throws IOException {
+        Manifest manifest = new Manifest();
+        manifest.getMainAttributes().put(Attributes.Name.MANIFEST_VERSION, "1.0");
+        manifest.getMainAttributes().put(Attributes.Name.MAIN_CLASS, FeatureListGenerator.class.getName());
+        String classFile = FeatureListGenerator.class.getName().replace('.', '/') + ".class";
+        try (JarOutputStream out = new JarOutputStream(Files.newOutputStream(jar), manifest);
+                InputStream in = FeatureListGenerator.class.getClassLoader().getResourceAsStream(classFile)) {
+            out.putNextEntry(new JarEntry(classFile));
+            byte[] buffer = new byte[8192];
+            for (int read; (read = in.read(buffer)) != -1;) {
+                out.write(buffer, 0, read);
+            }
+            out.closeEntry();
+        }
+    }
+
+    /**
+     * Creates a workspace with an installed runtime that no catalog source has, with
+     * the client offline so that the installed features are loaded
+     *
+     * @return URI of the server.xml of the workspace
+     */
+    private static String createOfflineWorkspace() throws IOException {
+        Path root = Files.createTempDirectory("workspace");
+        Path installDir = root.resolve("target/liberty/wlp");
+        Files.createDirectories(installDir.resolve("bin/tools"));
+        Files.createFile(installDir.resolve("bin/tools/ws-featurelist.jar"));
+        Path featuresDir = Files.createDirectories(installDir.resolve("lib/features"));
+        Files.write(featuresDir.resolve("com.ibm.websphere.appserver.jaxrs-2.1.mf"), JAXRS_MANIFEST.getBytes(StandardCharsets.UTF_8));
+
+        SettingsService.getInstance().updateLibertySettings(new Gson().fromJson("{\"liberty\": {\"offline\": true}}", JsonObject.class));
+        LibertyProjectsManager.getInstance().setWorkspaceFolders(Collections.singletonList(new WorkspaceFolder(root.toUri().toString())));
+        return root.resolve("src/main/liberty/config/server.xml").toUri().toString();
+    }
+}
@@ -0,0 +1,73 @@
+package io.openliberty;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.junit.jupiter.api.Test;
+
+import io.openliberty.tools.langserver.lemminx.services.FetchBackoff;
+
+public class FetchBackoffTest {
+
+    private final AtomicLong now = new AtomicLong(1000000);
+    // no jitter, always the full delay
+    private final FetchBackoff backoff = new FetchBackoff(now::get, () -> 1.0);
+
+    @Test
+    public void testBackoffIsPerKey() {
+        assertTrue(backoff.tryAcquire("ol-22.0.0.6"));
+        backoff.onFailure("ol-22.0.0.6", 1000, false);
+        assertTrue(backoff.isBackingOff("ol-22.0.0.6"));
+        assertFalse(backoff.tryAcquire("ol-22.0.0.6"));
+        // other versions are not blocked
+        assertFalse(backoff.isBackingOff("ol-22.0.0.7"));
+        assertTrue(backoff.tryAcquire("ol-22.0.0.7"));
+        backoff.onSuccess("ol-22.0.0.7");
+        assertFalse(backoff.tryAcquire("ol-22.0.0.6"));
+
+        now.addAndGet(1000);
+        assertTrue(backoff.tryAcquire("ol-22.0.0.6"));
+        backoff.onFailure("ol-22.0.0.6", 1000, false);
+        // exponentially longer after each failure
+        assertEquals(now.get() + 2000, backoff.getNextAttempt("ol-22.0.0.6"));
+
+        now.addAndGet(2000);
+        assertTrue(backoff.tryAcquire("ol-22.0.0.6"));
+        backoff.onSuccess("ol-22.0.0.6");
+        assertEquals(0, backoff.getNextAttempt("ol-22.0.0.6"));
+    }
+
+    @Test
+    public void testCircuitBreaker() {
+        for (int i = 0; i < 3; i++) {
+            assertTrue(backoff.tryAcquire("ol-22.0.0." + i));
+            backoff.onFailure("ol-22.0.0." + i, 1000, true);
+        }
+        assertTrue(backoff.isCircuitOpen());
+        // no version is fetched while the network is unreachable
+        assertFalse(backoff.tryAcquire("ol-22.0.0.9"));
+
+        assertTrue(backoff.isBackingOff("ol-22.0.0.9"));
+
+        // a single trial once the breaker has been open for a while
+        now.addAndGet(10000);
+        assertFalse(backoff.isBackingOff("ol-22.0.0.9"));
+        assertTrue(backoff.tryAcquire("ol-22.0.0.9"));
+        assertTrue(backoff.isBackingOff("ol-22.0.0.8"));
+        assertFalse(backoff.tryAcquire("ol-22.0.0.8"));
+        backoff.onFailure("ol-22.0.0.9", 1000, true);
+
+        // open twice as long after a failed trial
+        now.addAndGet(10000);
+        assertFalse(backoff.tryAcquire("ol-22.0.0.8"));
+        now.addAndGet(10000);
+        assertTrue(backoff.tryAcquire("ol-22.0.0.8"));
+        backoff.onSuccess("ol-22.0.0.8");
+
+        assertFalse(backoff.isCircuitOpen());
+        assertTrue(backoff.tryAcquire("ol-22.0.0.7"));
+    }
+}
@@ -0,0 +1,92 @@
+package io.openliberty;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.attribute.FileTime;
+
+import org.junit.jupiter.api.Test;
+
+import io.openliberty.tools.langserver.lemminx.services.InstalledFeatureListStore;
+
+public class InstalledFeatureListStoreTest {
+
+    private static final String JAXRS_MANIFEST = "Subsystem-ManifestVersion: 1\n"
+            + "IBM-ShortName: jaxrs-2.1\n"
+            + "Subsystem-SymbolicName: com.ibm.websphere.appserver.jaxrs-2.1; visibility:=public; singleton:=true\n";
+
+    @Test
+    public void testStoredFeatureList() throws IOException {
+        InstalledFeatureListStore store = new InstalledFeatureListStore(Files.createTempDirectory("installed"));
+        Path installDir = createRuntime(Files.createTempDirectory("workspace"));
+
+        String fingerprint = store.getFingerprint(installDir, "ol", "22.0.0.6");
+        assertNotNull(fingerprint);
+        assertNull(store.read(fingerprint));
+        assertNotNull(store.write(fingerprint, createFeatureList()));
+
+        // the fingerprint is kept, the stored feature list is found again
+        assertEquals(fingerprint, store.getFingerprint(installDir, "ol", "22.0.0.6"));
+        Path storedFeatureList = store.read(fingerprint);
+        assertNotNull(storedFeatureList);
+        assertEquals("<featureInfo/>", new String(Files.readAllBytes(storedFeatureList), StandardCharsets.UTF_8));
+    }
+
+    @Test
+    public void testFeatureManifestModified() throws IOException {
+        InstalledFeatureListStore store = new InstalledFeatureListStore(Files.createTempDirectory("installed"));
+        Path installDir = createRuntime(Files.createTempDirectory("workspace"));
+        String fingerprint = store.getFingerprint(installDir, "ol", "22.0.0.6");
+        store.write(fingerprint, createFeatureList());
+
+        Path manifest = installDir.resolve("lib/features/com.ibm.websphere.appserver.jaxrs-2.1.mf");
+        Files.setLastModifiedTime(manifest, FileTime.fromMillis(Files.getLastModifiedTime(manifest).toMillis() + 60000));
+        // the change is not seen until the runtime is invalidated
+        assertEquals(fingerprint, store.getFingerprint(installDir, "ol", "22.0.0.6"));
+
+        store.invalidate(installDir);
+        String newFingerprint = store.getFingerprint(installDir, "ol", "22.0.0.6");
+        assertNotEquals(fingerprint, newFingerprint);
+        assertNull(store.read(newFingerprint));
+    }
+
+    @Test
+    public void testRuntimeSharedByWorkspaces() throws IOException {
+        InstalledFeatureListStore store = new InstalledFeatureListStore(Files.createTempDirectory("installed"));
+        Path installDir = createRuntime(Files.createTempDirectory("workspace"));
+        // the same runtime unpacked in another workspace
+        Path otherInstallDir = Files.createTempDirectory("workspace").resolve("target/liberty/wlp");
+        Path manifest = installDir.resolve("lib/features/com.ibm.websphere.appserver.jaxrs-2.1.mf");
+        Files.createDirectories(otherInstallDir.resolve("lib/features"));
+        Files.copy(manifest, otherInstallDir.resolve("lib/features").resolve(manifest.getFileName()), StandardCopyOption.COPY_ATTRIBUTES);
+
+        String fingerprint = store.getFingerprint(installDir, "ol", "22.0.0.6");
+        store.write(fingerprint, createFeatureList());
+
+        String otherFingerprint = store.getFingerprint(otherInstallDir, "ol", "22.0.0.6");
+        assertEquals(fingerprint, otherFingerprint);
+        assertNotNull(store.read(otherFingerprint));
+        // other versions are not shared
+        assertNotEquals(fingerprint, store.getFingerprint(otherInstallDir, "ol", "22.0.0.7"));
+    }
+
+    private static Path createRuntime(Path workspace) throws IOException {
+        Path installDir = workspace.resolve("target/liberty/wlp");
+        Path featuresDir = Files.createDirectories(installDir.resolve("lib/features"));
+        Files.write(featuresDir.resolve("com.ibm.websphere.appserver.jaxrs-2.1.mf"), JAXRS_MANIFEST.getBytes(StandardCharsets.UTF_8));
+        return installDir;
+    }
+
+    private static Path createFeatureList() throws IOException {
+        Path featureList = Files.createTempFile("featurelist", ".xml");
+        Files.write(featureList, "<featureInfo/>".getBytes(StandardCharsets.UTF_8));
+        return featureList;
+    }
+}
@@ -2,9 +2,24 @@ package io.openliberty;
 
 import org.eclipse.lemminx.XMLAssert;
 import org.eclipse.lemminx.commons.BadLocationException;
+import org.eclipse.lemminx.dom.DOMDocument;
+import org.eclipse.lemminx.dom.DOMParser;
+import org.eclipse.lemminx.services.XMLLanguageService;
+import org.eclipse.lemminx.settings.SharedSettings;
 import org.eclipse.lsp4j.CompletionItem;
+import org.eclipse.lsp4j.CompletionList;
 import org.junit.jupiter.api.Test;
 
+import io.openliberty.tools.langserver.lemminx.services.FeatureService;
+
+import java.util.List;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
 import static org.eclipse.lemminx.XMLAssert.*;
 
 public class LibertyCompletionTest {
@@ -82,4 +97,67 @@ public class LibertyCompletionTest {
                                 microProfileCompletion);
         }
 
+        // Tests that feature completion is filtered by the typed prefix, ignoring case
+        @Test
+        public void testFeatureCompletionItemPrefix() throws BadLocationException {
+                String serverXML = String.join(newLine, //
+                                "<server description=\"Sample Liberty server\">", //
+                                "       <featureManager>", //
+                                "               <feature>MPConfig-|</feature>", //
+                                "               <feature>mpConfig-1.4</feature>", //
+                                "       </featureManager>", //
+                                "</server>" //
+                );
+                int offset = serverXML.indexOf('|');
+                serverXML = serverXML.substring(0, offset) + serverXML.substring(offset + 1);
+
+                XMLLanguageService xmlLanguageService = new XMLLanguageService();
+                DOMDocument document = DOMParser.getInstance().parse(serverXML, serverXMLURI, null);
+                CompletionList completionList = xmlLanguageService.doComplete(document, document.positionAt(offset), new SharedSettings());
+                List<String> labels = completionList.getItems().stream().map(CompletionItem::getLabel).collect(Collectors.toList());
+
+                // every mpConfig feature but the one already specified
+                long mpConfigFeatures = FeatureService.getInstance().getFeatureCatalog(null, null, 0, null).getFeatures().stream() //
+                                .filter(feature -> feature.getWlpInformation().getShortName().startsWith("mpConfig-")) //
+                                .count();
+                assertEquals(mpConfigFeatures - 1, labels.size(), labels.toString());
+                assertTrue(labels.contains("mpConfig-1.3"));
+                assertFalse(labels.contains("mpConfig-1.4"));
+                assertFalse(labels.contains("jaxrs-2.1"));
+                // the client asks for new items as the typed text changes
+                assertTrue(completionList.isIncomplete());
+        }
+
+        // Tests that the description of a feature is added to its completion item
+        // when the item is resolved
+        @Test
+        public void testFeatureCompletionItemResolve() throws BadLocationException {
+                String serverXML = String.join(newLine, //
+                                "<server description=\"Sample Liberty server\">", //
+                                "       <featureManager>", //
+                                "               <feature>jaxrs-2.|</feature>", //
+                                "       </featureManager>", //
+                                "</server>" //
+                );
+                int offset = serverXML.indexOf('|');
+                serverXML = serverXML.substring(0, offset) + serverXML.substring(offset + 1);
+
+                XMLLanguageService xmlLanguageService = new XMLLanguageService();
+                SharedSettings sharedSettings = new SharedSettings();
+                DOMDocument document = DOMParser.getInstance().parse(serverXML, serverXMLURI, null);
+                CompletionList completionList = xmlLanguageService.doComplete(document, document.positionAt(offset), sharedSettings);
+                CompletionItem jaxrsCompletion = completionList.getItems().stream() //
+                                .filter(item -> "jaxrs-2.1".equals(item.getLabel())) //
+                                .findFirst().get();
+                // the description is only sent when the item is resolved
+                assertNull(jaxrsCompletion.getDocumentation());
+
+                CompletionItem resolved = xmlLanguageService.resolveCompletionItem(jaxrsCompletion, document, sharedSettings, () -> {
+                });
+                assertEquals("This feature enables support for Java API for RESTful Web Services v2.1.  "
+                                + "JAX-RS annotations can be used to define web service clients and endpoints that comply with the REST architectural style. "
+                                + "Endpoints are accessed through a common interface that is based on the HTTP standard methods.",
+                                resolved.getDocumentation().getLeft());
+        }
+
 }
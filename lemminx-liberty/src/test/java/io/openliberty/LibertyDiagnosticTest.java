@@ -1,20 +1,32 @@
 package io.openliberty;
 
+import com.google.gson.Gson;
+import com.google.gson.JsonObject;
+
 import org.eclipse.lemminx.XMLAssert;
+import org.eclipse.lemminx.dom.DOMDocument;
+import org.eclipse.lemminx.dom.DOMParser;
 import org.eclipse.lsp4j.Diagnostic;
+import org.eclipse.lsp4j.DiagnosticSeverity;
+import org.eclipse.lsp4j.DiagnosticTag;
 import org.eclipse.lsp4j.WorkspaceFolder;
 import org.junit.jupiter.api.Test;
 
+import io.openliberty.tools.langserver.lemminx.LibertyDiagnosticParticipant;
 import io.openliberty.tools.langserver.lemminx.services.LibertyProjectsManager;
 import io.openliberty.tools.langserver.lemminx.services.LibertyWorkspace;
+import io.openliberty.tools.langserver.lemminx.services.SettingsService;
 
 import static org.eclipse.lemminx.XMLAssert.r;
+import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 
 import java.io.File;
 import java.io.IOException;
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.List;
 import java.util.Collection;
 
@@ -85,6 +97,122 @@ public class LibertyDiagnosticTest {
         XMLAssert.testDiagnosticsFor(serverXML, null, null, serverXMLURI, null);
     }
 
+    @Test
+    public void testRedundantFeatureDiagnostic() {
+        String serverXML = String.join(newLine, //
+                "<server description=\"Sample Liberty server\">", //
+                "       <featureManager>", //
+                "               <feature>microProfile-2.2</feature>", //
+                "               <feature>jaxrs-2.1</feature>", //
+                "       </featureManager>", //
+                "</server>" //
+        );
+
+        Diagnostic redundant = new Diagnostic();
+        redundant.setRange(r(3, 24, 3, 33));
+        redundant.setCode(LibertyDiagnosticParticipant.REDUNDANT_FEATURE_CODE);
+        redundant.setMessage("WARNING: jaxrs-2.1 is already included by microProfile-2.2.");
+
+        XMLAssert.testDiagnosticsFor(serverXML, null, null, serverXMLURI, redundant);
+
+        Diagnostic diagnostic = validate(serverXML).get(0);
+        assertEquals(DiagnosticSeverity.Warning, diagnostic.getSeverity());
+        assertEquals(Collections.singletonList(DiagnosticTag.Unnecessary), diagnostic.getTags());
+    }
+
+    @Test
+    public void testConflictingFeatureDiagnostic() {
+        String serverXML = String.join(newLine, //
+                "<server description=\"Sample Liberty server\">", //
+                "       <featureManager>", //
+                "               <feature>jaxrs-2.1</feature>", //
+                "               <feature>jaxrs-2.0</feature>", //
+                "       </featureManager>", //
+                "</server>" //
+        );
+
+        Diagnostic conflict = new Diagnostic();
+        conflict.setRange(r(3, 24, 3, 33));
+        conflict.setCode(LibertyDiagnosticParticipant.CONFLICTING_FEATURE_CODE);
+        conflict.setMessage("ERROR: jaxrs-2.0 conflicts with jaxrs-2.1. Only one version of jaxrs can be enabled.");
+
+        XMLAssert.testDiagnosticsFor(serverXML, null, null, serverXMLURI, conflict);
+        assertEquals(DiagnosticSeverity.Error, validate(serverXML).get(0).getSeverity());
+
+        // the conflicting version is enabled by a convenience feature
+        serverXML = String.join(newLine, //
+                "<server description=\"Sample Liberty server\">", //
+                "       <featureManager>", //
+                "               <feature>microProfile-2.2</feature>", //
+                "               <feature>mpConfig-1.4</feature>", //
+                "       </featureManager>", //
+                "</server>" //
+        );
+
+        Diagnostic includedConflict = new Diagnostic();
+        includedConflict.setRange(r(3, 24, 3, 36));
+        includedConflict.setCode(LibertyDiagnosticParticipant.CONFLICTING_FEATURE_CODE);
+        includedConflict.setMessage("ERROR: mpConfig-1.4 conflicts with mpConfig-1.3 included by microProfile-2.2. Only one version of mpConfig can be enabled.");
+
+        XMLAssert.testDiagnosticsFor(serverXML, null, null, serverXMLURI, includedConflict);
+        assertEquals(DiagnosticSeverity.Error, validate(serverXML).get(0).getSeverity());
+    }
+
+    @Test
+    public void testCompatibleFeaturesDiagnostic() {
+        String serverXML = String.join(newLine, //
+                "<server description=\"Sample Liberty server\">", //
+                "       <featureManager>", //
+                "               <feature>webProfile-8.0</feature>", //
+                "               <feature>jaxrs-2.1</feature>", //
+                "               <feature>jsonb-1.0</feature>", //
+                "               <feature>mpConfig-1.4</feature>", //
+                "               <feature>mpHealth-2.2</feature>", //
+                "       </featureManager>", //
+                "</server>" //
+        );
+
+        // features enabled together without other versions are not conflicts
+        for (Diagnostic diagnostic : validate(serverXML)) {
+            assertNotEquals(DiagnosticSeverity.Error, diagnostic.getSeverity(), diagnostic.getMessage());
+            assertEquals(LibertyDiagnosticParticipant.REDUNDANT_FEATURE_CODE, diagnostic.getCode().getLeft());
+        }
+    }
+
+    @Test
+    public void testUpgradeRemovedFeatureDiagnostic() throws IOException {
+        String serverXML = String.join(newLine, //
+                "<server description=\"Sample Liberty server\">", //
+                "       <featureManager>", //
+                "               <feature>jaxrs-2.1</feature>", //
+                "               <feature>mpMetrics-1.0</feature>", //
+                "       </featureManager>", //
+                "</server>" //
+        );
+
+        JsonObject settings = new JsonObject();
+        settings.addProperty("runtime", "ol");
+        settings.addProperty("version", FeatureDeltaTest.FROM_VERSION);
+        settings.addProperty("upgradeVersion", FeatureDeltaTest.TO_VERSION);
+        FeatureDeltaTest.useFeatureMirror(settings);
+        try {
+            Diagnostic removed = new Diagnostic();
+            removed.setRange(r(3, 24, 3, 37));
+            removed.setCode(LibertyDiagnosticParticipant.UPGRADE_REMOVED_FEATURE_CODE);
+            removed.setMessage("WARNING: mpMetrics-1.0 is not available in Liberty " + FeatureDeltaTest.TO_VERSION + ". Use mpMetrics-4.0 instead.");
+
+            XMLAssert.testDiagnosticsFor(serverXML, null, null, serverXMLURI, removed);
+            assertEquals(DiagnosticSeverity.Warning, validate(serverXML).get(0).getSeverity());
+
+            // nothing to report without an upgrade version
+            settings.remove("upgradeVersion");
+            FeatureDeltaTest.useFeatureMirror(settings);
+            XMLAssert.testDiagnosticsFor(serverXML, null, null, serverXMLURI, null);
+        } finally {
+            SettingsService.getInstance().updateLibertySettings(new Gson().fromJson("{\"liberty\": {}}", JsonObject.class));
+        }
+    }
+
     @Test
     public void testDiagnosticsForInclude() throws IOException {
         // LibertyWorkspace must be initialized
@@ -152,4 +280,16 @@ public class LibertyDiagnosticTest {
         assertFalse(libWorkspace.hasConfigFile("MULTI LINER"));
         assertFalse(libWorkspace.hasConfigFile("MISSING FILE.xml"));
     }
-}
\ No newline at end of file
+
+    /**
+     * Returns the diagnostics of the Liberty participant, with their severity and
+     * tags that XMLAssert does not compare
+     */
+    private static List<Diagnostic> validate(String serverXML) {
+        DOMDocument document = DOMParser.getInstance().parse(serverXML, serverXMLURI, null);
+        List<Diagnostic> diagnostics = new ArrayList<>();
+        new LibertyDiagnosticParticipant().doDiagnostics(document, diagnostics, null, () -> {
+        });
+        return diagnostics;
+    }
+}
@@ -7,12 +7,23 @@ import static org.junit.jupiter.api.Assertions.assertNull;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 
 import java.io.File;
+import java.io.IOException;
 import java.net.URI;
 import java.net.URISyntaxException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.eclipse.lsp4j.WorkspaceFolder;
 
 import org.junit.jupiter.api.Test;
 
+import io.openliberty.tools.langserver.lemminx.models.settings.DevcMetadata;
+import io.openliberty.tools.langserver.lemminx.services.LibertyProjectsManager;
 import io.openliberty.tools.langserver.lemminx.services.LibertyWorkspace;
+import io.openliberty.tools.langserver.lemminx.util.LibertyUtils;
 
 public class LibertyWorkspaceTest {
     
@@ -30,4 +41,85 @@ public class LibertyWorkspaceTest {
         // assertEquals("liberty-dev", libertyWorkspace.getContainerName());
         // assertTrue(libertyWorkspace.isContainerAlive());
     }
+
+    @Test
+    public void testUnmarshalDevcMetadataFile() {
+        DevcMetadata devcMetadata = LibertyWorkspace.unmarshalDevcMetadataFile(Paths.get("src/test/resources/server-liberty-devc-metadata.xml"));
+        assertNotNull(devcMetadata);
+        assertEquals("liberty-dev", devcMetadata.getContainerName());
+        assertFalse(devcMetadata.isContainerAlive());
+
+        assertNull(LibertyWorkspace.unmarshalDevcMetadataFile(Paths.get("src/test/resources/empty_server.xml")));
+    }
+
+    @Test
+    public void testWorkspaceFileIndex() throws IOException, InterruptedException {
+        Path root = Files.createTempDirectory("workspace");
+        Path propertiesFile = root.resolve("target/liberty/wlp/lib/versions/openliberty.properties");
+        Files.createDirectories(propertiesFile.getParent());
+        Files.createFile(propertiesFile);
+        // not searched
+        Path skippedFile = root.resolve("node_modules/liberty/lib/versions/openliberty.properties");
+        Files.createDirectories(skippedFile.getParent());
+        Files.createFile(skippedFile);
+
+        LibertyWorkspace libertyWorkspace = new LibertyWorkspace(root.toUri().toString());
+        try {
+            assertEquals(propertiesFile, LibertyUtils.findFileInWorkspace(libertyWorkspace, Paths.get("openliberty.properties")));
+            assertNull(LibertyUtils.findFileInWorkspace(libertyWorkspace, Paths.get("ws-schemagen.jar")));
+            assertTrue(libertyWorkspace.getFileIndex().findDevcMetadataFiles().isEmpty());
+
+            // the runtime is not walked, its files are looked up where the runtime keeps them
+            Path runtimeServerXml = root.resolve("target/liberty/wlp/usr/servers/defaultServer/server.xml");
+            Files.createDirectories(runtimeServerXml.getParent());
+            Files.createFile(runtimeServerXml);
+            assertEquals(runtimeServerXml, libertyWorkspace.getFileIndex().findFiles("server.xml").get(0));
+
+            // files created after the workspace was indexed are found
+            Path schemaGenJar = root.resolve("target/liberty/wlp/bin/tools/ws-schemagen.jar");
+            Files.createDirectories(schemaGenJar.getParent());
+            Files.createFile(schemaGenJar);
+            Path devcMetadata = Files.createFile(root.resolve("target/server-liberty-devc-metadata.xml"));
+            for (int i = 0; i < 100 && LibertyUtils.findFileInWorkspace(libertyWorkspace, Paths.get("bin", "tools", "ws-schemagen.jar")) == null; i++) {
+                Thread.sleep(100);
+            }
+            assertEquals(schemaGenJar, LibertyUtils.findFileInWorkspace(libertyWorkspace, Paths.get("bin", "tools", "ws-schemagen.jar")));
+            for (int i = 0; i < 100 && libertyWorkspace.getFileIndex().findDevcMetadataFiles().isEmpty(); i++) {
+                Thread.sleep(100);
+            }
+            assertEquals(devcMetadata, libertyWorkspace.getFileIndex().findDevcMetadataFiles().get(0));
+
+            // and deleted files are not
+            Files.delete(propertiesFile);
+            assertNull(LibertyUtils.findFileInWorkspace(libertyWorkspace, Paths.get("openliberty.properties")));
+        } finally {
+            libertyWorkspace.close();
+        }
+    }
+
+    @Test
+    public void testNestedWorkspaceFolders() throws IOException {
+        Path root = Files.createTempDirectory("workspaces");
+        Path parent = Files.createDirectories(root.resolve("multi"));
+        Path module = Files.createDirectories(parent.resolve("modA"));
+        Path sibling = Files.createDirectories(root.resolve("multi-other"));
+        List<WorkspaceFolder> folders = new ArrayList<>();
+        folders.add(new WorkspaceFolder(module.toUri().toString()));
+        folders.add(new WorkspaceFolder(parent.toUri().toString()));
+        LibertyProjectsManager projectsManager = LibertyProjectsManager.getInstance();
+        try {
+            projectsManager.setWorkspaceFolders(folders);
+
+            // the innermost workspace that contains the document
+            String moduleServerXml = module.resolve("src/main/liberty/config/server.xml").toUri().toString();
+            assertEquals(module.toUri().toString().replace("///", "/"), projectsManager.getWorkspaceFolder(moduleServerXml).getWorkspaceString());
+            String parentServerXml = parent.resolve("server.xml").toUri().toString();
+            assertEquals(parent.toUri().toString().replace("///", "/"), projectsManager.getWorkspaceFolder(parentServerXml).getWorkspaceString());
+            // a folder that starts with the name of a workspace is not in it
+            assertNull(projectsManager.getWorkspaceFolder(sibling.resolve("server.xml").toUri().toString()));
+            assertNull(projectsManager.getWorkspaceFolder(parent.toUri().toString().replace("///", "/").replaceAll("/$", "")));
+        } finally {
+            projectsManager.cleanInstance();
+        }
+    }
 }
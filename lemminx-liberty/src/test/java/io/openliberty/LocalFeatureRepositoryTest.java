@@ -0,0 +1,67 @@
+package io.openliberty;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import io.openliberty.tools.langserver.lemminx.services.LocalFeatureRepository;
+
+public class LocalFeatureRepositoryTest {
+
+    @TempDir
+    Path tempDir;
+
+    @Test
+    public void testFindFeatureList() throws IOException {
+        Path mirror = tempDir.resolve("mirror");
+        Path mavenRepository = tempDir.resolve("repository");
+        Path mirrored = mirror.resolve("io/openliberty/features/features/22.0.0.6/features-22.0.0.6.json");
+        Path resolved = mavenRepository.resolve("io/openliberty/features/features/22.0.0.7/features-22.0.0.7.json");
+        Path resolvedWlp = mavenRepository.resolve("com/ibm/websphere/appserver/features/features/22.0.0.6/features-22.0.0.6.json");
+        // also in the Maven repository, the mirror comes first
+        Path shadowed = mavenRepository.resolve("io/openliberty/features/features/22.0.0.6/features-22.0.0.6.json");
+        for (Path featureList : Arrays.asList(mirrored, resolved, resolvedWlp, shadowed)) {
+            Files.createDirectories(featureList.getParent());
+            Files.write(featureList, "[]".getBytes(StandardCharsets.UTF_8));
+        }
+
+        LocalFeatureRepository repository = new LocalFeatureRepository(Arrays.asList(mirror, mavenRepository));
+        assertEquals(mirrored, repository.find("ol", "22.0.0.6"));
+        assertEquals(resolved, repository.find("ol", "22.0.0.7"));
+        assertEquals(resolvedWlp, repository.find("wlp", "22.0.0.6"));
+        assertNull(repository.find("wlp", "22.0.0.7"));
+        assertNull(repository.find("ol", "../22.0.0.6"));
+        assertNull(repository.find("ol", null));
+    }
+
+    @Test
+    public void testReadLocalRepository() throws IOException {
+        Path settings = tempDir.resolve("settings.xml");
+        Files.write(settings, String.join("\n", //
+                "<?xml version=\"1.0\" encoding=\"UTF-8\"?>", //
+                "<settings xmlns=\"http://maven.apache.org/SETTINGS/1.0.0\">", //
+                "  <mirrors>", //
+                "    <mirror><localRepository>not this one</localRepository></mirror>", //
+                "  </mirrors>", //
+                "  <localRepository>${user.home}/maven/repository</localRepository>", //
+                "  <offline>true</offline>", //
+                "</settings>").getBytes(StandardCharsets.UTF_8));
+        assertEquals("${user.home}/maven/repository", LocalFeatureRepository.readLocalRepository(settings));
+
+        Files.write(settings, "<settings><offline>true</offline></settings>".getBytes(StandardCharsets.UTF_8));
+        assertNull(LocalFeatureRepository.readLocalRepository(settings));
+
+        Files.write(settings, "<settings><localRepository>".getBytes(StandardCharsets.UTF_8));
+        assertNull(LocalFeatureRepository.readLocalRepository(settings));
+
+        assertNull(LocalFeatureRepository.readLocalRepository(tempDir.resolve("missing.xml")));
+    }
+}
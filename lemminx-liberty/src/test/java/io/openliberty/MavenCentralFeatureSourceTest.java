@@ -0,0 +1,150 @@
+package io.openliberty;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.zip.GZIPOutputStream;
+
+import com.sun.net.httpserver.HttpServer;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import io.openliberty.tools.langserver.lemminx.models.feature.Feature;
+import io.openliberty.tools.langserver.lemminx.services.FeatureCatalogStore;
+import io.openliberty.tools.langserver.lemminx.services.FeaturePrefetcher;
+import io.openliberty.tools.langserver.lemminx.services.FetchBackoff;
+import io.openliberty.tools.langserver.lemminx.services.LocalFeatureRepository;
+import io.openliberty.tools.langserver.lemminx.services.MavenCentralFeatureSource;
+
+/**
+ * Runs the Maven source against a local stand-in for Maven Central
+ */
+public class MavenCentralFeatureSourceTest {
+
+    private static final String FEATURE_LIST = "[{\"name\":\"io.openliberty.jaxrs-2.1\",\"shortDescription\":\"JAX-RS 2.1\","
+            + "\"wlpInformation\":{\"shortName\":\"jaxrs-2.1\",\"visibility\":\"PUBLIC\"}}]\n";
+    private static final String METADATA = "<metadata><groupId>io.openliberty.features</groupId><artifactId>features</artifactId>"
+            + "<versioning><latest>22.0.0.7-beta</latest><versions><version>21.0.0.12</version><version>22.0.0.5</version>"
+            + "<version>22.0.0.6</version><version>22.0.0.7-beta</version></versions></versioning></metadata>";
+    private static final String ETAG = "\"features-22.0.0.6\"";
+
+    private HttpServer server;
+    private final AtomicInteger requests = new AtomicInteger();
+    private final AtomicInteger notModified = new AtomicInteger();
+    private String repositoryUrl;
+
+    @BeforeEach
+    public void startServer() throws IOException {
+        server = HttpServer.create(new InetSocketAddress(InetAddress.getLoopbackAddress(), 0), 0);
+        server.createContext("/maven2/", exchange -> {
+            requests.incrementAndGet();
+            String path = exchange.getRequestURI().getPath();
+            if (path.equals("/maven2/io/openliberty/features/features/maven-metadata.xml")) {
+                byte[] metadata = METADATA.getBytes(StandardCharsets.UTF_8);
+                exchange.sendResponseHeaders(200, metadata.length);
+                try (OutputStream os = exchange.getResponseBody()) {
+                    os.write(metadata);
+                }
+            } else if (!path.equals("/maven2/io/openliberty/features/features/22.0.0.6/features-22.0.0.6.json")) {
+                exchange.sendResponseHeaders(404, -1);
+            } else if (ETAG.equals(exchange.getRequestHeaders().getFirst("If-None-Match"))) {
+                notModified.incrementAndGet();
+                exchange.sendResponseHeaders(304, -1);
+            } else {
+                ByteArrayOutputStream gzipped = new ByteArrayOutputStream();
+                try (OutputStream os = new GZIPOutputStream(gzipped)) {
+                    os.write(FEATURE_LIST.getBytes(StandardCharsets.UTF_8));
+                }
+                exchange.getResponseHeaders().add("ETag", ETAG);
+                exchange.getResponseHeaders().add("Content-Encoding", "gzip");
+                exchange.sendResponseHeaders(200, gzipped.size());
+                try (OutputStream os = exchange.getResponseBody()) {
+                    gzipped.writeTo(os);
+                }
+            }
+            exchange.close();
+        });
+        server.start();
+        repositoryUrl = "http://" + server.getAddress().getHostString() + ":" + server.getAddress().getPort() + "/maven2";
+    }
+
+    @AfterEach
+    public void stopServer() {
+        server.stop(0);
+    }
+
+    @Test
+    public void testDownloadAndRevalidate() throws IOException {
+        FeatureCatalogStore store = new FeatureCatalogStore(Files.createTempDirectory("features"));
+        MavenCentralFeatureSource source = new MavenCentralFeatureSource(store, repositoryUrl);
+
+        List<Feature> features = source.loadFeatures("ol", "22.0.0.6");
+        assertEquals(1, features.size());
+        assertEquals("jaxrs-2.1", features.get(0).getWlpInformation().getShortName());
+
+        // stored uncompressed, with the ETag for the next request
+        FeatureCatalogStore.Entry entry = store.read("ol", "22.0.0.6");
+        assertNotNull(entry);
+        assertEquals(ETAG, entry.getEtag());
+        assertEquals(FEATURE_LIST, new String(Files.readAllBytes(entry.getFile()), StandardCharsets.UTF_8));
+
+        features = source.loadFeatures("ol", "22.0.0.6");
+        assertEquals(1, features.size());
+        assertEquals(1, notModified.get());
+        assertEquals(2, requests.get());
+    }
+
+    @Test
+    public void testUnknownVersion() throws IOException {
+        MavenCentralFeatureSource source = new MavenCentralFeatureSource(new FeatureCatalogStore(Files.createTempDirectory("features")), repositoryUrl);
+        assertNull(source.loadFeatures("ol", "22.0.0.99"));
+        assertNull(source.loadFeatures("ol", "../22.0.0.6"));
+        assertEquals(1, requests.get());
+    }
+
+    @Test
+    public void testLoadVersions() throws IOException {
+        MavenCentralFeatureSource source = new MavenCentralFeatureSource(new FeatureCatalogStore(Files.createTempDirectory("features")), repositoryUrl);
+        assertEquals(Arrays.asList("21.0.0.12", "22.0.0.5", "22.0.0.6", "22.0.0.7-beta"), source.loadVersions("ol"));
+    }
+
+    @Test
+    public void testPrefetchNewestVersions() throws IOException {
+        FeatureCatalogStore store = new FeatureCatalogStore(Files.createTempDirectory("features"));
+        // already stored, not downloaded again
+        store.write("ol", "22.0.0.5", FEATURE_LIST.getBytes(StandardCharsets.UTF_8), null, null);
+        store.write("ol", "21.0.0.12", FEATURE_LIST.getBytes(StandardCharsets.UTF_8), null, null);
+        MavenCentralFeatureSource source = new MavenCentralFeatureSource(store, repositoryUrl);
+        FeaturePrefetcher prefetcher = new FeaturePrefetcher(source, new LocalFeatureRepository(Collections.emptyList()), store, new FetchBackoff());
+
+        // the beta is not prefetched
+        assertEquals(Collections.singletonList("22.0.0.6"), prefetcher.prefetch("ol"));
+        assertNotNull(store.read("ol", "22.0.0.6"));
+        assertEquals(2, requests.get());
+
+        assertEquals(Collections.emptyList(), prefetcher.prefetch("ol"));
+        assertEquals(3, requests.get());
+    }
+
+    @Test
+    public void testUnreachableRepository() throws IOException {
+        server.stop(0);
+        MavenCentralFeatureSource source = new MavenCentralFeatureSource(new FeatureCatalogStore(Files.createTempDirectory("features")), repositoryUrl);
+        assertThrows(IOException.class, () -> source.loadFeatures("ol", "22.0.0.6"));
+    }
+}